@@ -0,0 +1,183 @@
+package org.vitaliistf.souvenirs.benchmark;
+
+import org.vitaliistf.souvenirs.filemanager.FileManager;
+import org.vitaliistf.souvenirs.filemanager.PersistenceMode;
+import org.vitaliistf.souvenirs.filemanager.WriteBehindPolicy;
+import org.vitaliistf.souvenirs.filemanager.codec.ManufacturerCodec;
+import org.vitaliistf.souvenirs.filemanager.codec.SouvenirCodec;
+import org.vitaliistf.souvenirs.model.Manufacturer;
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Generator of reproducible data sets for benchmarks.
+ * Souvenirs are spread evenly over manufacturers, and souvenirs of different manufacturers share names.
+ * Production dates span {@link #YEARS} years and prices are uniformly distributed up to {@link #MAX_PRICE}.
+ */
+public final class BenchmarkData {
+
+    /**
+     * Number of souvenirs per manufacturer.
+     */
+    public static final int SOUVENIRS_PER_MANUFACTURER = 100;
+
+    /**
+     * Number of distinct production years.
+     */
+    public static final int YEARS = 30;
+
+    /**
+     * Upper bound of souvenir prices.
+     */
+    public static final double MAX_PRICE = 1000.0;
+
+    private static final int COUNTRIES = 50;
+    private static final LocalDate FIRST_PRODUCTION_DATE = LocalDate.of(1995, 1, 1);
+    private static final WriteBehindPolicy WRITE_BEHIND_POLICY = new WriteBehindPolicy(1000, 500);
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Computes the number of manufacturers for the specified number of souvenirs.
+     *
+     * @param souvenirCount The number of souvenirs.
+     * @return The number of manufacturers, at least one.
+     */
+    public static int manufacturerCount(int souvenirCount) {
+        return Math.max(1, souvenirCount / SOUVENIRS_PER_MANUFACTURER);
+    }
+
+    /**
+     * Generates manufacturers with IDs starting from 1.
+     *
+     * @param count The number of manufacturers.
+     * @return A list of generated manufacturers.
+     */
+    public static List<Manufacturer> manufacturers(int count) {
+        return Stream.iterate(1, id -> id + 1)
+                .limit(count)
+                .map(id -> Manufacturer.builder()
+                        .id(id)
+                        .name("Manufacturer" + id)
+                        .country("Country" + id % COUNTRIES)
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Generates souvenirs with IDs starting from 1.
+     * The pair of name and manufacturer is unique for every souvenir.
+     *
+     * @param count             The number of souvenirs.
+     * @param manufacturerCount The number of manufacturers the souvenirs are spread over.
+     * @return A list of generated souvenirs.
+     */
+    public static List<Souvenir> souvenirs(int count, int manufacturerCount) {
+        Random random = new Random(42);
+        return Stream.iterate(0, index -> index + 1)
+                .limit(count)
+                .map(index -> Souvenir.builder()
+                        .id(index + 1)
+                        // Names repeat across manufacturers, but never within one manufacturer
+                        .name("Souvenir" + index / manufacturerCount)
+                        .manufacturerId(index % manufacturerCount + 1)
+                        .productionDate(FIRST_PRODUCTION_DATE.plusDays(random.nextInt(YEARS * 365)))
+                        .price(Math.round(random.nextDouble() * MAX_PRICE * 100) / 100.0)
+                        .build())
+                .toList();
+    }
+
+    /**
+     * Creates a synchronous snapshot file manager for souvenirs.
+     *
+     * @param file The data file.
+     * @return The file manager.
+     */
+    public static FileManager<Souvenir> souvenirFileManager(Path file) {
+        return new FileManager<>(file.toString(), new SouvenirCodec(), Souvenir::getId, PersistenceMode.SNAPSHOT, 0);
+    }
+
+    /**
+     * Creates a file manager for a repository under benchmark.
+     * Mutations are journaled and written behind with the default policy of the application,
+     * but the data file is never rewritten, so no snapshot of the whole data set runs during measurements.
+     *
+     * @param file The data file.
+     * @return The file manager.
+     */
+    public static FileManager<Souvenir> souvenirRepositoryFileManager(Path file) {
+        return new FileManager<>(file.toString(), new SouvenirCodec(), Souvenir::getId, PersistenceMode.JOURNAL,
+                Integer.MAX_VALUE, WRITE_BEHIND_POLICY);
+    }
+
+    /**
+     * Creates a file manager for a manufacturer repository under benchmark.
+     *
+     * @param file The data file.
+     * @return The file manager.
+     * @see #souvenirRepositoryFileManager(Path)
+     */
+    public static FileManager<Manufacturer> manufacturerRepositoryFileManager(Path file) {
+        return new FileManager<>(file.toString(), new ManufacturerCodec(), Manufacturer::getId,
+                PersistenceMode.JOURNAL, Integer.MAX_VALUE, WRITE_BEHIND_POLICY);
+    }
+
+    /**
+     * Writes souvenirs as the snapshot of the specified data file.
+     *
+     * @param file      The data file.
+     * @param souvenirs The souvenirs to write.
+     */
+    public static void writeSouvenirs(Path file, List<Souvenir> souvenirs) {
+        souvenirFileManager(file).saveToFile(souvenirs);
+    }
+
+    /**
+     * Writes manufacturers as the snapshot of the specified data file.
+     *
+     * @param file          The data file.
+     * @param manufacturers The manufacturers to write.
+     */
+    public static void writeManufacturers(Path file, List<Manufacturer> manufacturers) {
+        new FileManager<>(file.toString(), new ManufacturerCodec(), Manufacturer::getId, PersistenceMode.SNAPSHOT, 0)
+                .saveToFile(manufacturers);
+    }
+
+    /**
+     * Creates a temporary directory for data files.
+     *
+     * @return The created directory.
+     */
+    public static Path createDirectory() {
+        try {
+            return Files.createTempDirectory("souvenirs-benchmark");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Deletes a directory created by {@link #createDirectory()} with all its files.
+     *
+     * @param directory The directory to delete.
+     */
+    public static void deleteDirectory(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
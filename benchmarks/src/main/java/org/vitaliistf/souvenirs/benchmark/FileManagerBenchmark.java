@@ -0,0 +1,52 @@
+package org.vitaliistf.souvenirs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.vitaliistf.souvenirs.filemanager.FileManager;
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks saving and loading snapshots of souvenirs with FileManager.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class FileManagerBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int size;
+
+    private Path directory;
+    private FileManager<Souvenir> fileManager;
+    private List<Souvenir> souvenirs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = BenchmarkData.createDirectory();
+        fileManager = BenchmarkData.souvenirFileManager(directory.resolve("souvenirs.ser"));
+        souvenirs = BenchmarkData.souvenirs(size, BenchmarkData.manufacturerCount(size));
+        fileManager.saveToFile(souvenirs);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public void saveToFile() {
+        fileManager.saveToFile(souvenirs);
+    }
+
+    @Benchmark
+    public Set<Souvenir> loadFromFile() {
+        return fileManager.loadFromFile();
+    }
+}
@@ -0,0 +1,79 @@
+package org.vitaliistf.souvenirs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.vitaliistf.souvenirs.filemanager.FileManager;
+import org.vitaliistf.souvenirs.model.Manufacturer;
+import org.vitaliistf.souvenirs.model.Souvenir;
+import org.vitaliistf.souvenirs.repository.implementation.InMemoryManufacturerRepository;
+import org.vitaliistf.souvenirs.repository.implementation.InMemorySouvenirRepository;
+import org.vitaliistf.souvenirs.service.ManufacturerService;
+import org.vitaliistf.souvenirs.service.SouvenirService;
+import org.vitaliistf.souvenirs.validation.ManufacturerValidator;
+import org.vitaliistf.souvenirs.validation.SouvenirValidator;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the aggregating queries of ManufacturerService and SouvenirService.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class ServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int size;
+
+    private Path directory;
+    private FileManager<Souvenir> souvenirFileManager;
+    private FileManager<Manufacturer> manufacturerFileManager;
+    private ManufacturerService manufacturerService;
+    private SouvenirService souvenirService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = BenchmarkData.createDirectory();
+        Path souvenirsFile = directory.resolve("souvenirs.ser");
+        Path manufacturersFile = directory.resolve("manufacturers.ser");
+        int manufacturerCount = BenchmarkData.manufacturerCount(size);
+        BenchmarkData.writeSouvenirs(souvenirsFile, BenchmarkData.souvenirs(size, manufacturerCount));
+        BenchmarkData.writeManufacturers(manufacturersFile, BenchmarkData.manufacturers(manufacturerCount));
+
+        souvenirFileManager = BenchmarkData.souvenirRepositoryFileManager(souvenirsFile);
+        manufacturerFileManager = BenchmarkData.manufacturerRepositoryFileManager(manufacturersFile);
+        InMemorySouvenirRepository souvenirRepository = new InMemorySouvenirRepository(souvenirFileManager);
+        InMemoryManufacturerRepository manufacturerRepository =
+                new InMemoryManufacturerRepository(manufacturerFileManager);
+        manufacturerService = new ManufacturerService(new ManufacturerValidator(), souvenirRepository,
+                manufacturerRepository);
+        souvenirService = new SouvenirService(new SouvenirValidator(), souvenirRepository, manufacturerRepository);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        souvenirFileManager.close();
+        manufacturerFileManager.close();
+        BenchmarkData.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public List<Manufacturer> getManufacturersByMaxPrice() {
+        return manufacturerService.getManufacturersByMaxPrice(BenchmarkData.MAX_PRICE / 2);
+    }
+
+    @Benchmark
+    public Map<Manufacturer, List<Souvenir>> getManufacturersWithSouvenirs() {
+        return manufacturerService.getManufacturersWithSouvenirs();
+    }
+
+    @Benchmark
+    public Map<Integer, List<Souvenir>> getSouvenirsByYear() {
+        return souvenirService.getSouvenirsByYear();
+    }
+}
@@ -0,0 +1,97 @@
+package org.vitaliistf.souvenirs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.vitaliistf.souvenirs.filemanager.FileManager;
+import org.vitaliistf.souvenirs.model.Souvenir;
+import org.vitaliistf.souvenirs.repository.implementation.InMemorySouvenirRepository;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks CRUD operations and queries of InMemorySouvenirRepository.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class SouvenirRepositoryBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    private int size;
+
+    private Path directory;
+    private FileManager<Souvenir> fileManager;
+    private InMemorySouvenirRepository repository;
+    private int manufacturerCount;
+    private long nextId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        directory = BenchmarkData.createDirectory();
+        Path file = directory.resolve("souvenirs.ser");
+        manufacturerCount = BenchmarkData.manufacturerCount(size);
+        BenchmarkData.writeSouvenirs(file, BenchmarkData.souvenirs(size, manufacturerCount));
+        fileManager = BenchmarkData.souvenirRepositoryFileManager(file);
+        repository = new InMemorySouvenirRepository(fileManager);
+        nextId = size + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fileManager.close();
+        BenchmarkData.deleteDirectory(directory);
+    }
+
+    @Benchmark
+    public Optional<Souvenir> getById() {
+        return repository.getById(randomId());
+    }
+
+    @Benchmark
+    public List<Souvenir> getByName() {
+        return repository.getByName("Souvenir" + ThreadLocalRandom.current().nextInt(size / manufacturerCount));
+    }
+
+    @Benchmark
+    public List<Souvenir> getByManufacturerId() {
+        return repository.getByManufacturerId(ThreadLocalRandom.current().nextLong(1, manufacturerCount + 1));
+    }
+
+    @Benchmark
+    public List<Souvenir> getAll() {
+        return repository.getAll();
+    }
+
+    @Benchmark
+    public boolean update() {
+        Souvenir souvenir = repository.getById(randomId()).orElseThrow();
+        return repository.update(souvenir.toBuilder()
+                .price(ThreadLocalRandom.current().nextDouble(BenchmarkData.MAX_PRICE))
+                .build());
+    }
+
+    /**
+     * Adds a souvenir and removes it again, so the size of the repository stays the same.
+     * IDs are allocated sequentially, so the ID of the added souvenir is known in advance.
+     *
+     * @return true if both operations succeeded.
+     */
+    @Benchmark
+    @Threads(1)
+    public boolean addAndRemove() {
+        long id = nextId++;
+        boolean added = repository.add(new Souvenir("Added" + id, 1, LocalDate.now(), 10.0));
+        return added & repository.remove(id);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, size + 1);
+    }
+}
@@ -0,0 +1,49 @@
+package org.vitaliistf.souvenirs.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.vitaliistf.souvenirs.menu.view.SouvenirTableView;
+import org.vitaliistf.souvenirs.menu.view.TableWriter;
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks rendering of souvenir tables.
+ * The largest data set is smaller than in other benchmarks, as the whole table is kept in memory as a string.
+ * Streamed tables are written to a discarding writer, so only rendering is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class TableViewBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private SouvenirTableView tableView;
+    private List<Souvenir> souvenirs;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tableView = new SouvenirTableView();
+        souvenirs = BenchmarkData.souvenirs(size, BenchmarkData.manufacturerCount(size));
+    }
+
+    @Benchmark
+    public String generateTable() {
+        return tableView.generateTable(souvenirs);
+    }
+
+    @Benchmark
+    public void streamTable() {
+        TableWriter.sampled(tableView, Writer.nullWriter(), souvenirs.subList(0, Math.min(souvenirs.size(), 100)))
+                .writeHeader(true)
+                .writeRows(souvenirs)
+                .writeFooter();
+    }
+}
@@ -1,44 +1,105 @@
 package org.vitaliistf.souvenirs;
 
+import org.vitaliistf.souvenirs.batch.BatchRunner;
+import org.vitaliistf.souvenirs.config.ConfigReader;
 import org.vitaliistf.souvenirs.controller.MainController;
+import org.vitaliistf.souvenirs.http.ApiServer;
 import org.vitaliistf.souvenirs.menu.Menu;
 import org.vitaliistf.souvenirs.menu.command.CommandPool;
 import org.vitaliistf.souvenirs.menu.view.ManufacturerTableView;
 import org.vitaliistf.souvenirs.menu.view.SouvenirTableView;
+import org.vitaliistf.souvenirs.repository.SouvenirRepository;
 import org.vitaliistf.souvenirs.repository.implementation.InMemoryManufacturerRepository;
 import org.vitaliistf.souvenirs.repository.implementation.InMemorySouvenirRepository;
+import org.vitaliistf.souvenirs.repository.implementation.MappedSouvenirRepository;
+import org.vitaliistf.souvenirs.service.ImportResult;
 import org.vitaliistf.souvenirs.service.ManufacturerService;
 import org.vitaliistf.souvenirs.service.SouvenirService;
 import org.vitaliistf.souvenirs.util.InputReader;
 import org.vitaliistf.souvenirs.validation.ManufacturerValidator;
 import org.vitaliistf.souvenirs.validation.SouvenirValidator;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 /**
  * Entry point for the Souvenirs application.
  */
 public class Main {
 
+    private static final String EXTERNAL_CONFIG_PROPERTY = "souvenirs.config";
+
     /**
      * Main method to start the application.
      *
-     * @param args The command-line arguments (not used).
+     * <p>With the --http argument the operations are served as an HTTP API on the port specified
+     * by the http.port property instead of the console menu.
+     * With the --batch argument the operations are read from the script file that follows it,
+     * or from the standard input if no file is specified, and the application exits with status 1
+     * if any of them failed.
+     * With the --import argument followed by "manufacturers" or "souvenirs" and a CSV file, the objects of the file
+     * are imported in bulk, and the application exits with status 1 if any row was rejected.
+     * If the souvenirs.config system property names a properties file, its properties override application.properties,
+     * and the file is watched, so changes of reloadable properties apply without a restart.
+     *
+     * @param args The command-line arguments: --http to start the HTTP API, --batch [file] to run a script,
+     *             --import manufacturers|souvenirs file to import a CSV file.
      */
     public static void main(String[] args) {
+        String externalConfig = System.getProperty(EXTERNAL_CONFIG_PROPERTY);
+        if (externalConfig != null) {
+            ConfigReader.configuration().watch(Path.of(externalConfig));
+        }
+
         // Initialize services and dependencies
         ManufacturerValidator manufacturerValidator = new ManufacturerValidator();
         SouvenirValidator souvenirValidator = new SouvenirValidator();
+        SouvenirRepository souvenirRepository = createSouvenirRepository();
 
         ManufacturerService manufacturerService = new ManufacturerService(
                 manufacturerValidator,
-                InMemorySouvenirRepository.getInstance(),
+                souvenirRepository,
                 InMemoryManufacturerRepository.getInstance());
         SouvenirService souvenirService = new SouvenirService(
                 souvenirValidator,
-                InMemorySouvenirRepository.getInstance(),
+                souvenirRepository,
                 InMemoryManufacturerRepository.getInstance());
 
         MainController controller = new MainController(manufacturerService, souvenirService);
 
+        if (args.length > 0 && args[0].equals("--http")) {
+            serveHttp(controller, souvenirRepository);
+            return;
+        }
+        if (args.length == 3 && args[0].equals("--import")) {
+            ImportResult result = switch (args[1]) {
+                case "manufacturers" -> controller.importManufacturers(Path.of(args[2]));
+                case "souvenirs" -> controller.importSouvenirs(Path.of(args[2]));
+                default -> throw new IllegalArgumentException("Unknown import type " + args[1] + ".");
+            };
+            closeRepository(souvenirRepository);
+            result.errors().forEach(System.out::println);
+            System.out.println("Import finished: " + result.imported() + " imported, "
+                    + result.rejected() + " rejected.");
+            if (!result.isSuccessful()) {
+                System.exit(1);
+            }
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchRunner.Summary summary = runBatch(controller, args.length > 1 ? Path.of(args[1]) : null);
+            closeRepository(souvenirRepository);
+            if (summary.failed() > 0) {
+                System.exit(1);
+            }
+            return;
+        }
+
         InputReader reader = new InputReader(System.in);
         ManufacturerTableView manufacturerTableView = new ManufacturerTableView();
         SouvenirTableView souvenirTableView = new SouvenirTableView();
@@ -49,5 +110,79 @@ public class Main {
         menu.displayMenu();
 
         reader.close();
+        closeRepository(souvenirRepository);
+    }
+
+    /**
+     * Starts the HTTP API, which runs until the application is terminated.
+     *
+     * @param controller         The MainController serving the requests.
+     * @param souvenirRepository The souvenir repository to close on termination.
+     */
+    private static void serveHttp(MainController controller, SouvenirRepository souvenirRepository) {
+        int port = ConfigReader.configuration().getInt("http.port", 8080);
+        ApiServer server;
+        try {
+            server = new ApiServer(controller, new InetSocketAddress(port));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            closeRepository(souvenirRepository);
+        }));
+        server.start();
+        System.out.println("Serving HTTP API on port " + server.getAddress().getPort() + ".");
+    }
+
+    /**
+     * Runs the operations of a script as one batch.
+     *
+     * @param controller The MainController running the operations.
+     * @param script     The script file, or null to read the script from the standard input.
+     * @return The summary of the run.
+     */
+    private static BatchRunner.Summary runBatch(MainController controller, Path script) {
+        BatchRunner runner = new BatchRunner(controller);
+        if (script == null) {
+            return runner.run(new BufferedReader(new InputStreamReader(System.in)), System.out);
+        }
+        try (BufferedReader reader = Files.newBufferedReader(script)) {
+            return runner.run(reader, System.out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the souvenir repository if it holds open files.
+     *
+     * @param souvenirRepository The souvenir repository.
+     */
+    private static void closeRepository(SouvenirRepository souvenirRepository) {
+        if (souvenirRepository instanceof MappedSouvenirRepository mappedRepository) {
+            try {
+                mappedRepository.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Creates the souvenir repository selected by the souvenirs.storage property:
+     * "memory" (default) keeps souvenirs in memory, "mapped" keeps them in memory-mapped column files
+     * in the directory specified by the souvenirs.mapped-directory property.
+     *
+     * @return The souvenir repository.
+     */
+    private static SouvenirRepository createSouvenirRepository() {
+        String storage = ConfigReader.getProperty("souvenirs.storage").map(String::trim).orElse("memory");
+        if (storage.equalsIgnoreCase("mapped")) {
+            String directory = ConfigReader.getProperty("souvenirs.mapped-directory")
+                    .orElseThrow(() -> new RuntimeException("souvenirs.mapped-directory property is not set."));
+            return new MappedSouvenirRepository(Path.of(directory.trim()));
+        }
+        return InMemorySouvenirRepository.getInstance();
     }
 }
\ No newline at end of file
@@ -0,0 +1,189 @@
+package org.vitaliistf.souvenirs.batch;
+
+import org.vitaliistf.souvenirs.controller.MainController;
+import org.vitaliistf.souvenirs.model.Manufacturer;
+import org.vitaliistf.souvenirs.model.Souvenir;
+import org.vitaliistf.souvenirs.validation.ValidationResult;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Non-interactive front end running operations of the MainController from a script, one operation per line.
+ * A line holds the name of the operation followed by its arguments separated by semicolons, for example
+ * {@code add-souvenir Signature Mug; 1; 2023-05-01; 12.5}. Blank lines and lines starting with # are skipped.
+ *
+ * <p>Operations:
+ * <ul>
+ *     <li>{@code add-manufacturer name; country}</li>
+ *     <li>{@code update-manufacturer id; name; country}</li>
+ *     <li>{@code delete-manufacturer id}, which deletes the souvenirs of the manufacturer as well</li>
+ *     <li>{@code add-souvenir name; manufacturerId; productionDate; price}</li>
+ *     <li>{@code update-souvenir id; name; manufacturerId; productionDate; price}</li>
+ *     <li>{@code delete-souvenir id}</li>
+ * </ul>
+ * Dates are written as yyyy-MM-dd. The whole script runs as one batch, so its changes are persisted together,
+ * and only failed lines and a final summary are reported.
+ */
+public class BatchRunner {
+
+    private static final String COMMENT_PREFIX = "#";
+    private static final String ARGUMENT_SEPARATOR = ";";
+
+    private final MainController controller;
+    private final Map<String, Operation> operations = new LinkedHashMap<>();
+
+    /**
+     * Constructs a BatchRunner running operations through the specified MainController.
+     *
+     * @param controller The MainController instance for managing operations.
+     */
+    public BatchRunner(MainController controller) {
+        this.controller = controller;
+        operations.put("add-manufacturer", new Operation(2, arguments -> validated(
+                controller.addManufacturer(new Manufacturer(arguments[0], arguments[1])))));
+        operations.put("update-manufacturer", new Operation(3, arguments -> {
+            Manufacturer manufacturer = new Manufacturer(arguments[1], arguments[2]);
+            manufacturer.setId(parseLong(arguments[0], "ID"));
+            return validated(controller.updateManufacturer(manufacturer));
+        }));
+        operations.put("delete-manufacturer", new Operation(1, arguments -> deleted(
+                controller.deleteManufacturer(parseLong(arguments[0], "ID")), "manufacturer")));
+        operations.put("add-souvenir", new Operation(4, arguments -> validated(
+                controller.addSouvenir(souvenir(arguments, 0)))));
+        operations.put("update-souvenir", new Operation(5, arguments -> {
+            Souvenir souvenir = souvenir(arguments, 1);
+            souvenir.setId(parseLong(arguments[0], "ID"));
+            return validated(controller.updateSouvenir(souvenir));
+        }));
+        operations.put("delete-souvenir", new Operation(1, arguments -> deleted(
+                controller.deleteSouvenir(parseLong(arguments[0], "ID")), "souvenir")));
+    }
+
+    /**
+     * Runs the operations read from a script as one batch.
+     * Every failed line is reported with its number and errors, followed by a summary of the run.
+     *
+     * @param script The reader of the script.
+     * @param out    The stream to report to.
+     * @return The summary of the run.
+     * @throws UncheckedIOException If the script cannot be read; operations run before are still persisted.
+     */
+    public Summary run(BufferedReader script, PrintStream out) {
+        int[] counts = new int[2];
+        controller.batch(() -> {
+            int lineNumber = 0;
+            String line;
+            try {
+                while ((line = script.readLine()) != null) {
+                    lineNumber++;
+                    line = line.strip();
+                    if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) {
+                        continue;
+                    }
+                    List<String> errors = runLine(line);
+                    if (errors.isEmpty()) {
+                        counts[0]++;
+                    } else {
+                        counts[1]++;
+                        out.println("Line " + lineNumber + ": " + String.join(" ", errors));
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        Summary summary = new Summary(counts[0], counts[1]);
+        out.println("Batch finished: " + summary.succeeded() + " operations succeeded, "
+                + summary.failed() + " failed.");
+        return summary;
+    }
+
+    /**
+     * Runs the operation of a single line.
+     *
+     * @param line The line, without surrounding whitespace.
+     * @return The errors of the operation, empty if it succeeded.
+     */
+    private List<String> runLine(String line) {
+        int nameEnd = line.indexOf(' ');
+        String name = nameEnd < 0 ? line : line.substring(0, nameEnd);
+        Operation operation = operations.get(name);
+        if (operation == null) {
+            return List.of("Unknown operation " + name + ".");
+        }
+        String[] arguments = nameEnd < 0
+                ? new String[0]
+                : Arrays.stream(line.substring(nameEnd + 1).split(ARGUMENT_SEPARATOR, -1))
+                        .map(String::strip)
+                        .toArray(String[]::new);
+        if (arguments.length != operation.arity()) {
+            return List.of("Operation " + name + " expects " + operation.arity() + " arguments.");
+        }
+        try {
+            return operation.action().apply(arguments);
+        } catch (IllegalArgumentException e) {
+            return List.of(e.getMessage());
+        }
+    }
+
+    private static Souvenir souvenir(String[] arguments, int offset) {
+        LocalDate productionDate;
+        try {
+            productionDate = LocalDate.parse(arguments[offset + 2]);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Production date must be written as yyyy-MM-dd.");
+        }
+        double price;
+        try {
+            price = Double.parseDouble(arguments[offset + 3]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Price must be a number.");
+        }
+        return new Souvenir(arguments[offset], parseLong(arguments[offset + 1], "Manufacturer ID"),
+                productionDate, price);
+    }
+
+    private static long parseLong(String value, String name) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be an integer.");
+        }
+    }
+
+    private static List<String> validated(ValidationResult result) {
+        return result.getErrors();
+    }
+
+    private static List<String> deleted(boolean deleted, String type) {
+        return deleted ? List.of() : List.of("There is no " + type + " with such id.");
+    }
+
+    /**
+     * Summary of a batch run.
+     *
+     * @param succeeded The number of operations that succeeded.
+     * @param failed    The number of operations that failed.
+     */
+    public record Summary(int succeeded, int failed) {
+    }
+
+    /**
+     * Operation available in scripts.
+     *
+     * @param arity  The number of arguments of the operation.
+     * @param action The function running the operation and returning its errors, empty if it succeeded.
+     */
+    private record Operation(int arity, Function<String[], List<String>> action) {
+    }
+}
@@ -4,14 +4,44 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.Set;
 
 /**
  * Utility class for reading configuration properties from the application.properties file.
+ * The file is read once, on first use, into a {@link Configuration} shared by the whole application.
  */
 public class ConfigReader {
 
     private static final String PROPERTIES_FILE = "application.properties";
 
+    /**
+     * Properties that can change while an external configuration file is watched.
+     */
+    public static final Set<String> RELOADABLE_PROPERTIES =
+            Set.of("persistence.flush-interval-ms", "persistence.flush-batch-size");
+
+    private static volatile Configuration configuration;
+
+    /**
+     * Retrieves the configuration loaded from application.properties.
+     *
+     * @return The shared configuration.
+     * @throws RuntimeException If an error occurs while reading the configuration file.
+     */
+    public static Configuration configuration() {
+        Configuration result = configuration;
+        if (result == null) {
+            synchronized (ConfigReader.class) {
+                result = configuration;
+                if (result == null) {
+                    result = new Configuration(load(), RELOADABLE_PROPERTIES);
+                    configuration = result;
+                }
+            }
+        }
+        return result;
+    }
+
     /**
      * Retrieves the value of the specified property from the configuration file.
      *
@@ -20,13 +50,17 @@ public class ConfigReader {
      * @throws RuntimeException If an error occurs while reading the configuration file.
      */
     public static Optional<String> getProperty(String propertyName) {
+        return configuration().getString(propertyName);
+    }
+
+    private static Properties load() {
         Properties properties = new Properties();
         try (InputStream inputStream = ConfigReader.class.getClassLoader().getResourceAsStream(PROPERTIES_FILE)) {
             if (inputStream == null) {
                 throw new IOException("application.properties file not found.");
             }
             properties.load(inputStream);
-            return Optional.ofNullable(properties.getProperty(propertyName));
+            return properties;
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
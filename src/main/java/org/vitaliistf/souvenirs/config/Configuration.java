@@ -0,0 +1,324 @@
+package org.vitaliistf.souvenirs.config;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * Typed registry of configuration properties, loaded once and read from memory.
+ * Values may be overridden by an external properties file. While the file is watched, changes of the properties
+ * that are safe to change at runtime are applied and announced to listeners; other properties keep the values
+ * they had when watching started, as the components using them are already created.
+ * Lookups are safe to run concurrently with reloads.
+ */
+public class Configuration implements Closeable {
+
+    private final Map<String, String> baseValues;
+    private final Set<String> reloadableProperties;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+    private volatile Map<String, String> values;
+    private Set<String> ignoredProperties = Set.of();
+    private Path watchedFile;
+    private WatchService watchService;
+
+    /**
+     * Constructs a Configuration with the specified properties.
+     *
+     * @param properties           The properties.
+     * @param reloadableProperties The names of properties that can change while the external file is watched.
+     */
+    public Configuration(Properties properties, Set<String> reloadableProperties) {
+        Map<String, String> loadedValues = new HashMap<>();
+        properties.stringPropertyNames().forEach(name -> loadedValues.put(name, properties.getProperty(name)));
+        this.baseValues = Map.copyOf(loadedValues);
+        this.reloadableProperties = Set.copyOf(reloadableProperties);
+        this.values = baseValues;
+    }
+
+    /**
+     * Retrieves the value of a property.
+     *
+     * @param name The name of the property.
+     * @return An Optional containing the value of the property, or empty if the property is not set.
+     */
+    public Optional<String> getString(String name) {
+        return Optional.ofNullable(values.get(name));
+    }
+
+    /**
+     * Retrieves the value of an integer property.
+     *
+     * @param name         The name of the property.
+     * @param defaultValue The value used if the property is not set.
+     * @return The value of the property.
+     * @throws IllegalArgumentException If the value is not an integer.
+     */
+    public int getInt(String name, int defaultValue) {
+        return get(name, Integer::valueOf, "an integer", defaultValue);
+    }
+
+    /**
+     * Retrieves the value of a long integer property.
+     *
+     * @param name         The name of the property.
+     * @param defaultValue The value used if the property is not set.
+     * @return The value of the property.
+     * @throws IllegalArgumentException If the value is not an integer.
+     */
+    public long getLong(String name, long defaultValue) {
+        return get(name, Long::valueOf, "an integer", defaultValue);
+    }
+
+    /**
+     * Retrieves the value of a boolean property, written as true or false in any case.
+     *
+     * @param name         The name of the property.
+     * @param defaultValue The value used if the property is not set.
+     * @return The value of the property.
+     * @throws IllegalArgumentException If the value is neither true nor false.
+     */
+    public boolean getBoolean(String name, boolean defaultValue) {
+        return get(name, value -> {
+            if (!value.equalsIgnoreCase("true") && !value.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException();
+            }
+            return Boolean.valueOf(value);
+        }, "true or false", defaultValue);
+    }
+
+    /**
+     * Retrieves the value of a duration property. The value is a number of milliseconds,
+     * a number followed by one of the units ms, s, m, h and d, or an ISO-8601 duration such as PT1.5S.
+     *
+     * @param name         The name of the property.
+     * @param defaultValue The value used if the property is not set.
+     * @return The value of the property.
+     * @throws IllegalArgumentException If the value is not a duration.
+     */
+    public Duration getDuration(String name, Duration defaultValue) {
+        return get(name, Configuration::parseDuration, "a duration", defaultValue);
+    }
+
+    /**
+     * Retrieves the value of an enum property, written as the name of a constant in any case,
+     * with hyphens in place of underscores allowed.
+     *
+     * @param name         The name of the property.
+     * @param type         The enum type.
+     * @param defaultValue The value used if the property is not set.
+     * @param <E>          The enum type.
+     * @return The value of the property.
+     * @throws IllegalArgumentException If the value is not a constant of the enum type.
+     */
+    public <E extends Enum<E>> E getEnum(String name, Class<E> type, E defaultValue) {
+        return get(name, value -> Enum.valueOf(type, value.toUpperCase().replace('-', '_')),
+                "one of " + List.of(type.getEnumConstants()), defaultValue);
+    }
+
+    /**
+     * Adds a listener notified after reloaded properties changed.
+     * Listeners run on the watching thread and read the new values from the configuration.
+     *
+     * @param listener The listener.
+     */
+    public void addListener(Runnable listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added before.
+     *
+     * @param listener The listener.
+     */
+    public void removeListener(Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * Overrides the properties with the ones of an external file and watches the file for changes.
+     * All properties of the file are applied immediately, so it should be called before the configuration is used.
+     * Later changes of the file are applied to reloadable properties only.
+     *
+     * @param file The external properties file.
+     * @throws UncheckedIOException  If the file cannot be read or watched.
+     * @throws IllegalStateException If a file is already watched.
+     */
+    public synchronized void watch(Path file) {
+        if (watchService != null) {
+            throw new IllegalStateException("Configuration file " + watchedFile + " is already watched.");
+        }
+        Path absoluteFile = file.toAbsolutePath();
+        WatchService service;
+        try {
+            Map<String, String> overriddenValues = new HashMap<>(baseValues);
+            overriddenValues.putAll(read(absoluteFile));
+            values = Map.copyOf(overriddenValues);
+            service = absoluteFile.getFileSystem().newWatchService();
+            absoluteFile.getParent().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+            watchedFile = absoluteFile;
+            watchService = service;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Thread.ofPlatform().daemon().name("configuration-watcher").start(() -> watchLoop(service));
+    }
+
+    /**
+     * Stops watching the external file. The values read from it are kept.
+     */
+    @Override
+    public synchronized void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            watchService = null;
+        }
+    }
+
+    /**
+     * Rereads the reloadable properties from the watched file and notifies the listeners if any of them changed.
+     * A reloadable property removed from the file falls back to its base value.
+     * Changes of other properties are ignored, and a warning names them once until they change again.
+     * If the file cannot be read, the current values are kept.
+     */
+    void reload() {
+        Map<String, String> fileValues;
+        synchronized (this) {
+            if (watchedFile == null) {
+                return;
+            }
+            try {
+                fileValues = read(watchedFile);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+            warnAboutIgnoredProperties(fileValues);
+            Map<String, String> reloadedValues = new HashMap<>(values);
+            for (String name : reloadableProperties) {
+                String value = fileValues.getOrDefault(name, baseValues.get(name));
+                if (value == null) {
+                    reloadedValues.remove(name);
+                } else {
+                    reloadedValues.put(name, value);
+                }
+            }
+            if (reloadedValues.equals(values)) {
+                return;
+            }
+            values = Map.copyOf(reloadedValues);
+        }
+        for (Runnable listener : listeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                // A rejected value must not stop other listeners or the watching
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void warnAboutIgnoredProperties(Map<String, String> fileValues) {
+        Set<String> ignored = new TreeSet<>();
+        for (String name : values.keySet()) {
+            if (!reloadableProperties.contains(name)
+                    && !values.get(name).equals(fileValues.getOrDefault(name, baseValues.get(name)))) {
+                ignored.add(name);
+            }
+        }
+        for (String name : fileValues.keySet()) {
+            if (!reloadableProperties.contains(name) && !values.containsKey(name)) {
+                ignored.add(name);
+            }
+        }
+        if (!ignored.isEmpty() && !ignored.equals(ignoredProperties)) {
+            new IllegalStateException("Properties " + ignored + " of " + watchedFile
+                    + " cannot change at runtime; the change applies after a restart.").printStackTrace();
+        }
+        ignoredProperties = ignored;
+    }
+
+    private void watchLoop(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= event.context() instanceof Path path
+                            && Objects.equals(path, watchedFile.getFileName());
+                }
+                key.reset();
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watching is stopped
+        }
+    }
+
+    private <R> R get(String name, Function<String, R> parser, String expected, R defaultValue) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return parser.apply(value.trim());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Property " + name + " must be " + expected + ", but is " + value + ".");
+        }
+    }
+
+    private static Duration parseDuration(String value) {
+        if (value.startsWith("P") || value.startsWith("p")) {
+            return Duration.parse(value);
+        }
+        int unitStart = value.length();
+        while (unitStart > 0 && Character.isLetter(value.charAt(unitStart - 1))) {
+            unitStart--;
+        }
+        long amount = Long.parseLong(value.substring(0, unitStart).trim());
+        return switch (value.substring(unitStart).toLowerCase()) {
+            case "", "ms" -> Duration.ofMillis(amount);
+            case "s" -> Duration.ofSeconds(amount);
+            case "m" -> Duration.ofMinutes(amount);
+            case "h" -> Duration.ofHours(amount);
+            case "d" -> Duration.ofDays(amount);
+            default -> throw new IllegalArgumentException();
+        };
+    }
+
+    private static Map<String, String> read(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (InputStream inputStream = Files.newInputStream(file)) {
+            properties.load(inputStream);
+        }
+        Map<String, String> fileValues = new HashMap<>();
+        properties.stringPropertyNames().forEach(name -> fileValues.put(name, properties.getProperty(name)));
+        return fileValues;
+    }
+}
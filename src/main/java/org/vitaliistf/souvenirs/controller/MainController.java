@@ -2,12 +2,17 @@ package org.vitaliistf.souvenirs.controller;
 
 import org.vitaliistf.souvenirs.model.Manufacturer;
 import org.vitaliistf.souvenirs.model.Souvenir;
+import org.vitaliistf.souvenirs.service.ImportResult;
 import org.vitaliistf.souvenirs.service.ManufacturerService;
 import org.vitaliistf.souvenirs.service.SouvenirService;
 import org.vitaliistf.souvenirs.validation.ValidationResult;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Stream;
 
 /**
  * Controller class responsible for handling requests related to manufacturers and souvenirs.
@@ -59,6 +64,25 @@ public class MainController {
         return manufacturerService.deleteManufacturer(id);
     }
 
+    /**
+     * Imports manufacturers from a CSV file with the columns name and country.
+     *
+     * @param file The CSV file, starting with a header line.
+     * @return The result of the import.
+     */
+    public ImportResult importManufacturers(Path file) {
+        return manufacturerService.importManufacturers(file);
+    }
+
+    /**
+     * Runs operations as a batch, so the changes they make are persisted together when it ends.
+     *
+     * @param operations The operations changing manufacturers and souvenirs.
+     */
+    public void batch(Runnable operations) {
+        manufacturerService.batch(operations);
+    }
+
     /**
      * Retrieves a list of all manufacturers.
      *
@@ -68,6 +92,27 @@ public class MainController {
         return manufacturerService.getAllManufacturers();
     }
 
+    /**
+     * Retrieves a page of manufacturers in ascending order of IDs.
+     *
+     * @param afterId The ID of the last manufacturer of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of manufacturers in the page.
+     * @return A list of at most limit manufacturers.
+     */
+    public List<Manufacturer> getManufacturersPage(long afterId, int limit) {
+        return manufacturerService.getManufacturersPage(afterId, limit);
+    }
+
+    /**
+     * Streams all manufacturers in ascending order of IDs, reading them page by page.
+     *
+     * @param pageSize The number of manufacturers read at once.
+     * @return A stream of all manufacturers.
+     */
+    public Stream<Manufacturer> streamAllManufacturers(int pageSize) {
+        return manufacturerService.streamAllManufacturers(pageSize);
+    }
+
     /**
      * Retrieves a list of manufacturers where the price of souvenirs is less than the specified price.
      *
@@ -127,6 +172,16 @@ public class MainController {
         return souvenirService.updateSouvenir(souvenir);
     }
 
+    /**
+     * Imports souvenirs from a CSV file with the columns name, manufacturer name, production date and price.
+     *
+     * @param file The CSV file, starting with a header line.
+     * @return The result of the import.
+     */
+    public ImportResult importSouvenirs(Path file) {
+        return souvenirService.importSouvenirs(file);
+    }
+
     /**
      * Deletes a souvenir by its ID.
      *
@@ -146,6 +201,69 @@ public class MainController {
         return souvenirService.getAllSouvenirs();
     }
 
+    /**
+     * Retrieves a page of souvenirs in ascending order of IDs.
+     *
+     * @param afterId The ID of the last souvenir of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of souvenirs in the page.
+     * @return A list of at most limit souvenirs.
+     */
+    public List<Souvenir> getSouvenirsPage(long afterId, int limit) {
+        return souvenirService.getSouvenirsPage(afterId, limit);
+    }
+
+    /**
+     * Streams all souvenirs in ascending order of IDs, reading them page by page.
+     *
+     * @param pageSize The number of souvenirs read at once.
+     * @return A stream of all souvenirs.
+     */
+    public Stream<Souvenir> streamAllSouvenirs(int pageSize) {
+        return souvenirService.streamAllSouvenirs(pageSize);
+    }
+
+    /**
+     * Retrieves souvenirs whose name starts with the specified prefix, ignoring case, for autocompletion.
+     *
+     * @param prefix The prefix typed so far.
+     * @param limit  The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs, ordered by name.
+     */
+    public List<Souvenir> findSouvenirsByNamePrefix(String prefix, int limit) {
+        return souvenirService.findSouvenirsByNamePrefix(prefix, limit);
+    }
+
+    /**
+     * Retrieves a list of souvenirs priced in the specified range.
+     *
+     * @param minPrice The lowest price, inclusive.
+     * @param maxPrice The highest price, inclusive.
+     * @return A list of souvenirs in ascending order of prices.
+     */
+    public List<Souvenir> getSouvenirsByPriceRange(double minPrice, double maxPrice) {
+        return souvenirService.getSouvenirsByPriceRange(minPrice, maxPrice);
+    }
+
+    /**
+     * Retrieves a list of the cheapest souvenirs.
+     *
+     * @param limit The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs in ascending order of prices.
+     */
+    public List<Souvenir> getCheapestSouvenirs(int limit) {
+        return souvenirService.getCheapestSouvenirs(limit);
+    }
+
+    /**
+     * Retrieves a list of the most expensive souvenirs.
+     *
+     * @param limit The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs in descending order of prices.
+     */
+    public List<Souvenir> getMostExpensiveSouvenirs(int limit) {
+        return souvenirService.getMostExpensiveSouvenirs(limit);
+    }
+
     /**
      * Retrieves a list of souvenirs produced by a specific manufacturer.
      *
@@ -174,4 +292,51 @@ public class MainController {
     public Map<Integer, List<Souvenir>> getSouvenirsByYear() {
         return souvenirService.getSouvenirsByYear();
     }
+
+    /**
+     * Retrieves a map where the key is the year and the value is a list of souvenirs produced in that year,
+     * limited to the specified range of years.
+     *
+     * @param fromYear The first year of the range, inclusive.
+     * @param toYear   The last year of the range, inclusive.
+     * @return A map where the key is the year and the value is a list of souvenirs.
+     */
+    public Map<Integer, List<Souvenir>> getSouvenirsByYears(int fromYear, int toYear) {
+        return souvenirService.getSouvenirsByYears(fromYear, toYear);
+    }
+
+    /**
+     * Retrieves a list of souvenirs produced in the specified time window.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A list of souvenirs in ascending order of production dates.
+     */
+    public List<Souvenir> getSouvenirsByProductionDates(LocalDate from, LocalDate to) {
+        return souvenirService.getSouvenirsByProductionDates(from, to);
+    }
+
+    /**
+     * Retrieves a map where the key is the month and the value is the number of souvenirs produced in that month,
+     * limited to the specified time window.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A map where the key is the month and the value is the number of souvenirs.
+     */
+    public Map<YearMonth, Long> countSouvenirsByMonth(LocalDate from, LocalDate to) {
+        return souvenirService.countSouvenirsByMonth(from, to);
+    }
+
+    /**
+     * Retrieves a map where the key is the year and the value is the number of souvenirs produced in that year,
+     * limited to the specified time window.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A map where the key is the year and the value is the number of souvenirs.
+     */
+    public Map<Integer, Long> countSouvenirsByYear(LocalDate from, LocalDate to) {
+        return souvenirService.countSouvenirsByYear(from, to);
+    }
 }
@@ -0,0 +1,228 @@
+package org.vitaliistf.souvenirs.filemanager;
+
+import org.vitaliistf.souvenirs.filemanager.codec.Codec;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Constants and helpers for files written with a codec.
+ * Every file starts with a header consisting of a magic number followed by the codec format version.
+ * Snapshots group their records into blocks, each protected by a CRC32 checksum, and end with an empty block,
+ * so both corrupted and truncated snapshots are detected on load. Snapshots also record the last allocated ID,
+ * so IDs of removed objects are not allocated again after a restart.
+ * Journal records are framed by their length and CRC32 checksum, so a torn or corrupted record is detected as well.
+ */
+final class BinaryFormat {
+
+    /**
+     * Magic number ("SVNJ") identifying journals whose records are framed by their length and CRC32 checksum.
+     */
+    static final int JOURNAL_MAGIC = 0x53564E4A;
+
+    /**
+     * Magic number ("SVNI") identifying snapshots that record the last allocated ID
+     * before their checksummed blocks.
+     */
+    static final int SNAPSHOT_MAGIC = 0x53564E49;
+
+    static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Size of a header in bytes.
+     */
+    static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+
+    private static final int END_OF_BLOCKS = 0;
+
+    private BinaryFormat() {
+    }
+
+    /**
+     * Writes the header of a journal.
+     *
+     * @param out     The output to write to.
+     * @param version The codec format version.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void writeHeader(DataOutput out, int version) throws IOException {
+        writeHeader(out, JOURNAL_MAGIC, version);
+    }
+
+    /**
+     * Writes the header with the specified magic number.
+     *
+     * @param out     The output to write to.
+     * @param magic   The magic number.
+     * @param version The codec format version.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void writeHeader(DataOutput out, int magic, int version) throws IOException {
+        out.writeInt(magic);
+        out.writeShort(version);
+    }
+
+    /**
+     * Reads the header of a journal and returns the codec format version.
+     *
+     * @param in The input to read from.
+     * @return The codec format version.
+     * @throws IOException If an I/O error occurs or the input does not start with the header.
+     */
+    static int readHeader(DataInput in) throws IOException {
+        return readHeader(in, JOURNAL_MAGIC);
+    }
+
+    /**
+     * Reads the header with the specified magic number and returns the codec format version.
+     *
+     * @param in    The input to read from.
+     * @param magic The expected magic number.
+     * @return The codec format version.
+     * @throws IOException If an I/O error occurs or the input does not start with the header.
+     */
+    static int readHeader(DataInput in, int magic) throws IOException {
+        if (in.readInt() != magic) {
+            throw new IOException("File is not written in the binary format.");
+        }
+        return in.readUnsignedShort();
+    }
+
+    /**
+     * Reads the magic number the stream starts with, without consuming it.
+     *
+     * @param in The stream to check.
+     * @return The magic number, or 0 if the stream is shorter than a magic number.
+     * @throws IOException If an I/O error occurs.
+     */
+    static int peekMagic(BufferedInputStream in) throws IOException {
+        in.mark(Integer.BYTES);
+        byte[] bytes = in.readNBytes(Integer.BYTES);
+        in.reset();
+        if (bytes.length < Integer.BYTES) {
+            return 0;
+        }
+        return (bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | bytes[3] & 0xFF;
+    }
+
+    /**
+     * Writes the last allocated ID followed by its CRC32 checksum.
+     *
+     * @param out    The output to write to.
+     * @param lastId The last allocated ID.
+     * @throws IOException If an I/O error occurs.
+     */
+    static void writeLastId(DataOutput out, long lastId) throws IOException {
+        out.writeLong(lastId);
+        out.writeInt(checksum(lastId));
+    }
+
+    /**
+     * Reads the last allocated ID written by {@link #writeLastId}.
+     *
+     * @param in The input to read from.
+     * @return The last allocated ID.
+     * @throws IOException If an I/O error occurs or the checksum does not match.
+     */
+    static long readLastId(DataInput in) throws IOException {
+        long lastId = in.readLong();
+        if (checksum(lastId) != in.readInt()) {
+            throw new IOException("Last ID checksum does not match.");
+        }
+        return lastId;
+    }
+
+    /**
+     * Writes objects in checksummed blocks of about {@link #BUFFER_SIZE} bytes, followed by the end marker.
+     * Each block consists of the record count, the data length, the data and its CRC32 checksum.
+     *
+     * @param out   The output to write to.
+     * @param items The objects to write.
+     * @param codec The codec for objects.
+     * @param <T>   The type of objects.
+     * @throws IOException If an I/O error occurs.
+     */
+    static <T> void writeBlocks(DataOutputStream out, Collection<T> items, Codec<T> codec) throws IOException {
+        ByteArrayOutputStream block = new ByteArrayOutputStream(BUFFER_SIZE);
+        DataOutputStream blockOutput = new DataOutputStream(block);
+        int recordCount = 0;
+        for (T item : items) {
+            codec.write(blockOutput, item);
+            recordCount++;
+            if (block.size() >= BUFFER_SIZE) {
+                writeBlock(out, block, recordCount);
+                recordCount = 0;
+            }
+        }
+        if (recordCount > 0) {
+            writeBlock(out, block, recordCount);
+        }
+        out.writeInt(END_OF_BLOCKS);
+    }
+
+    /**
+     * Reads objects written by {@link #writeBlocks}.
+     *
+     * @param in      The input to read from.
+     * @param codec   The codec for objects.
+     * @param version The codec format version of the data.
+     * @param <T>     The type of objects.
+     * @return A set of read objects.
+     * @throws IOException If an I/O error occurs, a checksum does not match or the data ends before the end marker.
+     */
+    static <T> Set<T> readBlocks(DataInputStream in, Codec<T> codec, int version) throws IOException {
+        Set<T> set = new HashSet<>();
+        CRC32 crc = new CRC32();
+        int recordCount;
+        while ((recordCount = in.readInt()) != END_OF_BLOCKS) {
+            int length = in.readInt();
+            if (recordCount < 0 || length < 0) {
+                throw new IOException("Corrupted block header.");
+            }
+            byte[] data = in.readNBytes(length);
+            if (data.length < length) {
+                throw new IOException("Block is truncated.");
+            }
+            crc.reset();
+            crc.update(data);
+            if ((int) crc.getValue() != in.readInt()) {
+                throw new IOException("Block checksum does not match.");
+            }
+            DataInputStream blockInput = new DataInputStream(new ByteArrayInputStream(data));
+            for (int i = 0; i < recordCount; i++) {
+                set.add(codec.read(blockInput, version));
+            }
+        }
+        return set;
+    }
+
+    private static int checksum(long value) {
+        CRC32 crc = new CRC32();
+        for (int shift = Long.SIZE - Byte.SIZE; shift >= 0; shift -= Byte.SIZE) {
+            crc.update((int) (value >>> shift));
+        }
+        return (int) crc.getValue();
+    }
+
+    private static void writeBlock(DataOutputStream out, ByteArrayOutputStream block, int recordCount)
+            throws IOException {
+        CRC32 crc = new CRC32();
+        byte[] data = block.toByteArray();
+        crc.update(data);
+        out.writeInt(recordCount);
+        out.writeInt(data.length);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+        block.reset();
+    }
+}
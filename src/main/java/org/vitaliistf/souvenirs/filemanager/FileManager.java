@@ -1,17 +1,85 @@
 package org.vitaliistf.souvenirs.filemanager;
 
+import org.vitaliistf.souvenirs.config.ConfigReader;
+import org.vitaliistf.souvenirs.config.Configuration;
+import org.vitaliistf.souvenirs.filemanager.codec.Codec;
+
 import java.io.*;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
 
 /**
  * Utility class for managing file operations (saving and loading sets of objects).
+ * In journal mode mutations are appended to a journal file and the data file is rewritten
+ * only once per snapshot interval.
+ * When a codec is specified, objects are stored in its binary format, otherwise Java serialization is used.
+ * Files written with Java serialization are still readable and are migrated to the binary format on load.
+ * In write-behind mode mutations are queued and coalesced by object ID, and a background thread flushes them
+ * as a single batch according to the write-behind policy; the queue is also flushed at JVM shutdown.
+ * Mutations can also be grouped explicitly: while a batch runs they are queued in any mode and written together
+ * when it ends.
+ * Snapshots are written to a temporary file that atomically replaces the data file, keeping the previous
+ * data file as a backup. Binary snapshots are checksummed; if the data file cannot be read, the newest readable
+ * of the temporary and backup files is loaded instead, and the unreadable data file is kept aside for inspection.
+ * With a codec, the highest ID ever persisted is kept in snapshots and recovered from the journal, so IDs of
+ * removed objects are not allocated again after a restart.
  *
  * @param <T> The type of objects to be saved and loaded.
  */
 public class FileManager<T> {
 
+    private static final String JOURNAL_SUFFIX = ".journal";
+    private static final String PREVIOUS_JOURNAL_SUFFIX = ".journal.prev";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final String BACKUP_SUFFIX = ".bak";
+    private static final String CORRUPTED_SUFFIX = ".corrupted";
+    private static final int DEFAULT_SNAPSHOT_INTERVAL = 1000;
+    private static final long DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+    private static final int DEFAULT_FLUSH_BATCH_SIZE = 500;
+
     private final File file;
+    private final File temporaryFile;
+    private final File backupFile;
+    private final Codec<T> codec;
+    private final ToLongFunction<T> idExtractor;
+    private final Journal<T> journal;
+    private final File previousJournalFile;
+    private final int snapshotInterval;
+    private int entriesSinceSnapshot;
+    private volatile WriteBehindPolicy writeBehindPolicy;
+    private final ScheduledExecutorService flushExecutor;
+    private final Thread shutdownHook;
+    private ScheduledFuture<?> periodicFlush;
+    private Configuration configuration;
+    private Runnable configurationListener;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final AtomicLong lastId = new AtomicLong();
+    // Guards disk writes, so flushes and snapshots never interleave
+    private final Object writeLock = new Object();
+    // Guards the queue of pending mutations, held only for short periods
+    private final Object queueLock = new Object();
+    private final Map<Long, JournalEntry<T>> pendingEntries = new LinkedHashMap<>();
+    private Collection<T> pendingState;
+    private int batchDepth;
 
     /**
      * Constructs a FileManager instance with the specified property.
@@ -19,38 +87,507 @@ public class FileManager<T> {
      * @param filepath The file path.
      */
     public FileManager(String filepath) {
+        this(filepath, null, null, PersistenceMode.SNAPSHOT, 0);
+    }
+
+    /**
+     * Constructs a FileManager instance with the specified persistence mode.
+     *
+     * @param filepath         The file path.
+     * @param codec            The codec for objects, or null to use Java serialization.
+     * @param idExtractor      The function extracting IDs of objects, required in journal mode.
+     * @param mode             The persistence mode.
+     * @param snapshotInterval The number of journal entries after which the data file is rewritten.
+     */
+    public FileManager(String filepath, Codec<T> codec, ToLongFunction<T> idExtractor, PersistenceMode mode,
+                       int snapshotInterval) {
+        this(filepath, codec, idExtractor, mode, snapshotInterval, null);
+    }
+
+    /**
+     * Constructs a FileManager instance with the specified persistence mode and write-behind policy.
+     *
+     * @param filepath          The file path.
+     * @param codec             The codec for objects, or null to use Java serialization.
+     * @param idExtractor       The function extracting IDs of objects, required in journal mode.
+     * @param mode              The persistence mode.
+     * @param snapshotInterval  The number of journal entries after which the data file is rewritten.
+     * @param writeBehindPolicy The write-behind policy, or null to persist mutations on the caller's thread.
+     */
+    public FileManager(String filepath, Codec<T> codec, ToLongFunction<T> idExtractor, PersistenceMode mode,
+                       int snapshotInterval, WriteBehindPolicy writeBehindPolicy) {
         this.file = new File(filepath);
+        this.temporaryFile = new File(filepath + TEMPORARY_SUFFIX);
+        this.backupFile = new File(filepath + BACKUP_SUFFIX);
+        this.codec = codec;
+        this.idExtractor = idExtractor;
+        this.journal = mode == PersistenceMode.JOURNAL
+                ? new Journal<>(new File(filepath + JOURNAL_SUFFIX), codec)
+                : null;
+        this.previousJournalFile = new File(filepath + PREVIOUS_JOURNAL_SUFFIX);
+        this.snapshotInterval = snapshotInterval;
+        this.writeBehindPolicy = writeBehindPolicy;
+        if (writeBehindPolicy == null) {
+            this.flushExecutor = null;
+            this.shutdownHook = null;
+        } else {
+            this.flushExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "write-behind-" + file.getName());
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.periodicFlush = schedulePeriodicFlush(writeBehindPolicy);
+            this.shutdownHook = new Thread(this::close, "write-behind-shutdown-" + file.getName());
+            Runtime.getRuntime().addShutdownHook(shutdownHook);
+        }
     }
 
     /**
-     * Saves a set of objects to the file.
+     * Creates a FileManager configured by the persistence properties from application.properties.
+     * In write-behind mode the FileManager follows reloads of the flush interval and batch size
+     * until it is closed.
      *
-     * @param set The set of objects to save.
+     * @param filepath    The file path.
+     * @param codec       The codec for objects.
+     * @param idExtractor The function extracting IDs of objects.
+     * @param <T>         The type of objects to be saved and loaded.
+     * @return The configured FileManager.
      */
-    public void saveToFile(Set<T> set) {
-        try (ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream(file))) {
-            oos.writeObject(set);
-        } catch (IOException e) {
-            e.printStackTrace();
+    public static <T> FileManager<T> configured(String filepath, Codec<T> codec, ToLongFunction<T> idExtractor) {
+        Configuration configuration = ConfigReader.configuration();
+        PersistenceMode mode = configuration.getEnum("persistence.mode", PersistenceMode.class,
+                PersistenceMode.SNAPSHOT);
+        int snapshotInterval = configuration.getInt("persistence.snapshot-interval", DEFAULT_SNAPSHOT_INTERVAL);
+        if (!configuration.getBoolean("persistence.write-behind", false)) {
+            return new FileManager<>(filepath, codec, idExtractor, mode, snapshotInterval);
+        }
+        FileManager<T> fileManager = new FileManager<>(filepath, codec, idExtractor, mode, snapshotInterval,
+                writeBehindPolicy(configuration));
+        fileManager.configuration = configuration;
+        fileManager.configurationListener = () -> fileManager.setWriteBehindPolicy(writeBehindPolicy(configuration));
+        configuration.addListener(fileManager.configurationListener);
+        return fileManager;
+    }
+
+    private static WriteBehindPolicy writeBehindPolicy(Configuration configuration) {
+        return new WriteBehindPolicy(
+                configuration.getDuration("persistence.flush-interval-ms",
+                        Duration.ofMillis(DEFAULT_FLUSH_INTERVAL_MILLIS)).toMillis(),
+                configuration.getInt("persistence.flush-batch-size", DEFAULT_FLUSH_BATCH_SIZE));
+    }
+
+    /**
+     * Replaces the write-behind policy, rescheduling the periodic flush if its interval changed.
+     * Mutations already queued are flushed according to the new policy.
+     *
+     * @param policy The new write-behind policy.
+     * @throws IllegalStateException If the FileManager is not in write-behind mode.
+     */
+    public void setWriteBehindPolicy(WriteBehindPolicy policy) {
+        synchronized (queueLock) {
+            if (writeBehindPolicy == null) {
+                throw new IllegalStateException("Write-behind mode is not used.");
+            }
+            if (policy.flushIntervalMillis() != writeBehindPolicy.flushIntervalMillis()
+                    && !flushExecutor.isShutdown()) {
+                periodicFlush.cancel(false);
+                periodicFlush = schedulePeriodicFlush(policy);
+            }
+            writeBehindPolicy = policy;
+        }
+    }
+
+    /**
+     * Saves a collection of objects to the file.
+     * In journal mode the journal is emptied afterwards, as its entries are included in the saved objects.
+     * Its entries are kept in the previous journal next to the backup, which they update to the saved objects.
+     *
+     * @param set The objects to save; may be a concurrent collection that changes during the call.
+     */
+    public void saveToFile(Collection<T> set) {
+        synchronized (writeLock) {
+            boolean backupReplaced = file.exists();
+            try {
+                writeSnapshot(set);
+            } catch (IOException e) {
+                e.printStackTrace();
+                return;
+            }
+            if (journal != null) {
+                try {
+                    journal.rotate(previousJournalFile);
+                    if (!backupReplaced) {
+                        // The entries were not appended after the backup, so they must not be replayed on top of it
+                        Files.delete(previousJournalFile.toPath());
+                    }
+                    entriesSinceSnapshot = 0;
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+    }
+
+    /**
+     * Persists a single mutation.
+     * In snapshot mode the whole set is saved, in journal mode the entry is appended to the journal
+     * and the set is saved only when the snapshot interval is reached.
+     * In write-behind mode and during a batch the mutation is only queued, replacing any queued mutation
+     * of the same object.
+     *
+     * @param entry The mutation to persist.
+     * @param set   The objects after the mutation; when queued, a live view that is read when flushing.
+     */
+    public void persist(JournalEntry<T> entry, Collection<T> set) {
+        persistAll(List.of(entry), set);
+    }
+
+    /**
+     * Persists several mutations as one write.
+     * In journal mode the entries are appended together and the snapshot interval is checked once,
+     * in snapshot mode the set is saved once.
+     * In write-behind mode and during a batch the mutations are only queued like single ones.
+     *
+     * @param entries The mutations to persist, in the order they were applied.
+     * @param set     The objects after the mutations; when queued, a live view that is read when flushing.
+     */
+    public void persistAll(List<JournalEntry<T>> entries, Collection<T> set) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        entries.forEach(entry -> recordId(entry.id()));
+        boolean queued;
+        int pendingCount = 0;
+        synchronized (queueLock) {
+            queued = writeBehindPolicy != null || batchDepth > 0;
+            if (queued) {
+                entries.forEach(entry -> pendingEntries.put(entry.id(), entry));
+                pendingState = set;
+                pendingCount = pendingEntries.size();
+            }
+        }
+        if (!queued) {
+            write(entries, set);
+        } else if (writeBehindPolicy == null) {
+            // The mutations are written when the batch ends
+            return;
+        } else if (flushExecutor.isShutdown()) {
+            // The background thread is gone, so the mutations are written on the caller's thread
+            flush();
+        } else if (pendingCount >= writeBehindPolicy.flushBatchSize()) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * Retrieves the highest object ID persisted, including IDs of objects that were removed afterwards.
+     * After loading, it covers the IDs recorded in the loaded snapshot and journal,
+     * so ID sequences can continue after it instead of after the greatest ID still in use.
+     *
+     * @return The highest persisted ID, or 0 if none is known.
+     */
+    public long getLastId() {
+        return lastId.get();
+    }
+
+    /**
+     * Runs operations as a batch, so the mutations they persist are written to disk together.
+     * While the batch runs, mutations of any thread are queued and coalesced by object ID like in write-behind mode,
+     * and the queue is flushed when the outermost of nested batches ends, even if the operations fail.
+     *
+     * @param operations The operations persisting mutations.
+     */
+    public void batch(Runnable operations) {
+        batch(() -> {
+            operations.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs operations as a batch, like {@link #batch(Runnable)}, and returns their result.
+     *
+     * @param operations The operations persisting mutations.
+     * @param <R>        The type of the result.
+     * @return The result of the operations.
+     */
+    public <R> R batch(Supplier<R> operations) {
+        synchronized (queueLock) {
+            batchDepth++;
+        }
+        try {
+            return operations.get();
+        } finally {
+            boolean outermost;
+            synchronized (queueLock) {
+                outermost = --batchDepth == 0;
+            }
+            if (outermost) {
+                flush();
+            }
+        }
+    }
+
+    /**
+     * Writes all queued mutations to disk.
+     * When the method returns, every mutation persisted before the call is durable: journal entries
+     * and snapshots are forced to the storage device before the write is considered complete.
+     * Does nothing if write-behind mode is not used.
+     */
+    public void flush() {
+        synchronized (writeLock) {
+            List<JournalEntry<T>> entries;
+            Collection<T> state;
+            synchronized (queueLock) {
+                flushRequested.set(false);
+                if (pendingEntries.isEmpty()) {
+                    return;
+                }
+                entries = new ArrayList<>(pendingEntries.values());
+                state = pendingState;
+                pendingEntries.clear();
+                pendingState = null;
+            }
+            write(entries, state);
+        }
+    }
+
+    /**
+     * Stops the background flushing, writes all queued mutations and releases the journal.
+     * The shutdown hook registered in write-behind mode is removed, so a closed FileManager is not retained
+     * until the JVM exits. Mutations persisted afterwards are written on the caller's thread.
+     */
+    public void close() {
+        if (configurationListener != null) {
+            configuration.removeListener(configurationListener);
+        }
+        if (flushExecutor != null) {
+            flushExecutor.shutdown();
+        }
+        if (shutdownHook != null && Thread.currentThread() != shutdownHook) {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down, so the hook runs anyway
+            }
+        }
+        flush();
+        synchronized (writeLock) {
+            if (journal != null) {
+                try {
+                    journal.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
         }
     }
 
     /**
      * Loads a set of objects from the file.
+     * If the file cannot be read, the set is recovered from the last snapshot that can be read.
+     * In journal mode the journal entries are replayed on top of the loaded set; when the backup is loaded,
+     * the entries of the previous journal are replayed before them, so no mutation between the two snapshots
+     * is lost.
      *
-     * @return A set of objects loaded from the file, or an empty set if the file does not exist or
-     * an error occurs during loading.
+     * @return A set of objects loaded from the file, or an empty set if no file exists.
+     * @throws UncheckedIOException If files exist but none of them can be read, so no data is silently dropped.
      */
-    @SuppressWarnings("unchecked")
     public Set<T> loadFromFile() {
+        Set<T> set = new HashSet<>();
+        boolean migrationRequired = false;
+        File source = null;
+        IOException failure = null;
+        for (File candidate : new File[]{file, temporaryFile, backupFile}) {
+            if (!candidate.exists()) {
+                continue;
+            }
+            try {
+                Snapshot<T> snapshot = readSnapshot(candidate);
+                set = snapshot.items();
+                migrationRequired = snapshot.outdated();
+                recordId(snapshot.lastId());
+                source = candidate;
+                break;
+            } catch (IOException e) {
+                e.printStackTrace();
+                failure = e;
+            }
+        }
+        if (source == null && failure != null) {
+            throw new UncheckedIOException("None of the snapshots of " + file + " can be read.", failure);
+        }
+        if (source != null && source != file) {
+            // The recovered snapshot is written as the new data file, so the unreadable one is moved out of the way
+            keepCorruptedFile();
+            migrationRequired = true;
+        }
+        if (source == backupFile && (journal == null || !previousJournalFile.exists())) {
+            new IOException("Data file " + file + " is recovered from its backup; the mutations saved after the "
+                    + "backup was written are lost.").printStackTrace();
+        }
+        if (journal != null) {
+            Map<Long, T> state = new LinkedHashMap<>();
+            set.forEach(item -> state.put(idExtractor.applyAsLong(item), item));
+            try {
+                if (source == backupFile && previousJournalFile.exists()) {
+                    Journal<T> previousJournal = new Journal<>(previousJournalFile, codec);
+                    previousJournal.replay(state);
+                    recordId(previousJournal.highestId());
+                }
+                entriesSinceSnapshot = journal.replay(state);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+            recordId(journal.highestId());
+            set = new HashSet<>(state.values());
+            migrationRequired |= !journal.isCurrentVersion();
+        }
+        if (idExtractor != null) {
+            set.forEach(item -> recordId(idExtractor.applyAsLong(item)));
+        }
+        if (migrationRequired) {
+            saveToFile(set);
+        }
+        return set;
+    }
+
+    private void write(List<JournalEntry<T>> entries, Collection<T> set) {
+        synchronized (writeLock) {
+            if (journal == null) {
+                saveToFile(set);
+                return;
+            }
+            try {
+                journal.append(entries);
+            } catch (IOException e) {
+                e.printStackTrace();
+                saveToFile(set);
+                return;
+            }
+            entriesSinceSnapshot += entries.size();
+            if (entriesSinceSnapshot >= snapshotInterval) {
+                saveToFile(set);
+            }
+        }
+    }
+
+    private ScheduledFuture<?> schedulePeriodicFlush(WriteBehindPolicy policy) {
+        return flushExecutor.scheduleWithFixedDelay(this::flushInBackground, policy.flushIntervalMillis(),
+                policy.flushIntervalMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void requestFlush() {
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                flushExecutor.execute(this::flushInBackground);
+            } catch (RejectedExecutionException e) {
+                flush();
+            }
+        }
+    }
+
+    private void flushInBackground() {
+        synchronized (queueLock) {
+            if (batchDepth > 0) {
+                // The queue is flushed when the batch ends
+                flushRequested.set(false);
+                return;
+            }
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            // An exception would cancel the periodic flushing, so it is only reported
+            e.printStackTrace();
+        }
+    }
+
+    private void writeSnapshot(Collection<T> set) throws IOException {
+        // The objects are copied first, so the written count matches the written records
+        List<T> items = new ArrayList<>(set);
+        if (idExtractor != null) {
+            items.forEach(item -> recordId(idExtractor.applyAsLong(item)));
+        }
+        try (FileOutputStream fos = new FileOutputStream(temporaryFile)) {
+            if (codec == null) {
+                ObjectOutputStream oos = new ObjectOutputStream(fos);
+                oos.writeObject(new HashSet<>(items));
+                oos.flush();
+            } else {
+                DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(fos, BinaryFormat.BUFFER_SIZE));
+                BinaryFormat.writeHeader(dos, BinaryFormat.SNAPSHOT_MAGIC, codec.version());
+                BinaryFormat.writeLastId(dos, lastId.get());
+                BinaryFormat.writeBlocks(dos, items, codec);
+                dos.flush();
+            }
+            // The snapshot must be on disk before it replaces the data file
+            fos.getFD().sync();
+        }
         if (file.exists()) {
-            try (ObjectInputStream ois = new ObjectInputStream(new FileInputStream(file))) {
-                return (Set<T>) ois.readObject();
-            } catch (IOException | ClassNotFoundException e) {
+            move(file.toPath(), backupFile.toPath());
+        }
+        move(temporaryFile.toPath(), file.toPath());
+    }
+
+    private Snapshot<T> readSnapshot(File source) throws IOException {
+        try (BufferedInputStream bis = new BufferedInputStream(
+                new FileInputStream(source), BinaryFormat.BUFFER_SIZE)) {
+            if (BinaryFormat.peekMagic(bis) == BinaryFormat.SNAPSHOT_MAGIC) {
+                if (codec == null) {
+                    throw new IOException("Codec is required to read " + source);
+                }
+                DataInputStream dis = new DataInputStream(bis);
+                int version = BinaryFormat.readHeader(dis, BinaryFormat.SNAPSHOT_MAGIC);
+                long snapshotLastId = BinaryFormat.readLastId(dis);
+                Set<T> set = BinaryFormat.readBlocks(dis, codec, version);
+                return new Snapshot<>(set, snapshotLastId, version != codec.version());
+            }
+            return new Snapshot<>(readSerializedSnapshot(bis), 0, codec != null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<T> readSerializedSnapshot(InputStream inputStream) throws IOException {
+        try (ObjectInputStream ois = new ObjectInputStream(inputStream)) {
+            return (Set<T>) ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private void keepCorruptedFile() {
+        if (file.exists()) {
+            try {
+                Files.move(file.toPath(), Path.of(file.getPath() + CORRUPTED_SUFFIX),
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
                 e.printStackTrace();
             }
         }
-        return new HashSet<>();
+    }
+
+    private void recordId(long id) {
+        lastId.accumulateAndGet(id, Math::max);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Objects read from a snapshot file.
+     *
+     * @param items    The read objects.
+     * @param lastId   The last allocated ID recorded by the snapshot, or 0 if it is not recorded.
+     * @param outdated Whether the snapshot is not written in the current format and must be rewritten.
+     * @param <T>      The type of objects.
+     */
+    private record Snapshot<T>(Set<T> items, long lastId, boolean outdated) {
     }
 
 }
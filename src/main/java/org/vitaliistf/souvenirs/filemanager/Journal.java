@@ -0,0 +1,310 @@
+package org.vitaliistf.souvenirs.filemanager;
+
+import org.vitaliistf.souvenirs.filemanager.codec.Codec;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of mutations stored next to a data file.
+ * The journal starts with a binary format header. Each record consists of an operation code, an object ID
+ * and a length-prefixed payload, and is framed by its length and CRC32 checksum, so a record torn by a crash
+ * or corrupted on disk is detected instead of decoded.
+ * When a codec is used, payloads are encoded with it, otherwise payloads are encoded with Java serialization.
+ * While the journal is open for appending, it holds an exclusive lock on the file, so no replay cuts it meanwhile.
+ *
+ * @param <T> The type of objects recorded in the journal.
+ */
+class Journal<T> {
+
+    private static final int NO_PAYLOAD = -1;
+    private static final int FRAME_SIZE = 2 * Integer.BYTES;
+
+    private final File file;
+    private final Codec<T> codec;
+    private FileOutputStream outputStream;
+    private int version;
+    private long highestId;
+
+    /**
+     * Constructs a journal stored in the specified file.
+     *
+     * @param file  The journal file.
+     * @param codec The codec for payloads, or null to use Java serialization.
+     */
+    Journal(File file, Codec<T> codec) {
+        this.file = file;
+        this.codec = codec;
+        this.version = currentVersion();
+    }
+
+    /**
+     * Appends an entry to the end of the journal.
+     *
+     * @param entry The entry to append.
+     * @throws IOException If the entry cannot be written.
+     */
+    void append(JournalEntry<T> entry) throws IOException {
+        append(List.of(entry));
+    }
+
+    /**
+     * Appends entries to the end of the journal with a single write, and forces them to the storage device
+     * before returning, so appended entries survive a crash of the machine.
+     * The header of an empty journal is written together with the entries.
+     *
+     * @param entries The entries to append, in order.
+     * @throws IOException If the entries cannot be written, the journal is not in the current format version,
+     *                     or the journal is open for appending elsewhere.
+     */
+    void append(Collection<JournalEntry<T>> entries) throws IOException {
+        FileOutputStream os = getOutputStream();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(buffer)) {
+            if (os.getChannel().size() == 0) {
+                version = currentVersion();
+                BinaryFormat.writeHeader(dos, version);
+            }
+            CRC32 crc = new CRC32();
+            for (JournalEntry<T> entry : entries) {
+                byte[] record = encodeRecord(entry);
+                crc.reset();
+                crc.update(record);
+                dos.writeInt(record.length);
+                dos.writeInt((int) crc.getValue());
+                dos.write(record);
+            }
+        }
+        // The header and records are written with a single call, so a crash can only leave a torn tail
+        os.write(buffer.toByteArray());
+        os.getChannel().force(false);
+    }
+
+    /**
+     * Applies all journal entries to the specified state.
+     * Replay stops at the first record that is truncated, fails its checksum or cannot be decoded.
+     * The journal is then cut after the last applied record, so entries appended later are not
+     * written after the damaged bytes; it is not cut while it is open for appending elsewhere.
+     *
+     * @param state The state keyed by object ID.
+     * @return The number of applied entries.
+     * @throws IOException If the journal cannot be read.
+     */
+    int replay(Map<Long, T> state) throws IOException {
+        if (!file.exists() || file.length() == 0) {
+            return 0;
+        }
+        long length = file.length();
+        long validLength = 0;
+        int applied = 0;
+        try (DataInputStream dis = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(file), BinaryFormat.BUFFER_SIZE))) {
+            try {
+                version = BinaryFormat.readHeader(dis);
+                validLength = BinaryFormat.HEADER_SIZE;
+                while (validLength < length) {
+                    byte[] record = readFrame(dis, length - validLength);
+                    JournalEntry<T> entry = decodeRecord(new DataInputStream(new ByteArrayInputStream(record)));
+                    validLength += FRAME_SIZE + record.length;
+                    highestId = Math.max(highestId, entry.id());
+                    switch (entry.operation()) {
+                        case ADD, UPDATE -> state.put(entry.id(), entry.payload());
+                        case REMOVE -> state.remove(entry.id());
+                    }
+                    applied++;
+                }
+            } catch (EOFException e) {
+                // A truncated header or record is cut below
+            } catch (IOException | RuntimeException e) {
+                new IOException("Journal " + file + " is damaged after " + applied
+                        + " entries; the rest of it is discarded.", e).printStackTrace();
+            }
+        }
+        if (validLength < length) {
+            cut(validLength);
+        }
+        return applied;
+    }
+
+    /**
+     * Retrieves the highest object ID of the replayed entries.
+     * Every allocated ID is recorded by the entry adding its object, so this is the last ID allocated
+     * since the snapshot the journal belongs to, even if the object was removed afterwards.
+     *
+     * @return The highest replayed ID, or 0 if no entry was replayed.
+     */
+    long highestId() {
+        return highestId;
+    }
+
+    /**
+     * Checks whether the journal is written in the current format version of the codec.
+     * Journals in older versions must be compacted into a snapshot before new entries are appended.
+     *
+     * @return true if new entries can be appended to the journal, false otherwise.
+     */
+    boolean isCurrentVersion() {
+        return version == currentVersion();
+    }
+
+    /**
+     * Moves all entries of the journal to the specified file, leaving the journal empty.
+     * The moved entries can still be replayed on top of the snapshot they were appended after;
+     * if the journal has no entries, the specified file is left empty.
+     *
+     * @param previousFile The file keeping the moved entries, replaced if it exists.
+     * @throws IOException If the entries cannot be moved.
+     */
+    void rotate(File previousFile) throws IOException {
+        close();
+        if (file.exists()) {
+            Files.move(file.toPath(), previousFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            new FileOutputStream(previousFile).close();
+        }
+        version = currentVersion();
+    }
+
+    /**
+     * Closes the underlying stream, if it is open, releasing the lock on the journal.
+     *
+     * @throws IOException If the stream cannot be closed.
+     */
+    void close() throws IOException {
+        if (outputStream != null) {
+            outputStream.close();
+            outputStream = null;
+        }
+    }
+
+    private FileOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            if (file.length() > 0 && !isCurrentVersion()) {
+                throw new IOException("Journal " + file + " must be compacted before entries are appended.");
+            }
+            FileOutputStream os = new FileOutputStream(file, true);
+            if (!tryLock(os.getChannel())) {
+                os.close();
+                throw new IOException("Journal " + file + " is open for appending elsewhere.");
+            }
+            outputStream = os;
+        }
+        return outputStream;
+    }
+
+    private byte[] readFrame(DataInputStream dis, long remaining) throws IOException {
+        int length = dis.readInt();
+        int checksum = dis.readInt();
+        if (length < 0 || length > remaining - FRAME_SIZE) {
+            throw new EOFException("Record is truncated.");
+        }
+        byte[] record = new byte[length];
+        dis.readFully(record);
+        CRC32 crc = new CRC32();
+        crc.update(record);
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("Record checksum does not match.");
+        }
+        return record;
+    }
+
+    private void cut(long length) throws IOException {
+        // The stream of this journal holds the lock, and a cut must not move the end it appends to
+        close();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+            if (!tryLock(channel)) {
+                new IOException("Journal " + file + " is open for appending elsewhere, so its damaged tail is kept.")
+                        .printStackTrace();
+                return;
+            }
+            channel.truncate(length);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Locks the whole file for the lifetime of the channel.
+     *
+     * @return true if the lock is acquired, false if another channel of this or another process holds it.
+     */
+    private static boolean tryLock(FileChannel channel) throws IOException {
+        try {
+            return channel.tryLock() != null;
+        } catch (OverlappingFileLockException e) {
+            return false;
+        }
+    }
+
+    private int currentVersion() {
+        return codec == null ? 0 : codec.version();
+    }
+
+    private byte[] encodeRecord(JournalEntry<T> entry) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try (DataOutputStream dos = new DataOutputStream(buffer)) {
+            dos.writeByte(entry.operation().ordinal());
+            dos.writeLong(entry.id());
+            if (entry.payload() == null) {
+                dos.writeInt(NO_PAYLOAD);
+            } else {
+                byte[] payload = encode(entry.payload());
+                dos.writeInt(payload.length);
+                dos.write(payload);
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    private JournalEntry<T> decodeRecord(DataInputStream dis) throws IOException {
+        int operation = dis.readUnsignedByte();
+        if (operation >= JournalEntry.Operation.values().length) {
+            throw new IOException("Unknown operation " + operation + ".");
+        }
+        long id = dis.readLong();
+        int length = dis.readInt();
+        T payload = null;
+        if (length != NO_PAYLOAD) {
+            if (length < 0) {
+                throw new IOException("Corrupted payload length.");
+            }
+            byte[] bytes = new byte[length];
+            dis.readFully(bytes);
+            payload = decode(bytes);
+        }
+        return new JournalEntry<>(JournalEntry.Operation.values()[operation], id, payload);
+    }
+
+    private byte[] encode(T payload) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        if (codec != null) {
+            try (DataOutputStream dos = new DataOutputStream(buffer)) {
+                codec.write(dos, payload);
+            }
+        } else {
+            try (ObjectOutputStream oos = new ObjectOutputStream(buffer)) {
+                oos.writeObject(payload);
+            }
+        }
+        return buffer.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private T decode(byte[] bytes) throws IOException {
+        if (codec != null) {
+            return codec.read(new DataInputStream(new ByteArrayInputStream(bytes)), version);
+        }
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes))) {
+            return (T) ois.readObject();
+        } catch (ClassNotFoundException e) {
+            throw new IOException(e);
+        }
+    }
+}
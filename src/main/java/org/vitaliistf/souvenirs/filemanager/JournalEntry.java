@@ -0,0 +1,54 @@
+package org.vitaliistf.souvenirs.filemanager;
+
+/**
+ * Represents a single mutation recorded in the journal.
+ *
+ * @param operation The kind of mutation.
+ * @param id        The ID of the affected object.
+ * @param payload   The new state of the object, or null for removals.
+ * @param <T>       The type of the affected object.
+ */
+public record JournalEntry<T>(Operation operation, long id, T payload) {
+
+    /**
+     * Kinds of mutations that can be recorded in the journal.
+     */
+    public enum Operation {
+        ADD, UPDATE, REMOVE
+    }
+
+    /**
+     * Creates an entry describing an added object.
+     *
+     * @param id      The ID of the added object.
+     * @param payload The added object.
+     * @param <T>     The type of the object.
+     * @return The journal entry.
+     */
+    public static <T> JournalEntry<T> add(long id, T payload) {
+        return new JournalEntry<>(Operation.ADD, id, payload);
+    }
+
+    /**
+     * Creates an entry describing an updated object.
+     *
+     * @param id      The ID of the updated object.
+     * @param payload The new state of the object.
+     * @param <T>     The type of the object.
+     * @return The journal entry.
+     */
+    public static <T> JournalEntry<T> update(long id, T payload) {
+        return new JournalEntry<>(Operation.UPDATE, id, payload);
+    }
+
+    /**
+     * Creates an entry describing a removed object.
+     *
+     * @param id  The ID of the removed object.
+     * @param <T> The type of the object.
+     * @return The journal entry.
+     */
+    public static <T> JournalEntry<T> remove(long id) {
+        return new JournalEntry<>(Operation.REMOVE, id, null);
+    }
+}
@@ -0,0 +1,17 @@
+package org.vitaliistf.souvenirs.filemanager;
+
+/**
+ * Defines how a FileManager persists mutations.
+ */
+public enum PersistenceMode {
+
+    /**
+     * Every mutation rewrites the whole data file.
+     */
+    SNAPSHOT,
+
+    /**
+     * Every mutation is appended to a journal, the data file is rewritten periodically.
+     */
+    JOURNAL
+}
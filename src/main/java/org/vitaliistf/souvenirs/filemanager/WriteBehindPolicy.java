@@ -0,0 +1,25 @@
+package org.vitaliistf.souvenirs.filemanager;
+
+/**
+ * Defines when a FileManager in write-behind mode flushes queued mutations to disk.
+ * Queued mutations are flushed when the interval elapses or when the batch size is reached, whichever comes first.
+ *
+ * @param flushIntervalMillis The maximum time in milliseconds a mutation stays queued.
+ * @param flushBatchSize      The number of queued objects that triggers an immediate flush.
+ */
+public record WriteBehindPolicy(long flushIntervalMillis, int flushBatchSize) {
+
+    /**
+     * Constructs a write-behind policy.
+     *
+     * @throws IllegalArgumentException If the interval or the batch size is not positive.
+     */
+    public WriteBehindPolicy {
+        if (flushIntervalMillis <= 0) {
+            throw new IllegalArgumentException("Flush interval must be positive.");
+        }
+        if (flushBatchSize <= 0) {
+            throw new IllegalArgumentException("Flush batch size must be positive.");
+        }
+    }
+}
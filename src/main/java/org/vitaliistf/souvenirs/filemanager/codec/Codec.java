@@ -0,0 +1,41 @@
+package org.vitaliistf.souvenirs.filemanager.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Interface for encoding objects to and decoding them from a compact binary format.
+ *
+ * @param <T> The type of objects handled by the codec.
+ */
+public interface Codec<T> {
+
+    /**
+     * Retrieves the version of the format written by this codec.
+     * The version is stored in file headers, so older files can still be decoded when the format evolves.
+     *
+     * @return The current format version.
+     */
+    int version();
+
+    /**
+     * Writes an object to the output.
+     *
+     * @param out    The output to write to.
+     * @param object The object to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    void write(DataOutput out, T object) throws IOException;
+
+    /**
+     * Reads an object from the input.
+     *
+     * @param in      The input to read from.
+     * @param version The version of the format the object was written with.
+     * @return The decoded object.
+     * @throws IOException If an I/O error occurs or the version is not supported.
+     */
+    T read(DataInput in, int version) throws IOException;
+
+}
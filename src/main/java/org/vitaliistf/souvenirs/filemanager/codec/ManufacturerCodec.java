@@ -0,0 +1,63 @@
+package org.vitaliistf.souvenirs.filemanager.codec;
+
+import org.vitaliistf.souvenirs.model.Manufacturer;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Codec for Manufacturer objects.
+ * Format (version 1): id (long), name (UTF), country (UTF).
+ */
+public class ManufacturerCodec implements Codec<Manufacturer> {
+
+    private static final int VERSION = 1;
+
+    /**
+     * Retrieves the version of the format written by this codec.
+     *
+     * @return The current format version.
+     */
+    @Override
+    public int version() {
+        return VERSION;
+    }
+
+    /**
+     * Writes a manufacturer to the output.
+     *
+     * @param out          The output to write to.
+     * @param manufacturer The manufacturer to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void write(DataOutput out, Manufacturer manufacturer) throws IOException {
+        out.writeLong(manufacturer.getId());
+        out.writeUTF(manufacturer.getName());
+        out.writeUTF(manufacturer.getCountry());
+    }
+
+    /**
+     * Reads a manufacturer from the input.
+     *
+     * @param in      The input to read from.
+     * @param version The version of the format the manufacturer was written with.
+     * @return The decoded manufacturer.
+     * @throws IOException If an I/O error occurs or the version is not supported.
+     */
+    @Override
+    public Manufacturer read(DataInput in, int version) throws IOException {
+        if (version != VERSION) {
+            throw new IOException("Unsupported manufacturer format version: " + version);
+        }
+        long id = in.readLong();
+        String name = in.readUTF();
+        String country = in.readUTF();
+
+        Manufacturer manufacturer = new Manufacturer(name, country);
+        manufacturer.setId(id);
+        return manufacturer;
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.vitaliistf.souvenirs.filemanager.codec;
+
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Codec for Souvenir objects.
+ * Format (version 1): id (long), name (UTF), manufacturer ID (long), production date as epoch day (int),
+ * price (double).
+ */
+public class SouvenirCodec implements Codec<Souvenir> {
+
+    private static final int VERSION = 1;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    /**
+     * Retrieves the version of the format written by this codec.
+     *
+     * @return The current format version.
+     */
+    @Override
+    public int version() {
+        return VERSION;
+    }
+
+    /**
+     * Writes a souvenir to the output.
+     *
+     * @param out      The output to write to.
+     * @param souvenir The souvenir to write.
+     * @throws IOException If an I/O error occurs.
+     */
+    @Override
+    public void write(DataOutput out, Souvenir souvenir) throws IOException {
+        out.writeLong(souvenir.getId());
+        out.writeUTF(souvenir.getName());
+        out.writeLong(souvenir.getManufacturerId());
+        LocalDate productionDate = souvenir.getProductionDate();
+        out.writeInt(productionDate == null ? NO_DATE : Math.toIntExact(productionDate.toEpochDay()));
+        out.writeDouble(souvenir.getPrice());
+    }
+
+    /**
+     * Reads a souvenir from the input.
+     *
+     * @param in      The input to read from.
+     * @param version The version of the format the souvenir was written with.
+     * @return The decoded souvenir.
+     * @throws IOException If an I/O error occurs or the version is not supported.
+     */
+    @Override
+    public Souvenir read(DataInput in, int version) throws IOException {
+        if (version != VERSION) {
+            throw new IOException("Unsupported souvenir format version: " + version);
+        }
+        long id = in.readLong();
+        String name = in.readUTF();
+        long manufacturerId = in.readLong();
+        int epochDay = in.readInt();
+        double price = in.readDouble();
+
+        Souvenir souvenir = new Souvenir(name, manufacturerId,
+                epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay), price);
+        souvenir.setId(id);
+        return souvenir;
+    }
+
+}
@@ -0,0 +1,493 @@
+package org.vitaliistf.souvenirs.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.vitaliistf.souvenirs.controller.MainController;
+import org.vitaliistf.souvenirs.model.Manufacturer;
+import org.vitaliistf.souvenirs.model.Souvenir;
+import org.vitaliistf.souvenirs.validation.ValidationResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * HTTP front end exposing the operations of the MainController as a JSON API.
+ * The server is built on the HTTP server of the JDK, and every request is handled by its own virtual thread,
+ * so blocked clients do not hold platform threads.
+ *
+ * <p>Resources:
+ * <ul>
+ *     <li>{@code GET /manufacturers} lists manufacturers; {@code ?maxPrice=} limits them to those whose souvenirs
+ *     are not more expensive, {@code ?souvenir=&year=} to those producing the souvenir in the year,
+ *     and {@code ?limit=&after=} returns one page of manufacturers with IDs greater than {@code after}.</li>
+ *     <li>{@code POST /manufacturers}, {@code PUT /manufacturers/{id}}, {@code DELETE /manufacturers/{id}}
+ *     add, update and delete a manufacturer (with its souvenirs).</li>
+ *     <li>{@code GET /manufacturers/countries} and {@code GET /manufacturers/with-souvenirs}.</li>
+ *     <li>{@code GET /souvenirs} lists souvenirs; {@code ?manufacturerId=} or {@code ?country=} filter them,
+ *     and {@code ?limit=&after=} pages them like manufacturers.</li>
+ *     <li>{@code POST /souvenirs}, {@code PUT /souvenirs/{id}}, {@code DELETE /souvenirs/{id}}.</li>
+ *     <li>{@code GET /souvenirs/by-year} groups souvenirs by year, optionally in the range {@code ?from=&to=}.</li>
+ *     <li>{@code GET /souvenirs/autocomplete?prefix=} lists souvenirs whose name starts with the prefix,
+ *     ignoring case, at most {@code ?limit=} of them (10 by default).</li>
+ *     <li>{@code GET /souvenirs/by-price?min=&max=} lists souvenirs priced in the range, both bounds optional,
+ *     from the cheapest; {@code GET /souvenirs/cheapest} and {@code GET /souvenirs/most-expensive}
+ *     list at most {@code ?limit=} souvenirs (10 by default) from either end of the prices.</li>
+ *     <li>{@code GET /souvenirs/by-date?from=&to=} lists souvenirs produced in the window of days,
+ *     from the earliest; {@code GET /souvenirs/counts?from=&to=&per=} counts them per {@code month}
+ *     or per {@code year} (the default).</li>
+ * </ul>
+ * Dates are written as yyyy-MM-dd. Rejected changes are answered with status 400 and a list of errors.
+ */
+public class ApiServer {
+
+    private static final int DEFAULT_BACKLOG = 1024;
+    private static final String JSON_CONTENT_TYPE = "application/json; charset=utf-8";
+    private static final int DEFAULT_AUTOCOMPLETE_LIMIT = 10;
+    private static final int DEFAULT_PRICE_LIMIT = 10;
+
+    private final MainController controller;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Constructs an ApiServer listening on the specified address; the server has to be started.
+     *
+     * @param controller The MainController handling operations.
+     * @param address    The address to listen on; port 0 selects a free port.
+     * @throws IOException If the address cannot be bound.
+     */
+    public ApiServer(MainController controller, InetSocketAddress address) throws IOException {
+        this.controller = controller;
+        this.server = HttpServer.create(address, DEFAULT_BACKLOG);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/manufacturers", exchange -> handle(exchange, this::manufacturers));
+        server.createContext("/souvenirs", exchange -> handle(exchange, this::souvenirs));
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, waiting for requests in progress to complete.
+     *
+     * @param delaySeconds The maximum time to wait for requests in progress, in seconds.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.close();
+    }
+
+    /**
+     * Retrieves the address the server listens on.
+     *
+     * @return The bound address.
+     */
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private Response manufacturers(Request request) {
+        List<String> path = request.path();
+        if (path.isEmpty()) {
+            return switch (request.method()) {
+                case "GET" -> {
+                    if (request.query().containsKey("maxPrice")) {
+                        yield Response.ok(manufacturersToJson(
+                                controller.getWhereSouvenirPriceIsLess(request.doubleParameter("maxPrice"))));
+                    }
+                    if (request.query().containsKey("souvenir")) {
+                        yield Response.ok(manufacturersToJson(controller.getManufacturersOfSouvenirByYear(
+                                request.parameter("souvenir"), request.intParameter("year"))));
+                    }
+                    if (request.query().containsKey("limit")) {
+                        yield Response.ok(manufacturersToJson(controller.getManufacturersPage(
+                                request.longParameter("after", 0), request.intParameter("limit"))));
+                    }
+                    yield Response.ok(manufacturersToJson(controller.getAllManufacturers()));
+                }
+                case "POST" -> validated(controller.addManufacturer(manufacturerFromJson(request.jsonBody(), 0)),
+                        201);
+                default -> throw ApiException.methodNotAllowed();
+            };
+        }
+        if (path.size() == 1 && path.get(0).equals("countries")) {
+            request.requireMethod("GET");
+            return Response.ok(controller.getManufacturersCountries());
+        }
+        if (path.size() == 1 && path.get(0).equals("with-souvenirs")) {
+            request.requireMethod("GET");
+            List<Map<String, Object>> result = new ArrayList<>();
+            controller.getAllManufacturersWithSouvenirs().forEach((manufacturer, souvenirs) -> {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("manufacturer", toJson(manufacturer));
+                entry.put("souvenirs", souvenirsToJson(souvenirs));
+                result.add(entry);
+            });
+            return Response.ok(result);
+        }
+        if (path.size() == 1) {
+            long id = parseId(path.get(0));
+            return switch (request.method()) {
+                case "PUT" -> validated(controller.updateManufacturer(manufacturerFromJson(request.jsonBody(), id)),
+                        200);
+                case "DELETE" -> deleted(controller.deleteManufacturer(id));
+                default -> throw ApiException.methodNotAllowed();
+            };
+        }
+        throw ApiException.notFound();
+    }
+
+    private Response souvenirs(Request request) {
+        List<String> path = request.path();
+        if (path.isEmpty()) {
+            return switch (request.method()) {
+                case "GET" -> {
+                    if (request.query().containsKey("manufacturerId")) {
+                        yield Response.ok(souvenirsToJson(
+                                controller.getSouvenirsByManufacturer(request.longParameter("manufacturerId"))));
+                    }
+                    if (request.query().containsKey("country")) {
+                        yield Response.ok(souvenirsToJson(
+                                controller.getSouvenirsByCountry(request.parameter("country"))));
+                    }
+                    if (request.query().containsKey("limit")) {
+                        yield Response.ok(souvenirsToJson(controller.getSouvenirsPage(
+                                request.longParameter("after", 0), request.intParameter("limit"))));
+                    }
+                    yield Response.ok(souvenirsToJson(controller.getAllSouvenirs()));
+                }
+                case "POST" -> validated(controller.addSouvenir(souvenirFromJson(request.jsonBody(), 0)), 201);
+                default -> throw ApiException.methodNotAllowed();
+            };
+        }
+        if (path.size() == 1 && path.get(0).equals("by-year")) {
+            request.requireMethod("GET");
+            Map<Integer, List<Souvenir>> souvenirsByYear = request.query().containsKey("from")
+                    ? controller.getSouvenirsByYears(request.intParameter("from"), request.intParameter("to"))
+                    : controller.getSouvenirsByYear();
+            Map<String, Object> result = new LinkedHashMap<>();
+            souvenirsByYear.forEach((year, souvenirs) -> result.put(String.valueOf(year), souvenirsToJson(souvenirs)));
+            return Response.ok(result);
+        }
+        if (path.size() == 1 && path.get(0).equals("by-date")) {
+            request.requireMethod("GET");
+            return Response.ok(souvenirsToJson(controller.getSouvenirsByProductionDates(
+                    request.dateParameter("from"), request.dateParameter("to"))));
+        }
+        if (path.size() == 1 && path.get(0).equals("counts")) {
+            request.requireMethod("GET");
+            LocalDate from = request.dateParameter("from");
+            LocalDate to = request.dateParameter("to");
+            Map<?, Long> counts = switch (request.query().getOrDefault("per", "year")) {
+                case "month" -> controller.countSouvenirsByMonth(from, to);
+                case "year" -> controller.countSouvenirsByYear(from, to);
+                default -> throw new IllegalArgumentException("Parameter per must be month or year.");
+            };
+            Map<String, Object> result = new LinkedHashMap<>();
+            counts.forEach((period, count) -> result.put(String.valueOf(period), count));
+            return Response.ok(result);
+        }
+        if (path.size() == 1 && path.get(0).equals("autocomplete")) {
+            request.requireMethod("GET");
+            return Response.ok(souvenirsToJson(controller.findSouvenirsByNamePrefix(request.parameter("prefix"),
+                    request.intParameter("limit", DEFAULT_AUTOCOMPLETE_LIMIT))));
+        }
+        if (path.size() == 1 && path.get(0).equals("by-price")) {
+            request.requireMethod("GET");
+            return Response.ok(souvenirsToJson(controller.getSouvenirsByPriceRange(
+                    request.doubleParameter("min", 0), request.doubleParameter("max", Double.MAX_VALUE))));
+        }
+        if (path.size() == 1 && path.get(0).equals("cheapest")) {
+            request.requireMethod("GET");
+            return Response.ok(souvenirsToJson(
+                    controller.getCheapestSouvenirs(request.intParameter("limit", DEFAULT_PRICE_LIMIT))));
+        }
+        if (path.size() == 1 && path.get(0).equals("most-expensive")) {
+            request.requireMethod("GET");
+            return Response.ok(souvenirsToJson(
+                    controller.getMostExpensiveSouvenirs(request.intParameter("limit", DEFAULT_PRICE_LIMIT))));
+        }
+        if (path.size() == 1) {
+            long id = parseId(path.get(0));
+            return switch (request.method()) {
+                case "PUT" -> validated(controller.updateSouvenir(souvenirFromJson(request.jsonBody(), id)), 200);
+                case "DELETE" -> deleted(controller.deleteSouvenir(id));
+                default -> throw ApiException.methodNotAllowed();
+            };
+        }
+        throw ApiException.notFound();
+    }
+
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        Response response;
+        try {
+            response = route.handle(Request.of(exchange));
+        } catch (ApiException e) {
+            response = new Response(e.status, Map.of("errors", List.of(e.getMessage())));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            response = new Response(400, Map.of("errors", List.of(e.getMessage())));
+        } catch (IOException e) {
+            response = new Response(400, Map.of("errors", List.of("Request body cannot be read.")));
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            response = new Response(500, Map.of("errors", List.of("Internal server error.")));
+        }
+        try (exchange) {
+            if (response.body() == null) {
+                exchange.sendResponseHeaders(response.status(), -1);
+                return;
+            }
+            byte[] bytes = Json.write(response.body()).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", JSON_CONTENT_TYPE);
+            exchange.sendResponseHeaders(response.status(), bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static Response validated(ValidationResult result, int successStatus) {
+        if (result.isSuccessful()) {
+            return new Response(successStatus, null);
+        }
+        return new Response(400, Map.of("errors", result.getErrors()));
+    }
+
+    private static Response deleted(boolean deleted) {
+        if (!deleted) {
+            throw ApiException.notFound();
+        }
+        return new Response(204, null);
+    }
+
+    private static long parseId(String segment) {
+        try {
+            return Long.parseLong(segment);
+        } catch (NumberFormatException e) {
+            throw ApiException.notFound();
+        }
+    }
+
+    private static Manufacturer manufacturerFromJson(Map<String, Object> json, long id) {
+        return Manufacturer.builder()
+                .id(id)
+                .name(stringField(json, "name"))
+                .country(stringField(json, "country"))
+                .build();
+    }
+
+    private static Souvenir souvenirFromJson(Map<String, Object> json, long id) {
+        String productionDate = stringField(json, "productionDate");
+        return Souvenir.builder()
+                .id(id)
+                .name(stringField(json, "name"))
+                .manufacturerId(numberField(json, "manufacturerId").longValue())
+                .productionDate(productionDate == null ? null : LocalDate.parse(productionDate))
+                .price(numberField(json, "price").doubleValue())
+                .build();
+    }
+
+    private static String stringField(Map<String, Object> json, String name) {
+        Object value = json.get(name);
+        if (value != null && !(value instanceof String)) {
+            throw new IllegalArgumentException("Field " + name + " must be a string.");
+        }
+        return (String) value;
+    }
+
+    private static Number numberField(Map<String, Object> json, String name) {
+        if (!(json.get(name) instanceof Number number)) {
+            throw new IllegalArgumentException("Field " + name + " must be a number.");
+        }
+        return number;
+    }
+
+    private static List<Map<String, Object>> manufacturersToJson(List<Manufacturer> manufacturers) {
+        return manufacturers.stream().map(ApiServer::toJson).toList();
+    }
+
+    private static List<Map<String, Object>> souvenirsToJson(List<Souvenir> souvenirs) {
+        return souvenirs.stream().map(ApiServer::toJson).toList();
+    }
+
+    private static Map<String, Object> toJson(Manufacturer manufacturer) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", manufacturer.getId());
+        json.put("name", manufacturer.getName());
+        json.put("country", manufacturer.getCountry());
+        return json;
+    }
+
+    private static Map<String, Object> toJson(Souvenir souvenir) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("id", souvenir.getId());
+        json.put("name", souvenir.getName());
+        json.put("manufacturerId", souvenir.getManufacturerId());
+        json.put("productionDate", souvenir.getProductionDate() == null
+                ? null : souvenir.getProductionDate().toString());
+        json.put("price", souvenir.getPrice());
+        return json;
+    }
+
+    /**
+     * Handler of requests to one resource.
+     */
+    @FunctionalInterface
+    private interface Route {
+        Response handle(Request request);
+    }
+
+    /**
+     * Request to a resource.
+     *
+     * @param method The HTTP method.
+     * @param path   The decoded path segments after the resource name.
+     * @param query  The decoded query parameters.
+     * @param body   The request body.
+     */
+    private record Request(String method, List<String> path, Map<String, String> query, String body) {
+
+        static Request of(HttpExchange exchange) throws IOException {
+            String context = exchange.getHttpContext().getPath();
+            String rawPath = exchange.getRequestURI().getRawPath().substring(context.length());
+            List<String> path = new ArrayList<>();
+            for (String segment : rawPath.split("/")) {
+                if (!segment.isEmpty()) {
+                    path.add(decode(segment));
+                }
+            }
+            Map<String, String> query = new HashMap<>();
+            String rawQuery = exchange.getRequestURI().getRawQuery();
+            if (rawQuery != null) {
+                for (String parameter : rawQuery.split("&")) {
+                    int separator = parameter.indexOf('=');
+                    if (separator > 0) {
+                        query.put(decode(parameter.substring(0, separator)), decode(parameter.substring(separator + 1)));
+                    }
+                }
+            }
+            try (InputStream in = exchange.getRequestBody()) {
+                return new Request(exchange.getRequestMethod(), path, query,
+                        new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+
+        void requireMethod(String expectedMethod) {
+            if (!method.equals(expectedMethod)) {
+                throw ApiException.methodNotAllowed();
+            }
+        }
+
+        String parameter(String name) {
+            String value = query.get(name);
+            if (value == null) {
+                throw new IllegalArgumentException("Parameter " + name + " is required.");
+            }
+            return value;
+        }
+
+        int intParameter(String name) {
+            try {
+                return Integer.parseInt(parameter(name));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Parameter " + name + " must be an integer.");
+            }
+        }
+
+        int intParameter(String name, int defaultValue) {
+            return query.containsKey(name) ? intParameter(name) : defaultValue;
+        }
+
+        long longParameter(String name) {
+            try {
+                return Long.parseLong(parameter(name));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Parameter " + name + " must be an integer.");
+            }
+        }
+
+        long longParameter(String name, long defaultValue) {
+            return query.containsKey(name) ? longParameter(name) : defaultValue;
+        }
+
+        double doubleParameter(String name) {
+            try {
+                return Double.parseDouble(parameter(name));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Parameter " + name + " must be a number.");
+            }
+        }
+
+        LocalDate dateParameter(String name) {
+            try {
+                return LocalDate.parse(parameter(name));
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Parameter " + name + " must be a date.");
+            }
+        }
+
+        double doubleParameter(String name, double defaultValue) {
+            return query.containsKey(name) ? doubleParameter(name) : defaultValue;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> jsonBody() {
+            if (!(Json.parse(body) instanceof Map<?, ?> json)) {
+                throw new IllegalArgumentException("Request body must be a JSON object.");
+            }
+            return (Map<String, Object>) json;
+        }
+
+        private static String decode(String value) {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Response to a request.
+     *
+     * @param status The HTTP status code.
+     * @param body   The value written as JSON, or null for an empty body.
+     */
+    private record Response(int status, Object body) {
+
+        static Response ok(Object body) {
+            return new Response(200, body);
+        }
+    }
+
+    /**
+     * Exception answered with an HTTP error status.
+     */
+    private static class ApiException extends RuntimeException {
+
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        static ApiException notFound() {
+            return new ApiException(404, "Resource not found.");
+        }
+
+        static ApiException methodNotAllowed() {
+            return new ApiException(405, "Method not allowed.");
+        }
+    }
+}
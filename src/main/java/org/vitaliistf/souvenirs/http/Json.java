@@ -0,0 +1,286 @@
+package org.vitaliistf.souvenirs.http;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minimal JSON support for the HTTP API.
+ * Values are represented by {@link Map} for objects, {@link List} (or any {@link Iterable} when writing) for arrays,
+ * {@link String}, {@link Number}, {@link Boolean} and null. Parsed numbers are {@link Long} if they are integral
+ * and {@link Double} otherwise. Objects and arrays are parsed recursively, so their nesting depth is limited
+ * to {@value #MAX_DEPTH}.
+ */
+final class Json {
+
+    private static final int MAX_DEPTH = 64;
+
+    private final String text;
+    private int position;
+    private int depth;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Writes a value as JSON.
+     *
+     * @param value The value to write.
+     * @return The JSON text.
+     * @throws IllegalArgumentException If the value contains an object of an unsupported type.
+     */
+    static String write(Object value) {
+        StringBuilder builder = new StringBuilder();
+        write(builder, value);
+        return builder.toString();
+    }
+
+    /**
+     * Parses JSON text.
+     *
+     * @param text The text to parse.
+     * @return The parsed value.
+     * @throws IllegalArgumentException If the text is not valid JSON or is nested too deeply.
+     */
+    static Object parse(String text) {
+        Json parser = new Json(text);
+        Object value = parser.readValue();
+        parser.skipWhitespace();
+        if (parser.position < text.length()) {
+            throw parser.error("Unexpected text after the value");
+        }
+        return value;
+    }
+
+    private static void write(StringBuilder builder, Object value) {
+        switch (value) {
+            case null -> builder.append("null");
+            case String string -> writeString(builder, string);
+            case Double number when number.isNaN() || number.isInfinite() -> builder.append("null");
+            case Number number -> builder.append(number);
+            case Boolean bool -> builder.append(bool);
+            case Map<?, ?> map -> {
+                builder.append('{');
+                boolean first = true;
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (!first) {
+                        builder.append(',');
+                    }
+                    first = false;
+                    writeString(builder, String.valueOf(entry.getKey()));
+                    builder.append(':');
+                    write(builder, entry.getValue());
+                }
+                builder.append('}');
+            }
+            case Iterable<?> iterable -> {
+                builder.append('[');
+                boolean first = true;
+                for (Object element : iterable) {
+                    if (!first) {
+                        builder.append(',');
+                    }
+                    first = false;
+                    write(builder, element);
+                }
+                builder.append(']');
+            }
+            default -> throw new IllegalArgumentException("Cannot write " + value.getClass().getName() + " as JSON.");
+        }
+    }
+
+    private static void writeString(StringBuilder builder, String string) {
+        builder.append('"');
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '"' -> builder.append("\\\"");
+                case '\\' -> builder.append("\\\\");
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                case '\t' -> builder.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+                }
+            }
+        }
+        builder.append('"');
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw error("Unexpected end of text");
+        }
+        char c = text.charAt(position);
+        return switch (c) {
+            case '{' -> readObject();
+            case '[' -> readArray();
+            case '"' -> readString();
+            case 't' -> readLiteral("true", Boolean.TRUE);
+            case 'f' -> readLiteral("false", Boolean.FALSE);
+            case 'n' -> readLiteral("null", null);
+            default -> {
+                if (c == '-' || isDigit(c)) {
+                    yield readNumber();
+                }
+                throw error("Unexpected character '" + c + "'");
+            }
+        };
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        enter();
+        skipWhitespace();
+        if (consume('}')) {
+            depth--;
+            return map;
+        }
+        do {
+            skipWhitespace();
+            if (position >= text.length() || text.charAt(position) != '"') {
+                throw error("Expected a string key");
+            }
+            String key = readString();
+            skipWhitespace();
+            expect(':');
+            map.put(key, readValue());
+            skipWhitespace();
+        } while (consume(','));
+        expect('}');
+        depth--;
+        return map;
+    }
+
+    private List<Object> readArray() {
+        List<Object> list = new ArrayList<>();
+        enter();
+        skipWhitespace();
+        if (consume(']')) {
+            depth--;
+            return list;
+        }
+        do {
+            list.add(readValue());
+            skipWhitespace();
+        } while (consume(','));
+        expect(']');
+        depth--;
+        return list;
+    }
+
+    private void enter() {
+        if (depth == MAX_DEPTH) {
+            throw error("Nesting is deeper than " + MAX_DEPTH + " levels");
+        }
+        depth++;
+        position++;
+    }
+
+    private String readString() {
+        StringBuilder builder = new StringBuilder();
+        position++;
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return builder.toString();
+            }
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            if (position >= text.length()) {
+                break;
+            }
+            char escaped = text.charAt(position++);
+            switch (escaped) {
+                case '"', '\\', '/' -> builder.append(escaped);
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    if (position + 4 > text.length()) {
+                        throw error("Invalid unicode escape");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape");
+                    }
+                    position += 4;
+                }
+                default -> throw error("Invalid escape '\\" + escaped + "'");
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Number readNumber() {
+        int start = position;
+        boolean integral = true;
+        while (position < text.length()) {
+            char c = text.charAt(position);
+            if (c == '.' || c == 'e' || c == 'E') {
+                integral = false;
+            } else if (!(isDigit(c) || c == '-' || c == '+')) {
+                break;
+            }
+            position++;
+        }
+        String number = text.substring(start, position);
+        try {
+            if (integral) {
+                return Long.valueOf(number);
+            }
+            return Double.valueOf(number);
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + number + "'");
+        }
+    }
+
+    private Object readLiteral(String literal, Object value) {
+        if (!text.startsWith(literal, position)) {
+            throw error("Unexpected literal");
+        }
+        position += literal.length();
+        return value;
+    }
+
+    // Character.isDigit also accepts non-ASCII digits, which JSON numbers must not contain
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private boolean consume(char c) {
+        if (position < text.length() && text.charAt(position) == c) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private void expect(char c) {
+        if (!consume(c)) {
+            throw error("Expected '" + c + "'");
+        }
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + position + ".");
+    }
+}
@@ -61,6 +61,7 @@ public class Menu {
             12. Get all manufacturers with their souvenirs.
             13. Get manufacturers by souvenir name and year of production.
             14. Get all souvenirs by years.
+            15. Get souvenirs by range of years.
                 
             0. Exit.
             """);
@@ -20,5 +20,6 @@ public interface MenuOptions {
     int GET_ALL_MANUFACTURERS_WITH_SOUVENIRS = 12;
     int GET_MANUFACTURERS_BY_SOUVENIR_AND_YEAR = 13;
     int GET_ALL_SOUVENIRS_BY_YEARS = 14;
+    int GET_SOUVENIRS_BY_YEAR_RANGE = 15;
 }
 
@@ -1,5 +1,6 @@
 package org.vitaliistf.souvenirs.menu.command;
 
+import org.vitaliistf.souvenirs.config.ConfigReader;
 import org.vitaliistf.souvenirs.controller.MainController;
 import org.vitaliistf.souvenirs.menu.MenuOptions;
 import org.vitaliistf.souvenirs.menu.command.implementation.*;
@@ -18,6 +19,8 @@ import java.util.Optional;
 public class CommandPool {
     /* Note: This pool does not provide any mechanisms for acquiring and releasing objects
         because it is not necessary in the context of this application. */
+    private static final int DEFAULT_PAGE_SIZE = 100;
+
     private final Map<Integer, Command> pool;
 
     /**
@@ -46,6 +49,7 @@ public class CommandPool {
 
     private void initializeCommandPool(MainController controller, InputReader reader,
                                        ManufacturerTableView manufacturerView, SouvenirTableView souvenirView) {
+        int pageSize = ConfigReader.configuration().getInt("menu.page-size", DEFAULT_PAGE_SIZE);
         pool.put(MenuOptions.ADD_MANUFACTURER,
                 new AddManufacturerCommand(controller, reader));
         pool.put(MenuOptions.UPDATE_MANUFACTURER,
@@ -53,7 +57,7 @@ public class CommandPool {
         pool.put(MenuOptions.DELETE_MANUFACTURER,
                 new DeleteManufacturerCommand(controller, reader, manufacturerView));
         pool.put(MenuOptions.GET_ALL_MANUFACTURERS,
-                new GetAllManufacturersCommand(controller, manufacturerView));
+                new GetAllManufacturersCommand(controller, manufacturerView, pageSize));
         pool.put(MenuOptions.ADD_SOUVENIR,
                 new AddSouvenirCommand(controller, reader, manufacturerView));
         pool.put(MenuOptions.UPDATE_SOUVENIR,
@@ -61,7 +65,7 @@ public class CommandPool {
         pool.put(MenuOptions.DELETE_SOUVENIR,
                 new DeleteSouvenirCommand(controller, reader, souvenirView));
         pool.put(MenuOptions.GET_ALL_SOUVENIRS,
-                new GetAllSouvenirsCommand(controller, souvenirView));
+                new GetAllSouvenirsCommand(controller, souvenirView, pageSize));
         pool.put(MenuOptions.GET_SOUVENIRS_BY_MANUFACTURER,
                 new GetSouvenirsByManufacturerCommand(controller, reader, manufacturerView, souvenirView));
         pool.put(MenuOptions.GET_SOUVENIRS_BY_COUNTRY,
@@ -74,6 +78,8 @@ public class CommandPool {
                 new GetManufacturersBySouvenirAndYearCommand(controller, reader, manufacturerView));
         pool.put(MenuOptions.GET_ALL_SOUVENIRS_BY_YEARS,
                 new GetAllSouvenirsByYearsCommand(controller, souvenirView));
+        pool.put(MenuOptions.GET_SOUVENIRS_BY_YEAR_RANGE,
+                new GetSouvenirsByYearRangeCommand(controller, reader, souvenirView));
     }
 
 }
@@ -3,36 +3,60 @@ package org.vitaliistf.souvenirs.menu.command.implementation;
 import org.vitaliistf.souvenirs.controller.MainController;
 import org.vitaliistf.souvenirs.menu.command.Command;
 import org.vitaliistf.souvenirs.menu.view.ManufacturerTableView;
+import org.vitaliistf.souvenirs.menu.view.TableWriter;
 import org.vitaliistf.souvenirs.model.Manufacturer;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
 
 /**
  * Command implementation for retrieving all manufacturers.
+ * Manufacturers are read page by page and streamed to the console as one table, so only one page is held in memory.
  */
 public class GetAllManufacturersCommand implements Command {
 
     private final MainController controller;
     private final ManufacturerTableView manufacturerView;
+    private final int pageSize;
 
     /**
      * Constructs a GetAllManufacturersCommand with the specified MainController.
      *
      * @param controller       The MainController instance for managing manufacturer operations.
      * @param manufacturerView The ManufacturerTableView instance for generating Manufacturer view.
+     * @param pageSize         The number of manufacturers read at once.
      */
-    public GetAllManufacturersCommand(MainController controller, ManufacturerTableView manufacturerView) {
+    public GetAllManufacturersCommand(MainController controller, ManufacturerTableView manufacturerView,
+                                      int pageSize) {
         this.controller = controller;
         this.manufacturerView = manufacturerView;
+        this.pageSize = pageSize;
     }
 
     /**
-     * Executes the command by retrieving a list of all manufacturers from the MainController
-     * and displaying them in a table format using the ManufacturerTableView.
+     * Executes the command by retrieving manufacturers from the MainController page by page
+     * and writing them as rows of one table; the column widths are sampled from the first page.
      */
     @Override
     public void execute() {
-        List<Manufacturer> manufacturers = controller.getAllManufacturers();
-        System.out.println(manufacturerView.generateTable(manufacturers));
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()));
+        List<Manufacturer> page = controller.getManufacturersPage(0, pageSize);
+        TableWriter<Manufacturer> writer = TableWriter.sampled(manufacturerView, out, page)
+                .writeHeader(true)
+                .writeRows(page);
+        while (page.size() == pageSize) {
+            page = controller.getManufacturersPage(page.getLast().getId(), pageSize);
+            writer.writeRows(page);
+        }
+        writer.writeFooter();
+        try {
+            out.append(System.lineSeparator()).flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 }
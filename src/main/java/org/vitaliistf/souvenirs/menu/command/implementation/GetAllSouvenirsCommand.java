@@ -3,37 +3,59 @@ package org.vitaliistf.souvenirs.menu.command.implementation;
 import org.vitaliistf.souvenirs.controller.MainController;
 import org.vitaliistf.souvenirs.menu.command.Command;
 import org.vitaliistf.souvenirs.menu.view.SouvenirTableView;
+import org.vitaliistf.souvenirs.menu.view.TableWriter;
 import org.vitaliistf.souvenirs.model.Souvenir;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.List;
 
 /**
  * Command implementation for retrieving all souvenirs.
+ * Souvenirs are read page by page and streamed to the console as one table, so only one page is held in memory.
  */
 public class GetAllSouvenirsCommand implements Command {
 
     private final MainController controller;
     private final SouvenirTableView souvenirView;
+    private final int pageSize;
 
     /**
      * Constructs a GetAllSouvenirsCommand with the specified MainController.
      *
      * @param controller   The MainController instance for managing souvenir operations.
      * @param souvenirView The SouvenirTableView instance for generating Souvenir view.
+     * @param pageSize     The number of souvenirs read at once.
      */
-    public GetAllSouvenirsCommand(MainController controller, SouvenirTableView souvenirView) {
+    public GetAllSouvenirsCommand(MainController controller, SouvenirTableView souvenirView, int pageSize) {
         this.controller = controller;
         this.souvenirView = souvenirView;
+        this.pageSize = pageSize;
     }
 
     /**
-     * Executes the command by retrieving a list of all souvenirs from the MainController
-     * and displaying them in a table format using the SouvenirTableView.
+     * Executes the command by retrieving souvenirs from the MainController page by page
+     * and writing them as rows of one table; the column widths are sampled from the first page.
      */
     @Override
     public void execute() {
-        List<Souvenir> souvenirs = controller.getAllSouvenirs();
-        System.out.println(souvenirView.generateTable(souvenirs));
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, System.out.charset()));
+        List<Souvenir> page = controller.getSouvenirsPage(0, pageSize);
+        TableWriter<Souvenir> writer = TableWriter.sampled(souvenirView, out, page)
+                .writeHeader(true)
+                .writeRows(page);
+        while (page.size() == pageSize) {
+            page = controller.getSouvenirsPage(page.getLast().getId(), pageSize);
+            writer.writeRows(page);
+        }
+        writer.writeFooter();
+        try {
+            out.append(System.lineSeparator()).flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
-
 }
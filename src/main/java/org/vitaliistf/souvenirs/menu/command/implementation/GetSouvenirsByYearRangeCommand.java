@@ -0,0 +1,54 @@
+package org.vitaliistf.souvenirs.menu.command.implementation;
+
+import org.vitaliistf.souvenirs.controller.MainController;
+import org.vitaliistf.souvenirs.menu.command.Command;
+import org.vitaliistf.souvenirs.menu.view.SouvenirTableView;
+import org.vitaliistf.souvenirs.model.Souvenir;
+import org.vitaliistf.souvenirs.util.InputReader;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Command implementation for retrieving souvenirs produced in a range of years, grouped by year.
+ */
+public class GetSouvenirsByYearRangeCommand implements Command {
+
+    private final MainController controller;
+    private final InputReader reader;
+    private final SouvenirTableView souvenirView;
+
+    /**
+     * Constructs a GetSouvenirsByYearRangeCommand with the specified MainController and InputReader.
+     *
+     * @param controller   The MainController instance for managing souvenir operations.
+     * @param reader       The InputReader instance for reading user input.
+     * @param souvenirView The SouvenirTableView instance for generating Souvenir view.
+     */
+    public GetSouvenirsByYearRangeCommand(MainController controller, InputReader reader,
+                                          SouvenirTableView souvenirView) {
+        this.controller = controller;
+        this.reader = reader;
+        this.souvenirView = souvenirView;
+    }
+
+    /**
+     * Executes the command by prompting the user to enter the first and the last year of a range,
+     * retrieving souvenirs produced in these years from the MainController
+     * and displaying them grouped by year.
+     */
+    @Override
+    public void execute() {
+        int fromYear = reader.getInt("➡️Enter first year: ");
+        int toYear = reader.getInt("➡️Enter last year: ");
+        Map<Integer, List<Souvenir>> map = controller.getSouvenirsByYears(fromYear, toYear);
+        if (map.isEmpty()) {
+            System.out.println("⚠️No souvenirs were produced in these years.");
+        }
+        map.forEach((year, souvenirs) -> {
+            System.out.println("Year: " + year);
+            System.out.println(souvenirView.generateTable(souvenirs));
+        });
+    }
+
+}
@@ -1,9 +1,8 @@
 package org.vitaliistf.souvenirs.menu.view;
 
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.List;
 
 /**
  * Interface representing a generic table view.
@@ -19,76 +18,27 @@ public interface TableView<T> {
      */
     default String generateTable(Collection<T> data) {
         StringBuilder tableBuilder = new StringBuilder();
-        String[] headers = getHeaders();
-        int[] columnWidths = getColumnWidths(data);
-
-        String headerFormat = buildHeaderFormat(columnWidths);
-        String rowFormat = buildRowFormat(columnWidths);
-        String divider = buildDividerLine(columnWidths);
-
-        tableBuilder.append(getTitle())
-                .append("\n")
-                .append(divider)
-                .append("\n")
-                .append(String.format(headerFormat + "%n", (Object[]) headers))
-                .append(divider)
-                .append("\n");
-
-        String rows = data.stream()
-                .map(i -> String.format(rowFormat + "%n", (Object[]) getRowData(i)))
-                .collect(Collectors.joining());
-        tableBuilder.append(rows);
-
-        tableBuilder.append(divider).append("\n");
-
+        writeTable(data, tableBuilder);
         return tableBuilder.toString();
     }
 
     /**
-     * Calculates the column widths based on the headers and data.
-     * @param data The collection of data items.
-     * @return An array representing the width of each column.
-     */
-    private int[] getColumnWidths(Collection<T> data) {
-        int[] widths = Arrays.stream(getHeaders()).mapToInt(String::length).toArray();
-        data.stream()
-                .map(this::getRowData)
-                .forEach(rowData -> IntStream.range(0, rowData.length)
-                .forEach(i -> widths[i] = Math.max(rowData[i].length(), widths[i])));
-        return widths;
-    }
-
-    /**
-     * Builds the format string for the table header.
-     * @param columnWidths An array representing the width of each column.
-     * @return The format string for the header.
-     */
-    private String buildHeaderFormat(int[] columnWidths) {
-        return Arrays.stream(columnWidths)
-                .mapToObj(width -> " %-" + width + "s ")
-                .collect(Collectors.joining("|", "|", "|"));
-    }
-
-    /**
-     * Builds the format string for the table rows.
-     * @param columnWidths An array representing the width of each column.
-     * @return The format string for the rows.
-     */
-    private String buildRowFormat(int[] columnWidths) {
-        return Arrays.stream(columnWidths)
-                .mapToObj(width -> " %" + width + "s ")
-                .collect(Collectors.joining("|", "|", "|"));
-    }
-
-    /**
-     * Builds the divider line between rows and header.
-     * @param columnWidths An array representing the width of each column.
-     * @return The string representing the divider line.
-     */
-    private String buildDividerLine(int[] columnWidths) {
-        return Arrays.stream(columnWidths)
-                .mapToObj(width -> "-".repeat(width + 2))
-                .collect(Collectors.joining("+", "+", "+"));
+     * Writes the table based on the provided data to an output.
+     * The row data of every item is retrieved once and columns are as wide as their widest value.
+     * @param data The collection of data items to display in the table.
+     * @param out  The output to write the table to.
+     */
+    default void writeTable(Collection<T> data, Appendable out) {
+        List<String[]> rows = new ArrayList<>(data.size());
+        int[] columnWidths = new int[getHeaders().length];
+        for (T item : data) {
+            String[] rowData = getRowData(item);
+            TableWriter.fitColumnWidths(columnWidths, rowData);
+            rows.add(rowData);
+        }
+        TableWriter<T> writer = new TableWriter<>(this, out, columnWidths).writeHeader(true);
+        rows.forEach(writer::writeRowData);
+        writer.writeFooter();
     }
 
     /**
@@ -0,0 +1,176 @@
+package org.vitaliistf.souvenirs.menu.view;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Writer of a table directly to an output, row by row.
+ * Column widths are fixed when the writer is created, so rows are written as they arrive,
+ * without keeping the table in memory. Widths are either given or sampled from the first rows,
+ * and a value wider than its column is written whole, shifting the rest of its row.
+ * Cells are padded from a precomputed run of spaces instead of being formatted.
+ *
+ * @param <T> The type of data displayed in the table.
+ */
+public class TableWriter<T> {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private final TableView<T> view;
+    private final Appendable out;
+    private final int[] columnWidths;
+    private final String divider;
+    private final String padding;
+
+    /**
+     * Constructs a TableWriter with the specified column widths.
+     *
+     * @param view         The TableView providing the title, headers and row data.
+     * @param out          The output to write the table to.
+     * @param columnWidths The width of each column; a column is never narrower than its header.
+     */
+    public TableWriter(TableView<T> view, Appendable out, int[] columnWidths) {
+        String[] headers = view.getHeaders();
+        if (columnWidths.length != headers.length) {
+            throw new IllegalArgumentException("Expected " + headers.length + " column widths.");
+        }
+        this.view = view;
+        this.out = out;
+        this.columnWidths = new int[columnWidths.length];
+        int maxWidth = 0;
+        StringBuilder dividerBuilder = new StringBuilder("+");
+        for (int i = 0; i < columnWidths.length; i++) {
+            this.columnWidths[i] = Math.max(columnWidths[i], headers[i].length());
+            maxWidth = Math.max(maxWidth, this.columnWidths[i]);
+            dividerBuilder.repeat('-', this.columnWidths[i] + 2).append('+');
+        }
+        this.divider = dividerBuilder.toString();
+        this.padding = " ".repeat(maxWidth);
+    }
+
+    /**
+     * Constructs a TableWriter with column widths fitting the sample rows.
+     * Used to stream a table whose first rows are known, like the first page of the data.
+     *
+     * @param view   The TableView providing the title, headers and row data.
+     * @param out    The output to write the table to.
+     * @param sample The data items to compute the column widths from.
+     * @param <T>    The type of data displayed in the table.
+     * @return A TableWriter with sampled column widths.
+     */
+    public static <T> TableWriter<T> sampled(TableView<T> view, Appendable out, Iterable<T> sample) {
+        int[] widths = new int[view.getHeaders().length];
+        for (T item : sample) {
+            fitColumnWidths(widths, view.getRowData(item));
+        }
+        return new TableWriter<>(view, out, widths);
+    }
+
+    /**
+     * Widens the columns to fit the row data.
+     *
+     * @param widths  The column widths to widen.
+     * @param rowData The data of a row.
+     */
+    static void fitColumnWidths(int[] widths, String[] rowData) {
+        for (int i = 0; i < rowData.length; i++) {
+            widths[i] = Math.max(widths[i], cell(rowData[i]).length());
+        }
+    }
+
+    /**
+     * Writes the optional title, the header and the dividers around it.
+     *
+     * @param withTitle Whether the title precedes the table.
+     * @return This writer.
+     */
+    public TableWriter<T> writeHeader(boolean withTitle) {
+        try {
+            if (withTitle) {
+                out.append(view.getTitle()).append('\n');
+            }
+            out.append(divider).append('\n');
+            writeLine(view.getHeaders(), true);
+            out.append(divider).append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a row of the table.
+     *
+     * @param item The data item to display in the row.
+     * @return This writer.
+     */
+    public TableWriter<T> writeRow(T item) {
+        return writeRowData(view.getRowData(item));
+    }
+
+    /**
+     * Writes a row of the table from already retrieved row data.
+     *
+     * @param rowData The data of the row.
+     * @return This writer.
+     */
+    TableWriter<T> writeRowData(String[] rowData) {
+        try {
+            writeLine(rowData, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return this;
+    }
+
+    /**
+     * Writes the rows of the table.
+     *
+     * @param items The data items to display.
+     * @return This writer.
+     */
+    public TableWriter<T> writeRows(Iterable<T> items) {
+        for (T item : items) {
+            writeRow(item);
+        }
+        return this;
+    }
+
+    /**
+     * Writes the divider closing the table.
+     */
+    public void writeFooter() {
+        try {
+            out.append(divider).append('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a line of cells, left aligned for the header and right aligned for rows.
+     *
+     * @param cells     The values of the cells.
+     * @param leftAlign Whether the values are aligned to the left.
+     * @throws IOException If the output fails.
+     */
+    private void writeLine(String[] cells, boolean leftAlign) throws IOException {
+        out.append('|');
+        for (int i = 0; i < columnWidths.length; i++) {
+            String value = cell(cells[i]);
+            int gap = Math.max(columnWidths[i] - value.length(), 0);
+            out.append(' ');
+            if (leftAlign) {
+                out.append(value).append(padding, 0, gap);
+            } else {
+                out.append(padding, 0, gap).append(value);
+            }
+            out.append(" |");
+        }
+        out.append(LINE_SEPARATOR);
+    }
+
+    private static String cell(String value) {
+        return value == null ? "null" : value;
+    }
+}
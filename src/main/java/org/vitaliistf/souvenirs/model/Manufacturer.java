@@ -1,14 +1,20 @@
 package org.vitaliistf.souvenirs.model;
 
+import lombok.AccessLevel;
+import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.io.Serial;
 import java.io.Serializable;
 
 /**
  * Represents a manufacturer of souvenirs.
- * (Usage of "Prototype" design pattern.)
+ * Manufacturers stored by a repository are frozen, so they can be shared without copying.
+ * A frozen manufacturer rejects changes; a modified copy is created with its builder or by cloning it.
+ * (Usage of "Prototype" and "Builder" design patterns.)
  */
 @Data
 public class Manufacturer implements Serializable, Cloneable {
@@ -24,6 +30,11 @@ public class Manufacturer implements Serializable, Cloneable {
     @EqualsAndHashCode.Exclude
     private String country;
 
+    @EqualsAndHashCode.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient boolean frozen;
+
     /**
      * Constructs a manufacturer with the specified name and country.
      *
@@ -35,6 +46,71 @@ public class Manufacturer implements Serializable, Cloneable {
         this.country = country;
     }
 
+    /**
+     * Constructs a manufacturer with all its fields, used by the builder.
+     *
+     * @param id      The ID of the manufacturer.
+     * @param name    The name of the manufacturer.
+     * @param country The country of the manufacturer.
+     */
+    @Builder(toBuilder = true)
+    private Manufacturer(long id, String name, String country) {
+        this(name, country);
+        this.id = id;
+    }
+
+    /**
+     * Sets the ID of the manufacturer.
+     *
+     * @param id The ID of the manufacturer.
+     * @throws IllegalStateException If the manufacturer is frozen.
+     */
+    public void setId(long id) {
+        checkNotFrozen();
+        this.id = id;
+    }
+
+    /**
+     * Sets the name of the manufacturer.
+     *
+     * @param name The name of the manufacturer.
+     * @throws IllegalStateException If the manufacturer is frozen.
+     */
+    public void setName(String name) {
+        checkNotFrozen();
+        this.name = name;
+    }
+
+    /**
+     * Sets the country of the manufacturer.
+     *
+     * @param country The country of the manufacturer.
+     * @throws IllegalStateException If the manufacturer is frozen.
+     */
+    public void setCountry(String country) {
+        checkNotFrozen();
+        this.country = country;
+    }
+
+    /**
+     * Makes this manufacturer read-only.
+     *
+     * @return This manufacturer.
+     */
+    public Manufacturer freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Checks whether this manufacturer is read-only.
+     *
+     * @return true if the manufacturer is frozen, false otherwise.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
     /**
      * Builds a string representation of the object.
      *
@@ -47,15 +123,24 @@ public class Manufacturer implements Serializable, Cloneable {
 
     /**
      * Returns a clone of this Manufacturer instance.
+     * The clone is never frozen, so it can be modified.
      *
      * @return A clone of this Manufacturer instance.
      */
     @Override
     public Manufacturer clone() {
         try {
-            return (Manufacturer) super.clone();
+            Manufacturer clone = (Manufacturer) super.clone();
+            clone.frozen = false;
+            return clone;
         } catch (CloneNotSupportedException e) {
             throw new AssertionError();
         }
     }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Manufacturer is read-only, use toBuilder() to create a modified copy.");
+        }
+    }
 }
@@ -1,7 +1,12 @@
 package org.vitaliistf.souvenirs.model;
 
+import lombok.AccessLevel;
+import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
 
 import java.io.Serial;
 import java.io.Serializable;
@@ -9,7 +14,9 @@ import java.time.LocalDate;
 
 /**
  * Represents a souvenir.
- * (Usage of "Prototype" design pattern.)
+ * Souvenirs stored by a repository are frozen, so they can be shared without copying.
+ * A frozen souvenir rejects changes; a modified copy is created with its builder or by cloning it.
+ * (Usage of "Prototype" and "Builder" design patterns.)
  */
 @Data
 public class Souvenir implements Serializable, Cloneable {
@@ -30,6 +37,12 @@ public class Souvenir implements Serializable, Cloneable {
     @EqualsAndHashCode.Exclude
     private double price;
 
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient boolean frozen;
+
     /**
      * Constructs a souvenir with the specified name, manufacturer ID, production date, and price.
      *
@@ -45,17 +58,115 @@ public class Souvenir implements Serializable, Cloneable {
         this.price = price;
     }
 
+    /**
+     * Constructs a souvenir with all its fields, used by the builder.
+     *
+     * @param id              The ID of the souvenir.
+     * @param name            The name of the souvenir.
+     * @param manufacturerId  The ID of the manufacturer of the souvenir.
+     * @param productionDate  The production date of the souvenir.
+     * @param price           The price of the souvenir.
+     */
+    @Builder(toBuilder = true)
+    private Souvenir(long id, String name, long manufacturerId, LocalDate productionDate, double price) {
+        this(name, manufacturerId, productionDate, price);
+        this.id = id;
+    }
+
+    /**
+     * Sets the ID of the souvenir.
+     *
+     * @param id The ID of the souvenir.
+     * @throws IllegalStateException If the souvenir is frozen.
+     */
+    public void setId(long id) {
+        checkNotFrozen();
+        this.id = id;
+    }
+
+    /**
+     * Sets the name of the souvenir.
+     *
+     * @param name The name of the souvenir.
+     * @throws IllegalStateException If the souvenir is frozen.
+     */
+    public void setName(String name) {
+        checkNotFrozen();
+        this.name = name;
+    }
+
+    /**
+     * Sets the ID of the manufacturer of the souvenir.
+     *
+     * @param manufacturerId The ID of the manufacturer of the souvenir.
+     * @throws IllegalStateException If the souvenir is frozen.
+     */
+    public void setManufacturerId(long manufacturerId) {
+        checkNotFrozen();
+        this.manufacturerId = manufacturerId;
+    }
+
+    /**
+     * Sets the production date of the souvenir.
+     *
+     * @param productionDate The production date of the souvenir.
+     * @throws IllegalStateException If the souvenir is frozen.
+     */
+    public void setProductionDate(LocalDate productionDate) {
+        checkNotFrozen();
+        this.productionDate = productionDate;
+    }
+
+    /**
+     * Sets the price of the souvenir.
+     *
+     * @param price The price of the souvenir.
+     * @throws IllegalStateException If the souvenir is frozen.
+     */
+    public void setPrice(double price) {
+        checkNotFrozen();
+        this.price = price;
+    }
+
+    /**
+     * Makes this souvenir read-only.
+     *
+     * @return This souvenir.
+     */
+    public Souvenir freeze() {
+        this.frozen = true;
+        return this;
+    }
+
+    /**
+     * Checks whether this souvenir is read-only.
+     *
+     * @return true if the souvenir is frozen, false otherwise.
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
     /**
      * Returns a clone of this Souvenir instance.
+     * The clone is never frozen, so it can be modified.
      *
      * @return A clone of this Souvenir instance.
      */
     @Override
     public Souvenir clone() {
         try {
-            return (Souvenir) super.clone();
+            Souvenir clone = (Souvenir) super.clone();
+            clone.frozen = false;
+            return clone;
         } catch (CloneNotSupportedException e) {
             throw new AssertionError();
         }
     }
+
+    private void checkNotFrozen() {
+        if (frozen) {
+            throw new IllegalStateException("Souvenir is read-only, use toBuilder() to create a modified copy.");
+        }
+    }
 }
@@ -17,4 +17,11 @@ public interface ManufacturerRepository extends Repository<Manufacturer, Long> {
      */
     List<Manufacturer> getByCountry(String country);
 
+    /**
+     * Retrieves the distinct countries where manufacturers are located.
+     *
+     * @return A list of distinct countries.
+     */
+    List<String> getCountries();
+
 }
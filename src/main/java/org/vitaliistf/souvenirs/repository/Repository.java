@@ -1,10 +1,13 @@
 package org.vitaliistf.souvenirs.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
  * Represents a generic repository interface for storing and retrieving objects of type T.
+ * Retrieved objects may be shared by the repository and must be treated as read-only.
  *
  * @param <T> The type of objects stored in the repository.
  * @param <V> The type of ID used to identify objects in the repository.
@@ -20,6 +23,16 @@ public interface Repository<T, V> {
      */
     boolean add(T object);
 
+    /**
+     * Adds objects to the repository as a single change with a single persistence write.
+     * IDs are allocated as one block for the added objects, and objects equal to a stored object
+     * or to an earlier object of the collection are skipped.
+     *
+     * @param objects The objects to add.
+     * @return A list of the added objects with their IDs, in the order of the collection.
+     */
+    List<T> addAll(Collection<T> objects);
+
     /**
      * Updates an object in the repository.
      *
@@ -36,6 +49,24 @@ public interface Repository<T, V> {
      */
     boolean remove(V id);
 
+    /**
+     * Updates objects in the repository as a single change with a single persistence write.
+     * Objects that are not stored, or would become equal to another stored object, are skipped.
+     *
+     * @param objects The objects to update.
+     * @return A list of the updated objects, in the order of the collection.
+     */
+    List<T> updateAll(Collection<T> objects);
+
+    /**
+     * Removes objects from the repository by their IDs as a single change with a single persistence write.
+     * IDs without a stored object are skipped.
+     *
+     * @param ids The IDs of the objects to remove.
+     * @return A list of the removed objects, in the order of the IDs.
+     */
+    List<T> removeAll(Collection<V> ids);
+
     /**
      * Retrieves all objects from the repository.
      *
@@ -51,4 +82,40 @@ public interface Repository<T, V> {
      */
     Optional<T> getById(V id);
 
+    /**
+     * Retrieves a page of objects in ascending order of IDs, starting after the specified ID.
+     * The next page starts after the ID of the last object of the previous one, so pages stay consistent
+     * when objects are added or removed between requests.
+     *
+     * @param afterId The ID after which the page starts; IDs start from 1, so 0 selects the first page.
+     * @param limit   The maximum number of objects in the page.
+     * @return A list of at most limit objects, empty if there are no objects after the ID.
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    List<T> getPage(V afterId, int limit);
+
+    /**
+     * Runs operations on the repository as a batch, so their changes are persisted together when it ends
+     * instead of one by one. Repositories without batched persistence simply run the operations.
+     *
+     * @param operations The operations changing the repository.
+     */
+    default void batch(Runnable operations) {
+        batch(() -> {
+            operations.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs operations on the repository as a batch, like {@link #batch(Runnable)}, and returns their result.
+     *
+     * @param operations The operations changing the repository.
+     * @param <R>        The type of the result.
+     * @return The result of the operations.
+     */
+    default <R> R batch(Supplier<R> operations) {
+        return operations.get();
+    }
+
 }
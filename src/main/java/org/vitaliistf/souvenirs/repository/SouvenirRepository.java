@@ -2,7 +2,12 @@ package org.vitaliistf.souvenirs.repository;
 
 import org.vitaliistf.souvenirs.model.Souvenir;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Represents a repository interface for managing Souvenir objects.
@@ -17,6 +22,16 @@ public interface SouvenirRepository extends Repository<Souvenir, Long> {
      */
     List<Souvenir> getByName(String name);
 
+    /**
+     * Retrieves souvenirs whose name starts with the specified prefix, ignoring case, for autocompletion.
+     *
+     * @param prefix The prefix of names; an empty prefix matches every souvenir.
+     * @param limit  The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs, ordered by name.
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    List<Souvenir> findByNamePrefix(String prefix, int limit);
+
     /**
      * Retrieves a list of souvenirs by manufacturer ID.
      *
@@ -25,4 +40,89 @@ public interface SouvenirRepository extends Repository<Souvenir, Long> {
      */
     List<Souvenir> getByManufacturerId(Long manufacturerId);
 
+    /**
+     * Retrieves souvenirs of several manufacturers at once, grouped by manufacturer ID.
+     *
+     * @param manufacturerIds The IDs of the manufacturers.
+     * @return A map where each requested manufacturer ID is mapped to the list of its souvenirs
+     * (empty if the manufacturer has none).
+     */
+    Map<Long, List<Souvenir>> getByManufacturerIds(Collection<Long> manufacturerIds);
+
+    /**
+     * Retrieves the IDs of manufacturers having at least one souvenir priced above the specified price.
+     *
+     * @param price The price to compare with.
+     * @return A set of IDs of manufacturers with a more expensive souvenir.
+     */
+    Set<Long> getManufacturerIdsWithPriceAbove(double price);
+
+    /**
+     * Retrieves souvenirs priced in the specified range.
+     *
+     * @param minPrice The lowest price, inclusive.
+     * @param maxPrice The highest price, inclusive.
+     * @return A list of souvenirs in ascending order of prices and then of IDs, empty if minPrice exceeds maxPrice.
+     */
+    List<Souvenir> getByPriceRange(double minPrice, double maxPrice);
+
+    /**
+     * Retrieves the cheapest souvenirs.
+     *
+     * @param limit The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs in ascending order of prices and then of IDs.
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    List<Souvenir> getCheapest(int limit);
+
+    /**
+     * Retrieves the most expensive souvenirs.
+     *
+     * @param limit The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs in descending order of prices and then ascending order of IDs.
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    List<Souvenir> getMostExpensive(int limit);
+
+    /**
+     * Retrieves souvenirs produced in the specified range of years, grouped by year.
+     * Souvenirs without a production date are not included.
+     *
+     * @param fromYear The first year of the range, inclusive.
+     * @param toYear   The last year of the range, inclusive.
+     * @return A read-only map of years in ascending order to read-only lists of souvenirs produced in them.
+     */
+    Map<Integer, List<Souvenir>> getByProductionYears(int fromYear, int toYear);
+
+    /**
+     * Retrieves souvenirs produced in the specified time window.
+     * Souvenirs without a production date are not included.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A list of souvenirs in ascending order of production dates and then of IDs,
+     * empty if from is after to.
+     */
+    List<Souvenir> getByProductionDates(LocalDate from, LocalDate to);
+
+    /**
+     * Counts souvenirs produced in the specified time window per month.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A read-only map of months in ascending order to the numbers of souvenirs produced in them,
+     * without months having no souvenirs.
+     */
+    Map<YearMonth, Long> countByProductionMonth(LocalDate from, LocalDate to);
+
+    /**
+     * Counts souvenirs produced in the specified time window per year.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A read-only map of years in ascending order to the numbers of souvenirs produced in them,
+     * without years having no souvenirs.
+     */
+    Map<Integer, Long> countByProductionYear(LocalDate from, LocalDate to);
+
 }
@@ -2,23 +2,47 @@ package org.vitaliistf.souvenirs.repository.implementation;
 
 import org.vitaliistf.souvenirs.config.ConfigReader;
 import org.vitaliistf.souvenirs.filemanager.FileManager;
+import org.vitaliistf.souvenirs.filemanager.JournalEntry;
+import org.vitaliistf.souvenirs.filemanager.codec.ManufacturerCodec;
 import org.vitaliistf.souvenirs.model.Manufacturer;
 import org.vitaliistf.souvenirs.repository.ManufacturerRepository;
+import org.vitaliistf.souvenirs.repository.index.CountryIndex;
+import org.vitaliistf.souvenirs.repository.sequence.IdSequence;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.NavigableMap;
 import java.util.Optional;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
 
 /**
  * An implementation of the ManufacturerRepository interface that stores manufacturers in memory.
+ * Manufacturers are kept in a set, which guarantees uniqueness, and are indexed by ID in a sorted map,
+ * which serves both lookups and pages in the order of IDs.
+ * Countries are dictionary-encoded by a country index, which serves lookups by country and the list of countries,
+ * and stored manufacturers share the country strings of the dictionary.
+ * Stored manufacturers are frozen, so they are returned to callers without copying.
+ * The repository is thread-safe: reads are lock-free and observe every completed change,
+ * while changes are serialized by a write lock, so each of them is applied and persisted atomically.
  * (Usage of "Singleton" design pattern.)
  */
 public class InMemoryManufacturerRepository implements ManufacturerRepository {
 
     private final FileManager<Manufacturer> fileManager;
     private final Set<Manufacturer> manufacturers;
-    private static InMemoryManufacturerRepository instance;
+    private final NavigableMap<Long, Manufacturer> manufacturersById;
+    private final CountryIndex countryIndex = new CountryIndex();
+    private final IdSequence idSequence;
+    private final Lock writeLock = new ReentrantLock();
+    private static volatile InMemoryManufacturerRepository instance;
 
     /**
      * Constructs a new InMemoryManufacturerRepository instance.
@@ -26,11 +50,30 @@ public class InMemoryManufacturerRepository implements ManufacturerRepository {
      * @throws RuntimeException If an error occurs while reading the file path from the properties file.
      */
     private InMemoryManufacturerRepository() {
-        this.fileManager = new FileManager<>(ConfigReader.getProperty("manufacturers.file-path").orElseThrow(
+        this(FileManager.configured(ConfigReader.getProperty("manufacturers.file-path").orElseThrow(
                     () -> new RuntimeException(
                             "Manufacturers file path is not specified in application.properties."
-                    )));
-        this.manufacturers = fileManager.loadFromFile();
+                    )),
+                new ManufacturerCodec(),
+                Manufacturer::getId));
+    }
+
+    /**
+     * Constructs a new InMemoryManufacturerRepository instance, independent of the singleton instance,
+     * that loads and persists manufacturers with the specified file manager.
+     *
+     * @param fileManager The file manager for manufacturers.
+     */
+    public InMemoryManufacturerRepository(FileManager<Manufacturer> fileManager) {
+        this.fileManager = fileManager;
+        Set<Manufacturer> loadedManufacturers = fileManager.loadFromFile();
+        loadedManufacturers.forEach(this::freeze);
+        this.manufacturers = ConcurrentHashMap.newKeySet(loadedManufacturers.size());
+        this.manufacturers.addAll(loadedManufacturers);
+        this.manufacturersById = new ConcurrentSkipListMap<>();
+        manufacturers.forEach(this::index);
+        this.idSequence = IdSequence.seededFrom(LongStream.concat(LongStream.of(fileManager.getLastId()),
+                manufacturersById.keySet().stream().mapToLong(Long::longValue)));
     }
 
     /**
@@ -39,10 +82,17 @@ public class InMemoryManufacturerRepository implements ManufacturerRepository {
      * @return The singleton instance of InMemoryManufacturerRepository.
      */
     public static InMemoryManufacturerRepository getInstance() {
-        if (instance == null) {
-            instance = new InMemoryManufacturerRepository();
+        InMemoryManufacturerRepository result = instance;
+        if (result == null) {
+            synchronized (InMemoryManufacturerRepository.class) {
+                result = instance;
+                if (result == null) {
+                    result = new InMemoryManufacturerRepository();
+                    instance = result;
+                }
+            }
         }
-        return instance;
+        return result;
     }
 
     /**
@@ -54,12 +104,60 @@ public class InMemoryManufacturerRepository implements ManufacturerRepository {
     @Override
     public boolean add(Manufacturer manufacturer) {
         manufacturer = manufacturer.clone();
-        manufacturer.setId(getNextId());
-        boolean result = manufacturers.add(manufacturer);
-        if (result) {
-            fileManager.saveToFile(manufacturers);
+        writeLock.lock();
+        try {
+            // The ID is allocated only for new manufacturers, so rejected duplicates do not leave gaps in the sequence
+            if (manufacturers.contains(manufacturer)) {
+                return false;
+            }
+            manufacturer.setId(idSequence.next());
+            freeze(manufacturer);
+            manufacturers.add(manufacturer);
+            index(manufacturer);
+            fileManager.persist(JournalEntry.add(manufacturer.getId(), manufacturer), manufacturersById.values());
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds manufacturers to the repository as a single change with a single persistence write.
+     * Their IDs are allocated as one block, and manufacturers that are already present,
+     * or present earlier in the collection, are skipped.
+     *
+     * @param newManufacturers The manufacturers to add.
+     * @return A list of the added manufacturers with their IDs, in the order of the collection.
+     */
+    @Override
+    public List<Manufacturer> addAll(Collection<Manufacturer> newManufacturers) {
+        List<Manufacturer> copies = new ArrayList<>(newManufacturers.size());
+        newManufacturers.forEach(manufacturer -> copies.add(manufacturer.clone()));
+        writeLock.lock();
+        try {
+            Set<Manufacturer> accepted = LinkedHashSet.newLinkedHashSet(copies.size());
+            for (Manufacturer manufacturer : copies) {
+                if (!manufacturers.contains(manufacturer)) {
+                    accepted.add(manufacturer);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return List.of();
+            }
+            long id = idSequence.nextBlock(accepted.size());
+            List<JournalEntry<Manufacturer>> entries = new ArrayList<>(accepted.size());
+            for (Manufacturer manufacturer : accepted) {
+                manufacturer.setId(id++);
+                freeze(manufacturer);
+                manufacturers.add(manufacturer);
+                index(manufacturer);
+                entries.add(JournalEntry.add(manufacturer.getId(), manufacturer));
+            }
+            fileManager.persistAll(entries, manufacturersById.values());
+            return List.copyOf(accepted);
+        } finally {
+            writeLock.unlock();
         }
-        return result;
     }
 
     /**
@@ -70,16 +168,27 @@ public class InMemoryManufacturerRepository implements ManufacturerRepository {
      */
     @Override
     public boolean update(Manufacturer updatedManufacturer) {
-        // If such manufacturer is present - revert repository to its state before deletion
         updatedManufacturer = updatedManufacturer.clone();
-        Optional<Manufacturer> presentManufacturer = getById(updatedManufacturer.getId());
-        if (remove(updatedManufacturer.getId()) && manufacturers.add(updatedManufacturer)) {
-            fileManager.saveToFile(manufacturers);
-            return true;
-        } else {
-            presentManufacturer.ifPresent(manufacturers::add);
+        writeLock.lock();
+        try {
+            Manufacturer presentManufacturer = manufacturersById.get(updatedManufacturer.getId());
+            if (presentManufacturer == null) {
+                return false;
+            }
+            freeze(updatedManufacturer);
+            manufacturers.remove(presentManufacturer);
+            if (manufacturers.add(updatedManufacturer)) {
+                reindex(presentManufacturer, updatedManufacturer);
+                fileManager.persist(JournalEntry.update(updatedManufacturer.getId(), updatedManufacturer),
+                        manufacturersById.values());
+                return true;
+            }
+            // If such manufacturer is present - revert repository to its state before deletion
+            manufacturers.add(presentManufacturer);
+            return false;
+        } finally {
+            writeLock.unlock();
         }
-        return false;
     }
 
     /**
@@ -90,11 +199,103 @@ public class InMemoryManufacturerRepository implements ManufacturerRepository {
      */
     @Override
     public boolean remove(Long id) {
-        boolean result = manufacturers.removeIf(manufacturer -> manufacturer.getId() == id);
-        if (result) {
-            fileManager.saveToFile(manufacturers);
+        writeLock.lock();
+        try {
+            Manufacturer removedManufacturer = manufacturersById.remove(id);
+            if (removedManufacturer == null) {
+                return false;
+            }
+            manufacturers.remove(removedManufacturer);
+            countryIndex.remove(removedManufacturer);
+            fileManager.persist(JournalEntry.remove(id), manufacturersById.values());
+            return true;
+        } finally {
+            writeLock.unlock();
         }
-        return result;
+    }
+
+    /**
+     * Updates manufacturers in the repository as a single change with a single persistence write.
+     * The manufacturers are applied in the order of the collection, each like a single update,
+     * so manufacturers that are not stored, or would get the name of another stored manufacturer, are skipped.
+     *
+     * @param updatedManufacturers The updated manufacturers.
+     * @return A list of the updated manufacturers, in the order of the collection.
+     */
+    @Override
+    public List<Manufacturer> updateAll(Collection<Manufacturer> updatedManufacturers) {
+        List<Manufacturer> copies = new ArrayList<>(updatedManufacturers.size());
+        updatedManufacturers.forEach(manufacturer -> copies.add(manufacturer.clone()));
+        writeLock.lock();
+        try {
+            List<Manufacturer> updated = new ArrayList<>();
+            List<JournalEntry<Manufacturer>> entries = new ArrayList<>();
+            for (Manufacturer updatedManufacturer : copies) {
+                Manufacturer presentManufacturer = manufacturersById.get(updatedManufacturer.getId());
+                if (presentManufacturer == null) {
+                    continue;
+                }
+                freeze(updatedManufacturer);
+                manufacturers.remove(presentManufacturer);
+                if (manufacturers.add(updatedManufacturer)) {
+                    reindex(presentManufacturer, updatedManufacturer);
+                    updated.add(updatedManufacturer);
+                    entries.add(JournalEntry.update(updatedManufacturer.getId(), updatedManufacturer));
+                } else {
+                    manufacturers.add(presentManufacturer);
+                }
+            }
+            if (!entries.isEmpty()) {
+                fileManager.persistAll(entries, manufacturersById.values());
+            }
+            return updated;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes manufacturers from the repository by their IDs as a single change with a single persistence write.
+     *
+     * @param ids The IDs of the manufacturers to remove.
+     * @return A list of the removed manufacturers, in the order of the IDs.
+     */
+    @Override
+    public List<Manufacturer> removeAll(Collection<Long> ids) {
+        writeLock.lock();
+        try {
+            List<Manufacturer> removed = new ArrayList<>();
+            List<JournalEntry<Manufacturer>> entries = new ArrayList<>();
+            for (Long id : ids) {
+                Manufacturer removedManufacturer = manufacturersById.remove(id);
+                if (removedManufacturer != null) {
+                    manufacturers.remove(removedManufacturer);
+                    countryIndex.remove(removedManufacturer);
+                    removed.add(removedManufacturer);
+                    entries.add(JournalEntry.remove(id));
+                }
+            }
+            if (entries.isEmpty()) {
+                return removed;
+            }
+            fileManager.persistAll(entries, manufacturersById.values());
+            return removed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Runs operations on the repository as a batch, so the manufacturers they change are written to the file
+     * together when it ends.
+     *
+     * @param operations The operations changing the repository.
+     * @param <R>        The type of the result.
+     * @return The result of the operations.
+     */
+    @Override
+    public <R> R batch(Supplier<R> operations) {
+        return fileManager.batch(operations);
     }
 
     /**
@@ -104,9 +305,7 @@ public class InMemoryManufacturerRepository implements ManufacturerRepository {
      */
     @Override
     public List<Manufacturer> getAll() {
-        return manufacturers.stream()
-                .map(Manufacturer::clone)
-                .toList();
+        return List.copyOf(manufacturersById.values());
     }
 
     /**
@@ -118,10 +317,19 @@ public class InMemoryManufacturerRepository implements ManufacturerRepository {
      */
     @Override
     public Optional<Manufacturer> getById(Long id) {
-        return manufacturers.stream()
-                .filter(manufacturer -> manufacturer.getId() == id)
-                .map(Manufacturer::clone)
-                .findFirst();
+        return Optional.ofNullable(manufacturersById.get(id));
+    }
+
+    /**
+     * Retrieves a page of manufacturers in ascending order of IDs, starting after the specified ID.
+     *
+     * @param afterId The ID after which the page starts.
+     * @param limit   The maximum number of manufacturers in the page.
+     * @return A list of at most limit manufacturers.
+     */
+    @Override
+    public List<Manufacturer> getPage(Long afterId, int limit) {
+        return Pages.of(manufacturersById, afterId, limit);
     }
 
     /**
@@ -132,21 +340,47 @@ public class InMemoryManufacturerRepository implements ManufacturerRepository {
      */
     @Override
     public List<Manufacturer> getByCountry(String country) {
-        return manufacturers.stream()
-                .filter(manufacturer -> manufacturer.getCountry().equals(country))
-                .map(Manufacturer::clone)
-                .collect(Collectors.toList());
+        return countryIndex.get(country);
+    }
+
+    /**
+     * Retrieves the distinct countries of the manufacturers from the country dictionary.
+     *
+     * @return A list of countries in alphabetical order.
+     */
+    @Override
+    public List<String> getCountries() {
+        return countryIndex.getCountries();
+    }
+
+    /**
+     * Freezes a manufacturer after replacing its country with the instance of the country dictionary.
+     *
+     * @param manufacturer The manufacturer to store.
+     */
+    private void freeze(Manufacturer manufacturer) {
+        manufacturer.setCountry(countryIndex.canonical(manufacturer.getCountry()));
+        manufacturer.freeze();
+    }
+
+    /**
+     * Adds a stored manufacturer to the ID index and the country index.
+     *
+     * @param manufacturer The stored manufacturer.
+     */
+    private void index(Manufacturer manufacturer) {
+        manufacturersById.put(manufacturer.getId(), manufacturer);
+        countryIndex.add(manufacturer);
     }
 
     /**
-     * Retrieves the next available ID for a manufacturer.
+     * Replaces a stored manufacturer in the ID index and the country index.
      *
-     * @return The next available ID.
+     * @param presentManufacturer The replaced manufacturer.
+     * @param updatedManufacturer The stored manufacturer.
      */
-    private long getNextId() {
-        return manufacturers.stream()
-                .map(Manufacturer::getId)
-                .max(Long::compareTo)
-                .orElse(0L) + 1;
+    private void reindex(Manufacturer presentManufacturer, Manufacturer updatedManufacturer) {
+        manufacturersById.put(updatedManufacturer.getId(), updatedManufacturer);
+        countryIndex.update(presentManufacturer, updatedManufacturer);
     }
-}
\ No newline at end of file
+}
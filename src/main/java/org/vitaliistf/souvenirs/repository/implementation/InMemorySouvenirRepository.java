@@ -2,23 +2,53 @@ package org.vitaliistf.souvenirs.repository.implementation;
 
 import org.vitaliistf.souvenirs.config.ConfigReader;
 import org.vitaliistf.souvenirs.filemanager.FileManager;
+import org.vitaliistf.souvenirs.filemanager.JournalEntry;
+import org.vitaliistf.souvenirs.filemanager.codec.SouvenirCodec;
 import org.vitaliistf.souvenirs.model.Souvenir;
 import org.vitaliistf.souvenirs.repository.SouvenirRepository;
+import org.vitaliistf.souvenirs.repository.index.Index;
+import org.vitaliistf.souvenirs.repository.index.ManufacturerIdIndex;
+import org.vitaliistf.souvenirs.repository.index.MaxPriceIndex;
+import org.vitaliistf.souvenirs.repository.index.NameIndex;
+import org.vitaliistf.souvenirs.repository.index.PriceIndex;
+import org.vitaliistf.souvenirs.repository.index.ProductionDateIndex;
+import org.vitaliistf.souvenirs.repository.sequence.IdSequence;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 /**
  * An implementation of the SouvenirRepository interface that stores souvenirs in memory.
+ * Souvenirs are kept in a set, which guarantees uniqueness, and are indexed by ID in a sorted map,
+ * which serves both lookups and pages in the order of IDs.
+ * Secondary indexes are updated on every change of the set.
+ * Stored souvenirs are frozen, so they are returned to callers without copying.
+ * The repository is thread-safe: reads are lock-free and observe every completed change,
+ * while changes are serialized by a write lock, so each of them is applied and persisted atomically.
  * (Usage of "Singleton" design pattern.)
  */
 public class InMemorySouvenirRepository implements SouvenirRepository {
 
     private final FileManager<Souvenir> fileManager;
     private final Set<Souvenir> souvenirs;
-    private static InMemorySouvenirRepository instance;
+    private final NavigableMap<Long, Souvenir> souvenirsById;
+    private final IdSequence idSequence;
+    private final ManufacturerIdIndex manufacturerIdIndex;
+    private final NameIndex nameIndex;
+    private final MaxPriceIndex maxPriceIndex;
+    private final PriceIndex priceIndex;
+    private final ProductionDateIndex productionDateIndex;
+    private final List<Index<Souvenir>> indexes;
+    private final Lock writeLock = new ReentrantLock();
+    private static volatile InMemorySouvenirRepository instance;
 
     /**
      * Constructs a new InMemorySouvenirRepository instance.
@@ -26,10 +56,34 @@ public class InMemorySouvenirRepository implements SouvenirRepository {
      * @throws RuntimeException If an error occurs while reading the file path from the properties file.
      */
     private InMemorySouvenirRepository() {
-        this.fileManager = new FileManager<>(ConfigReader.getProperty("souvenirs.file-path").orElseThrow(
-                    () -> new RuntimeException("Souvenirs file path is not specified in application.properties.")));
+        this(FileManager.configured(ConfigReader.getProperty("souvenirs.file-path").orElseThrow(
+                    () -> new RuntimeException("Souvenirs file path is not specified in application.properties.")),
+                new SouvenirCodec(),
+                Souvenir::getId));
+    }
 
-        this.souvenirs = fileManager.loadFromFile();
+    /**
+     * Constructs a new InMemorySouvenirRepository instance, independent of the singleton instance,
+     * that loads and persists souvenirs with the specified file manager.
+     *
+     * @param fileManager The file manager for souvenirs.
+     */
+    public InMemorySouvenirRepository(FileManager<Souvenir> fileManager) {
+        this.fileManager = fileManager;
+        Set<Souvenir> loadedSouvenirs = fileManager.loadFromFile();
+        loadedSouvenirs.forEach(Souvenir::freeze);
+        this.souvenirs = ConcurrentHashMap.newKeySet(loadedSouvenirs.size());
+        this.souvenirs.addAll(loadedSouvenirs);
+        this.souvenirsById = new ConcurrentSkipListMap<>();
+        this.manufacturerIdIndex = new ManufacturerIdIndex();
+        this.nameIndex = new NameIndex();
+        this.maxPriceIndex = new MaxPriceIndex();
+        this.priceIndex = new PriceIndex();
+        this.productionDateIndex = new ProductionDateIndex();
+        this.indexes = List.of(manufacturerIdIndex, nameIndex, maxPriceIndex, priceIndex, productionDateIndex);
+        souvenirs.forEach(this::index);
+        this.idSequence = IdSequence.seededFrom(LongStream.concat(LongStream.of(fileManager.getLastId()),
+                souvenirsById.keySet().stream().mapToLong(Long::longValue)));
     }
 
     /**
@@ -38,10 +92,17 @@ public class InMemorySouvenirRepository implements SouvenirRepository {
      * @return The singleton instance of InMemorySouvenirRepository.
      */
     public static InMemorySouvenirRepository getInstance() {
-        if (instance == null) {
-            instance = new InMemorySouvenirRepository();
+        InMemorySouvenirRepository result = instance;
+        if (result == null) {
+            synchronized (InMemorySouvenirRepository.class) {
+                result = instance;
+                if (result == null) {
+                    result = new InMemorySouvenirRepository();
+                    instance = result;
+                }
+            }
         }
-        return instance;
+        return result;
     }
 
     /**
@@ -53,12 +114,60 @@ public class InMemorySouvenirRepository implements SouvenirRepository {
     @Override
     public boolean add(Souvenir souvenir) {
         souvenir = souvenir.clone();
-        souvenir.setId(getNextId());
-        boolean result = souvenirs.add(souvenir);
-        if (result) {
-            fileManager.saveToFile(souvenirs);
+        writeLock.lock();
+        try {
+            // The ID is allocated only for new souvenirs, so rejected duplicates do not leave gaps in the sequence
+            if (souvenirs.contains(souvenir)) {
+                return false;
+            }
+            souvenir.setId(idSequence.next());
+            souvenir.freeze();
+            souvenirs.add(souvenir);
+            index(souvenir);
+            fileManager.persist(JournalEntry.add(souvenir.getId(), souvenir), souvenirsById.values());
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds souvenirs to the repository as a single change with a single persistence write.
+     * Their IDs are allocated as one block, and souvenirs that are already present,
+     * or present earlier in the collection, are skipped.
+     *
+     * @param newSouvenirs The souvenirs to add.
+     * @return A list of the added souvenirs with their IDs, in the order of the collection.
+     */
+    @Override
+    public List<Souvenir> addAll(Collection<Souvenir> newSouvenirs) {
+        List<Souvenir> copies = new ArrayList<>(newSouvenirs.size());
+        newSouvenirs.forEach(souvenir -> copies.add(souvenir.clone()));
+        writeLock.lock();
+        try {
+            Set<Souvenir> accepted = LinkedHashSet.newLinkedHashSet(copies.size());
+            for (Souvenir souvenir : copies) {
+                if (!souvenirs.contains(souvenir)) {
+                    accepted.add(souvenir);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return List.of();
+            }
+            long id = idSequence.nextBlock(accepted.size());
+            List<JournalEntry<Souvenir>> entries = new ArrayList<>(accepted.size());
+            for (Souvenir souvenir : accepted) {
+                souvenir.setId(id++);
+                souvenir.freeze();
+                souvenirs.add(souvenir);
+                index(souvenir);
+                entries.add(JournalEntry.add(souvenir.getId(), souvenir));
+            }
+            fileManager.persistAll(entries, souvenirsById.values());
+            return List.copyOf(accepted);
+        } finally {
+            writeLock.unlock();
         }
-        return result;
     }
 
     /**
@@ -69,16 +178,26 @@ public class InMemorySouvenirRepository implements SouvenirRepository {
      */
     @Override
     public boolean update(Souvenir updatedSouvenir) {
-        updatedSouvenir = updatedSouvenir.clone();
-        // If souvenir with such data is present - reverting repository to its state before deletion
-        Optional<Souvenir> presentSouvenir = getById(updatedSouvenir.getId());
-        if (remove(updatedSouvenir.getId()) && souvenirs.add(updatedSouvenir)) {
-            fileManager.saveToFile(souvenirs);
-            return true;
-        } else {
-            presentSouvenir.ifPresent(souvenirs::add);
+        updatedSouvenir = updatedSouvenir.clone().freeze();
+        writeLock.lock();
+        try {
+            Souvenir presentSouvenir = souvenirsById.get(updatedSouvenir.getId());
+            if (presentSouvenir == null) {
+                return false;
+            }
+            souvenirs.remove(presentSouvenir);
+            if (souvenirs.add(updatedSouvenir)) {
+                reindex(presentSouvenir, updatedSouvenir);
+                fileManager.persist(JournalEntry.update(updatedSouvenir.getId(), updatedSouvenir),
+                        souvenirsById.values());
+                return true;
+            }
+            // If souvenir with such data is present - reverting repository to its state before deletion
+            souvenirs.add(presentSouvenir);
+            return false;
+        } finally {
+            writeLock.unlock();
         }
-        return false;
     }
 
     /**
@@ -89,11 +208,103 @@ public class InMemorySouvenirRepository implements SouvenirRepository {
      */
     @Override
     public boolean remove(Long id) {
-        boolean result = souvenirs.removeIf(s -> s.getId() == id);
-        if (result) {
-            fileManager.saveToFile(souvenirs);
+        writeLock.lock();
+        try {
+            Souvenir removedSouvenir = souvenirsById.get(id);
+            if (removedSouvenir == null) {
+                return false;
+            }
+            souvenirs.remove(removedSouvenir);
+            unindex(removedSouvenir);
+            fileManager.persist(JournalEntry.remove(id), souvenirsById.values());
+            return true;
+        } finally {
+            writeLock.unlock();
         }
-        return result;
+    }
+
+    /**
+     * Updates souvenirs in the repository as a single change with a single persistence write.
+     * The souvenirs are applied in the order of the collection, each like a single update,
+     * so souvenirs that are not stored, or would become equal to another stored souvenir, are skipped.
+     *
+     * @param updatedSouvenirs The updated souvenirs.
+     * @return A list of the updated souvenirs, in the order of the collection.
+     */
+    @Override
+    public List<Souvenir> updateAll(Collection<Souvenir> updatedSouvenirs) {
+        List<Souvenir> copies = new ArrayList<>(updatedSouvenirs.size());
+        updatedSouvenirs.forEach(souvenir -> copies.add(souvenir.clone().freeze()));
+        writeLock.lock();
+        try {
+            List<Souvenir> updated = new ArrayList<>();
+            List<JournalEntry<Souvenir>> entries = new ArrayList<>();
+            for (Souvenir updatedSouvenir : copies) {
+                Souvenir presentSouvenir = souvenirsById.get(updatedSouvenir.getId());
+                if (presentSouvenir == null) {
+                    continue;
+                }
+                souvenirs.remove(presentSouvenir);
+                if (souvenirs.add(updatedSouvenir)) {
+                    reindex(presentSouvenir, updatedSouvenir);
+                    updated.add(updatedSouvenir);
+                    entries.add(JournalEntry.update(updatedSouvenir.getId(), updatedSouvenir));
+                } else {
+                    souvenirs.add(presentSouvenir);
+                }
+            }
+            if (!entries.isEmpty()) {
+                fileManager.persistAll(entries, souvenirsById.values());
+            }
+            return updated;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Removes souvenirs from the repository by their IDs as a single change with a single persistence write.
+     * The secondary indexes drop all of the souvenirs at once.
+     *
+     * @param ids The IDs of the souvenirs to remove.
+     * @return A list of the removed souvenirs, in the order of the IDs.
+     */
+    @Override
+    public List<Souvenir> removeAll(Collection<Long> ids) {
+        writeLock.lock();
+        try {
+            List<Souvenir> removed = new ArrayList<>();
+            List<JournalEntry<Souvenir>> entries = new ArrayList<>();
+            for (Long id : ids) {
+                Souvenir removedSouvenir = souvenirsById.remove(id);
+                if (removedSouvenir != null) {
+                    souvenirs.remove(removedSouvenir);
+                    removed.add(removedSouvenir);
+                    entries.add(JournalEntry.remove(id));
+                }
+            }
+            if (removed.isEmpty()) {
+                return removed;
+            }
+            indexes.forEach(index -> index.removeAll(removed));
+            fileManager.persistAll(entries, souvenirsById.values());
+            return removed;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Runs operations on the repository as a batch, so the souvenirs they change are written to the file
+     * together when it ends.
+     *
+     * @param operations The operations changing the repository.
+     * @param <R>        The type of the result.
+     * @return The result of the operations.
+     */
+    @Override
+    public <R> R batch(Supplier<R> operations) {
+        return fileManager.batch(operations);
     }
 
     /**
@@ -103,9 +314,7 @@ public class InMemorySouvenirRepository implements SouvenirRepository {
      */
     @Override
     public List<Souvenir> getAll() {
-        return souvenirs.stream()
-                .map(Souvenir::clone)
-                .toList();
+        return List.copyOf(souvenirsById.values());
     }
 
     /**
@@ -116,10 +325,19 @@ public class InMemorySouvenirRepository implements SouvenirRepository {
      */
     @Override
     public Optional<Souvenir> getById(Long id) {
-        return souvenirs.stream()
-                .filter(souvenir -> souvenir.getId() == id)
-                .map(Souvenir::clone)
-                .findFirst();
+        return Optional.ofNullable(souvenirsById.get(id));
+    }
+
+    /**
+     * Retrieves a page of souvenirs in ascending order of IDs, starting after the specified ID.
+     *
+     * @param afterId The ID after which the page starts.
+     * @param limit   The maximum number of souvenirs in the page.
+     * @return A list of at most limit souvenirs.
+     */
+    @Override
+    public List<Souvenir> getPage(Long afterId, int limit) {
+        return Pages.of(souvenirsById, afterId, limit);
     }
 
     /**
@@ -130,10 +348,21 @@ public class InMemorySouvenirRepository implements SouvenirRepository {
      */
     @Override
     public List<Souvenir> getByName(String name) {
-        return souvenirs.stream()
-                .filter(souvenir -> souvenir.getName().equals(name))
-                .map(Souvenir::clone)
-                .collect(Collectors.toList());
+        return nameIndex.get(name);
+    }
+
+    /**
+     * Retrieves souvenirs whose name starts with the specified prefix, ignoring case.
+     * Only the names starting with the prefix are visited in the name index.
+     *
+     * @param prefix The prefix of names.
+     * @param limit  The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs, ordered by name and then by ID.
+     */
+    @Override
+    public List<Souvenir> findByNamePrefix(String prefix, int limit) {
+        Pages.checkLimit(limit);
+        return nameIndex.getByPrefix(prefix, limit);
     }
 
     /**
@@ -144,21 +373,150 @@ public class InMemorySouvenirRepository implements SouvenirRepository {
      */
     @Override
     public List<Souvenir> getByManufacturerId(Long manufacturerId) {
-        return souvenirs.stream()
-                .filter(souvenir -> souvenir.getManufacturerId() == manufacturerId)
-                .map(Souvenir::clone)
+        return manufacturerIdIndex.get(manufacturerId).stream()
+                .map(souvenirsById::get)
+                // A souvenir may be removed concurrently after its ID was read from the index
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
     /**
-     * Retrieves the next available ID for a souvenir.
+     * Retrieves souvenirs of the specified manufacturers, grouped by manufacturer ID.
+     *
+     * @param manufacturerIds The IDs of the manufacturers.
+     * @return A map where each requested manufacturer ID is mapped to the list of its souvenirs.
+     */
+    @Override
+    public Map<Long, List<Souvenir>> getByManufacturerIds(Collection<Long> manufacturerIds) {
+        Map<Long, List<Souvenir>> result = HashMap.newHashMap(manufacturerIds.size());
+        manufacturerIds.forEach(manufacturerId -> result.put(manufacturerId, getByManufacturerId(manufacturerId)));
+        return result;
+    }
+
+    /**
+     * Retrieves the IDs of manufacturers having at least one souvenir priced above the specified price.
+     *
+     * @param price The price.
+     * @return A set of manufacturer IDs.
+     */
+    @Override
+    public Set<Long> getManufacturerIdsWithPriceAbove(double price) {
+        return maxPriceIndex.getAbove(price);
+    }
+
+    /**
+     * Retrieves souvenirs priced in the specified range from the price index.
+     *
+     * @param minPrice The lowest price, inclusive.
+     * @param maxPrice The highest price, inclusive.
+     * @return A list of souvenirs in ascending order of prices.
+     */
+    @Override
+    public List<Souvenir> getByPriceRange(double minPrice, double maxPrice) {
+        return priceIndex.getBetween(minPrice, maxPrice);
+    }
+
+    /**
+     * Retrieves the cheapest souvenirs from the low end of the price index.
+     *
+     * @param limit The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs in ascending order of prices.
+     */
+    @Override
+    public List<Souvenir> getCheapest(int limit) {
+        Pages.checkLimit(limit);
+        return priceIndex.getCheapest(limit);
+    }
+
+    /**
+     * Retrieves the most expensive souvenirs from the high end of the price index.
+     *
+     * @param limit The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs in descending order of prices.
+     */
+    @Override
+    public List<Souvenir> getMostExpensive(int limit) {
+        Pages.checkLimit(limit);
+        return priceIndex.getMostExpensive(limit);
+    }
+
+    /**
+     * Retrieves souvenirs produced in the specified range of years, grouped by year.
+     *
+     * @param fromYear The first year of the range, inclusive.
+     * @param toYear   The last year of the range, inclusive.
+     * @return A read-only map of years to souvenirs produced in them.
+     */
+    @Override
+    public Map<Integer, List<Souvenir>> getByProductionYears(int fromYear, int toYear) {
+        return productionDateIndex.get(fromYear, toYear);
+    }
+
+    /**
+     * Retrieves souvenirs produced in the specified time window from the production date index.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A list of souvenirs in ascending order of production dates.
+     */
+    @Override
+    public List<Souvenir> getByProductionDates(LocalDate from, LocalDate to) {
+        return productionDateIndex.get(from, to);
+    }
+
+    /**
+     * Counts souvenirs produced in the specified time window per month from the production date index.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A read-only map of months to the numbers of souvenirs produced in them.
+     */
+    @Override
+    public Map<YearMonth, Long> countByProductionMonth(LocalDate from, LocalDate to) {
+        return productionDateIndex.countByMonth(from, to);
+    }
+
+    /**
+     * Counts souvenirs produced in the specified time window per year from the production date index.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A read-only map of years to the numbers of souvenirs produced in them.
+     */
+    @Override
+    public Map<Integer, Long> countByProductionYear(LocalDate from, LocalDate to) {
+        return productionDateIndex.countByYear(from, to);
+    }
+
+    /**
+     * Adds a stored souvenir to the ID index and secondary indexes.
+     *
+     * @param souvenir The stored souvenir.
+     */
+    private void index(Souvenir souvenir) {
+        souvenirsById.put(souvenir.getId(), souvenir);
+        indexes.forEach(index -> index.add(souvenir));
+    }
+
+    /**
+     * Replaces a stored souvenir in the ID index and secondary indexes.
+     * The entries are replaced in place, so concurrent lookups never miss the souvenir.
+     *
+     * @param presentSouvenir The replaced souvenir.
+     * @param updatedSouvenir The stored souvenir.
+     */
+    private void reindex(Souvenir presentSouvenir, Souvenir updatedSouvenir) {
+        souvenirsById.put(updatedSouvenir.getId(), updatedSouvenir);
+        indexes.forEach(index -> index.update(presentSouvenir, updatedSouvenir));
+    }
+
+    /**
+     * Removes a dropped souvenir from the ID index and secondary indexes.
      *
-     * @return The next available ID.
+     * @param souvenir The dropped souvenir.
      */
-    private long getNextId() {
-        return souvenirs.stream()
-                .map(Souvenir::getId)
-                .max(Long::compareTo)
-                .orElse(0L) + 1;
+    private void unindex(Souvenir souvenir) {
+        souvenirsById.remove(souvenir.getId());
+        indexes.forEach(index -> index.remove(souvenir));
     }
 }
\ No newline at end of file
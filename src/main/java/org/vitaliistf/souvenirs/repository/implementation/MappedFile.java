@@ -0,0 +1,84 @@
+package org.vitaliistf.souvenirs.repository.implementation;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * File mapped into memory that grows on demand.
+ * Growing the file maps it again, so buffers obtained earlier must not be used afterwards.
+ */
+final class MappedFile implements Closeable {
+
+    private static final long MAX_SIZE = Integer.MAX_VALUE;
+
+    private final Path path;
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    /**
+     * Opens or creates a mapped file.
+     *
+     * @param path        The path of the file.
+     * @param initialSize The minimum size of the mapping in bytes.
+     * @throws IOException If the file cannot be opened or mapped.
+     */
+    MappedFile(Path path, long initialSize) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        map(Math.max(channel.size(), initialSize));
+    }
+
+    /**
+     * Retrieves the buffer the file is mapped to.
+     *
+     * @return The mapped buffer, valid until the file grows.
+     */
+    MappedByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * Grows the file, so it holds at least the specified number of bytes.
+     * The size is at least doubled, so a sequence of appends is remapped a logarithmic number of times.
+     *
+     * @param size The required size in bytes.
+     * @throws IOException           If the file cannot be mapped.
+     * @throws IllegalStateException If the required size exceeds the size of a single mapping.
+     */
+    void ensureCapacity(long size) throws IOException {
+        if (size <= buffer.capacity()) {
+            return;
+        }
+        if (size > MAX_SIZE) {
+            throw new IllegalStateException(path + " cannot grow beyond " + MAX_SIZE + " bytes.");
+        }
+        map(Math.min(MAX_SIZE, Math.max(size, 2L * buffer.capacity())));
+    }
+
+    /**
+     * Writes changes of the mapped buffer to the storage device.
+     */
+    void force() {
+        buffer.force();
+    }
+
+    /**
+     * Writes changes to the storage device and closes the file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+
+    private void map(long size) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+    }
+}
@@ -0,0 +1,1194 @@
+package org.vitaliistf.souvenirs.repository.implementation;
+
+import org.vitaliistf.souvenirs.model.Souvenir;
+import org.vitaliistf.souvenirs.repository.SouvenirRepository;
+import org.vitaliistf.souvenirs.repository.sequence.IdSequence;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+/**
+ * An implementation of the SouvenirRepository interface that stores souvenirs in memory-mapped column files.
+ * Every field is kept in its own column indexed by row: IDs, manufacturer IDs, production dates as epoch days,
+ * prices, and offsets of names in a heap of length-prefixed UTF-8 strings. A file mapping rows by ID serves
+ * lookups by ID. The rows of a removed souvenir are filled with the last row, so the columns stay dense.
+ * Souvenir objects are created only for query results, and scans, such as queries by production year, run over
+ * the columns, so the heap holds only the row numbers and the maximum price of every manufacturer, and opening
+ * the repository does not deserialize any souvenir.
+ * Unlike in the in-memory repository, names are not indexed: autocompletion by name prefix scans and decodes
+ * every name, so it takes time linear in the number of souvenirs rather than in the number of matches.
+ * Prices are not indexed either: queries by price range and for the cheapest or most expensive souvenirs scan
+ * the price column, although only the returned souvenirs are created.
+ * The name heap is mapped as a single buffer, so it holds at most {@link Integer#MAX_VALUE} bytes of names;
+ * adding or renaming a souvenir beyond that fails with an {@link IllegalStateException} and leaves it unchanged.
+ * The name heap is compacted into temporary files that replace the heap and the name offsets by atomic renames,
+ * so a compaction interrupted by a crash is either discarded or finished when the repository is opened again.
+ * Changes are written back to the files by the operating system; {@link #flush()} forces them to the storage device.
+ * Queries run concurrently, while changes are serialized by a read-write lock.
+ */
+public class MappedSouvenirRepository implements SouvenirRepository, Closeable {
+
+    // Magic number ("SVNM") identifying the metadata file
+    private static final int MAGIC = 0x53564E4D;
+    private static final int VERSION = 1;
+
+    private static final int META_MAGIC = 0;
+    private static final int META_VERSION = 4;
+    private static final int META_ROW_COUNT = 8;
+    private static final int META_HEAP_SIZE = 16;
+    private static final int META_GARBAGE_SIZE = 24;
+    // Metadata files written before the last ID was recorded read 0 there, so it is recomputed from the rows
+    private static final int META_LAST_ID = 32;
+    private static final int META_SIZE = 40;
+
+    private static final String NAMES_FILE = "names.heap";
+    private static final String NAME_OFFSETS_FILE = "name-offsets.col";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int INITIAL_ROWS = 1024;
+    private static final int NO_DATE = Integer.MIN_VALUE;
+    private static final long MIN_COMPACTED_GARBAGE_SIZE = 1 << 20;
+    private static final long MAX_HEAP_SIZE = Integer.MAX_VALUE;
+
+    private final Path directory;
+    private final MappedFile meta;
+    private final MappedFile ids;
+    private final MappedFile manufacturerIds;
+    private final MappedFile productionDays;
+    private final MappedFile prices;
+    private MappedFile nameOffsets;
+    private final MappedFile rowsById;
+    private MappedFile names;
+    private final Map<Long, Rows> rowsByManufacturer = new HashMap<>();
+    private final Map<Long, Double> maxPrices = new HashMap<>();
+    private final NavigableMap<Double, Set<Long>> manufacturersByMaxPrice = new TreeMap<>();
+    private final IdSequence idSequence;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private int rowCount;
+    private long heapSize;
+    private long garbageSize;
+
+    /**
+     * Opens the repository stored in the specified directory, creating it if it does not exist.
+     *
+     * @param directory The directory of the column files.
+     * @throws UncheckedIOException If the files cannot be opened or belong to an unsupported version.
+     */
+    public MappedSouvenirRepository(Path directory) {
+        this.directory = directory;
+        try {
+            Files.createDirectories(directory);
+            this.meta = new MappedFile(directory.resolve("meta"), META_SIZE);
+            ByteBuffer metaBuffer = meta.buffer();
+            if (metaBuffer.getInt(META_MAGIC) == 0) {
+                metaBuffer.putInt(META_MAGIC, MAGIC);
+                metaBuffer.putInt(META_VERSION, VERSION);
+            } else if (metaBuffer.getInt(META_MAGIC) != MAGIC || metaBuffer.getInt(META_VERSION) != VERSION) {
+                throw new IOException(directory + " does not contain souvenirs in a supported format.");
+            }
+            this.rowCount = metaBuffer.getInt(META_ROW_COUNT);
+            this.heapSize = metaBuffer.getLong(META_HEAP_SIZE);
+            this.garbageSize = metaBuffer.getLong(META_GARBAGE_SIZE);
+            recoverCompaction();
+
+            this.ids = new MappedFile(directory.resolve("ids.col"), (long) INITIAL_ROWS * Long.BYTES);
+            this.manufacturerIds = new MappedFile(directory.resolve("manufacturer-ids.col"),
+                    (long) INITIAL_ROWS * Long.BYTES);
+            this.productionDays = new MappedFile(directory.resolve("production-days.col"),
+                    (long) INITIAL_ROWS * Integer.BYTES);
+            this.prices = new MappedFile(directory.resolve("prices.col"), (long) INITIAL_ROWS * Double.BYTES);
+            this.nameOffsets = new MappedFile(directory.resolve(NAME_OFFSETS_FILE), (long) INITIAL_ROWS * Long.BYTES);
+            this.rowsById = new MappedFile(directory.resolve("rows-by-id.col"), (long) INITIAL_ROWS * Integer.BYTES);
+            this.names = new MappedFile(directory.resolve(NAMES_FILE), (long) INITIAL_ROWS * 16);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        long lastId = meta.buffer().getLong(META_LAST_ID);
+        for (int row = 0; row < rowCount; row++) {
+            lastId = Math.max(lastId, id(row));
+            rowsOf(manufacturerId(row)).add(row);
+        }
+        rowsByManufacturer.keySet().forEach(this::refreshMaxPrice);
+        this.idSequence = new IdSequence(lastId);
+    }
+
+    /**
+     * Adds a souvenir to the repository.
+     *
+     * @param souvenir The souvenir to add.
+     * @return true if the souvenir was successfully added, false otherwise.
+     */
+    @Override
+    public boolean add(Souvenir souvenir) {
+        byte[] name = encode(souvenir.getName());
+        lock.writeLock().lock();
+        try {
+            if (findRow(name, souvenir.getManufacturerId(), -1) >= 0) {
+                return false;
+            }
+            long id = idSequence.next();
+            meta.buffer().putLong(META_LAST_ID, id);
+            int row = rowCount;
+            ensureRowCapacity(row + 1);
+            rowsById.ensureCapacity((id + 1) * Integer.BYTES);
+            writeRow(row, id, souvenir, name);
+            // The row count is written last, so an interrupted addition leaves no partial row
+            setRowCount(row + 1);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds souvenirs to the repository as a single change.
+     * Their IDs are allocated as one block and their rows are appended after the columns grow once.
+     * Souvenirs that are already present, or present earlier in the collection, are skipped;
+     * the names of stored souvenirs are read once per manufacturer of the added ones.
+     *
+     * @param newSouvenirs The souvenirs to add.
+     * @return A list of the added souvenirs with their IDs, in the order of the collection.
+     */
+    @Override
+    public List<Souvenir> addAll(Collection<Souvenir> newSouvenirs) {
+        lock.writeLock().lock();
+        try {
+            Map<Long, Set<String>> takenNames = new HashMap<>();
+            List<Souvenir> accepted = new ArrayList<>(newSouvenirs.size());
+            for (Souvenir souvenir : newSouvenirs) {
+                if (takenNames.computeIfAbsent(souvenir.getManufacturerId(), this::namesOf)
+                        .add(souvenir.getName())) {
+                    accepted.add(souvenir);
+                }
+            }
+            if (accepted.isEmpty()) {
+                return List.of();
+            }
+            long firstId = idSequence.nextBlock(accepted.size());
+            meta.buffer().putLong(META_LAST_ID, idSequence.last());
+            int firstRow = rowCount;
+            ensureRowCapacity(firstRow + accepted.size());
+            rowsById.ensureCapacity((firstId + accepted.size()) * Integer.BYTES);
+            List<Souvenir> added = new ArrayList<>(accepted.size());
+            for (int i = 0; i < accepted.size(); i++) {
+                Souvenir souvenir = accepted.get(i);
+                writeRow(firstRow + i, firstId + i, souvenir, encode(souvenir.getName()));
+                added.add(souvenir.toBuilder().id(firstId + i).build().freeze());
+            }
+            // The row count is written last, so an interrupted addition leaves no partial rows
+            setRowCount(firstRow + accepted.size());
+            return added;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates an existing souvenir in the repository.
+     *
+     * @param updatedSouvenir The updated souvenir.
+     * @return true if the souvenir was successfully updated, false otherwise.
+     */
+    @Override
+    public boolean update(Souvenir updatedSouvenir) {
+        byte[] name = encode(updatedSouvenir.getName());
+        lock.writeLock().lock();
+        try {
+            Set<Long> staleMaxPrices = new HashSet<>(1);
+            if (!updateRow(updatedSouvenir, name, staleMaxPrices)) {
+                return false;
+            }
+            staleMaxPrices.forEach(this::refreshMaxPrice);
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Updates souvenirs in the repository as a single change.
+     * The souvenirs are applied in the order of the collection, each like a single update,
+     * so souvenirs that are not stored, or would become equal to another stored souvenir, are skipped.
+     * The maximum price of every affected manufacturer is recomputed once, after all of the rows are written.
+     *
+     * @param updatedSouvenirs The updated souvenirs.
+     * @return A list of the updated souvenirs, in the order of the collection.
+     */
+    @Override
+    public List<Souvenir> updateAll(Collection<Souvenir> updatedSouvenirs) {
+        List<byte[]> names = new ArrayList<>(updatedSouvenirs.size());
+        updatedSouvenirs.forEach(souvenir -> names.add(encode(souvenir.getName())));
+        lock.writeLock().lock();
+        try {
+            List<Souvenir> updated = new ArrayList<>();
+            Set<Long> staleMaxPrices = new HashSet<>();
+            Iterator<byte[]> name = names.iterator();
+            for (Souvenir updatedSouvenir : updatedSouvenirs) {
+                if (updateRow(updatedSouvenir, name.next(), staleMaxPrices)) {
+                    updated.add(updatedSouvenir.clone().freeze());
+                }
+            }
+            staleMaxPrices.forEach(this::refreshMaxPrice);
+            return updated;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a souvenir from the repository by its ID.
+     *
+     * @param id The ID of the souvenir to remove.
+     * @return true if the souvenir was successfully removed, false otherwise.
+     */
+    @Override
+    public boolean remove(Long id) {
+        lock.writeLock().lock();
+        try {
+            int row = row(id);
+            if (row < 0) {
+                return false;
+            }
+            long manufacturerId = manufacturerId(row);
+            removeFromManufacturer(manufacturerId, row);
+            if (price(row) >= maxPrices.get(manufacturerId)) {
+                refreshMaxPrice(manufacturerId);
+            }
+            setGarbageSize(garbageSize + nameSize(row));
+            int lastRow = rowCount - 1;
+            if (row != lastRow) {
+                moveRow(lastRow, row);
+            }
+            rowsById.buffer().putInt(intIndex(id), 0);
+            setRowCount(lastRow);
+            if (rowCount == 0) {
+                // No names are in use anymore, so the name heap can start over
+                setHeapSize(0);
+                setGarbageSize(0);
+            } else {
+                compactNamesIfNeeded();
+            }
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes souvenirs from the repository by their IDs as a single change.
+     * The removed rows are filled with the last remaining rows in one pass, the row lists of the affected
+     * manufacturers are rewritten once each, and their maximum prices are recomputed once,
+     * so removing all souvenirs of a manufacturer takes time linear in their number.
+     *
+     * @param ids The IDs of the souvenirs to remove.
+     * @return A list of the removed souvenirs, in the order of the IDs.
+     */
+    @Override
+    public List<Souvenir> removeAll(Collection<Long> ids) {
+        lock.writeLock().lock();
+        try {
+            List<Souvenir> removed = new ArrayList<>();
+            BitSet removedRows = new BitSet(rowCount);
+            Set<Long> affectedManufacturers = new HashSet<>();
+            Set<Long> staleMaxPrices = new HashSet<>();
+            long removedNamesSize = 0;
+            for (Long id : ids) {
+                int row = row(id);
+                if (row < 0) {
+                    continue;
+                }
+                Souvenir souvenir = souvenir(row);
+                removed.add(souvenir);
+                removedRows.set(row);
+                removedNamesSize += nameSize(row);
+                affectedManufacturers.add(souvenir.getManufacturerId());
+                if (souvenir.getPrice() >= maxPrices.get(souvenir.getManufacturerId())) {
+                    staleMaxPrices.add(souvenir.getManufacturerId());
+                }
+                rowsById.buffer().putInt(intIndex(id), 0);
+            }
+            if (removed.isEmpty()) {
+                return removed;
+            }
+            for (long manufacturerId : affectedManufacturers) {
+                Rows rows = rowsByManufacturer.get(manufacturerId);
+                rows.removeAll(removedRows);
+                if (rows.size() == 0) {
+                    rowsByManufacturer.remove(manufacturerId);
+                }
+            }
+            // Removed rows below the new row count are filled with the remaining rows above it
+            int newRowCount = rowCount - removed.size();
+            Map<Long, Map<Integer, Integer>> movedRows = new HashMap<>();
+            int source = rowCount;
+            for (int target = removedRows.nextSetBit(0); target >= 0 && target < newRowCount;
+                 target = removedRows.nextSetBit(target + 1)) {
+                source = removedRows.previousClearBit(source - 1);
+                copyRow(source, target);
+                movedRows.computeIfAbsent(manufacturerId(target), key -> new HashMap<>()).put(source, target);
+            }
+            movedRows.forEach((manufacturerId, newRows) -> rowsByManufacturer.get(manufacturerId).replaceAll(newRows));
+            staleMaxPrices.forEach(this::refreshMaxPrice);
+            setGarbageSize(garbageSize + removedNamesSize);
+            setRowCount(newRowCount);
+            if (rowCount == 0) {
+                // No names are in use anymore, so the name heap can start over
+                setHeapSize(0);
+                setGarbageSize(0);
+            } else {
+                compactNamesIfNeeded();
+            }
+            return removed;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves all souvenirs from the repository.
+     *
+     * @return A list of all souvenirs in the repository.
+     */
+    @Override
+    public List<Souvenir> getAll() {
+        lock.readLock().lock();
+        try {
+            List<Souvenir> result = new ArrayList<>(rowCount);
+            for (int row = 0; row < rowCount; row++) {
+                result.add(souvenir(row));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves a souvenir from the repository by its ID.
+     *
+     * @param id The ID of the souvenir to retrieve.
+     * @return An Optional containing the retrieved souvenir, or an empty Optional if the souvenir was not found.
+     */
+    @Override
+    public Optional<Souvenir> getById(Long id) {
+        lock.readLock().lock();
+        try {
+            int row = row(id);
+            return row < 0 ? Optional.empty() : Optional.of(souvenir(row));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves a page of souvenirs in ascending order of IDs, starting after the specified ID.
+     * IDs are looked up in the row-by-ID file one after another, so IDs of removed souvenirs are skipped.
+     *
+     * @param afterId The ID after which the page starts.
+     * @param limit   The maximum number of souvenirs in the page.
+     * @return A list of at most limit souvenirs.
+     */
+    @Override
+    public List<Souvenir> getPage(Long afterId, int limit) {
+        Pages.checkLimit(limit);
+        lock.readLock().lock();
+        try {
+            List<Souvenir> page = new ArrayList<>(Math.min(limit, rowCount));
+            long lastId = idSequence.last();
+            for (long id = Math.max(afterId, 0) + 1; id <= lastId && page.size() < limit; id++) {
+                int row = row(id);
+                if (row >= 0) {
+                    page.add(souvenir(row));
+                }
+            }
+            return page;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves all souvenirs from the repository with the specified name.
+     * The names are compared in their encoded form, so only matching souvenirs are created.
+     *
+     * @param name The name of the souvenirs to retrieve.
+     * @return A list of souvenirs with the specified name.
+     */
+    @Override
+    public List<Souvenir> getByName(String name) {
+        byte[] encodedName = encode(name);
+        lock.readLock().lock();
+        try {
+            List<Souvenir> result = new ArrayList<>();
+            for (int row = 0; row < rowCount; row++) {
+                if (nameEquals(row, encodedName)) {
+                    result.add(souvenir(row));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves souvenirs whose name starts with the specified prefix, ignoring case.
+     * The name column is scanned, as names are not indexed on the heap, so every name is decoded.
+     *
+     * @param prefix The prefix of names.
+     * @param limit  The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs, ordered by name and then by ID.
+     */
+    @Override
+    public List<Souvenir> findByNamePrefix(String prefix, int limit) {
+        Pages.checkLimit(limit);
+        String lowerCasePrefix = prefix.toLowerCase(Locale.ROOT);
+        List<Souvenir> matches = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < rowCount; row++) {
+                if (name(row).toLowerCase(Locale.ROOT).startsWith(lowerCasePrefix)) {
+                    matches.add(souvenir(row));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return matches.stream()
+                .sorted(Comparator.comparing((Souvenir souvenir) -> souvenir.getName().toLowerCase(Locale.ROOT))
+                        .thenComparingLong(Souvenir::getId))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Retrieves all souvenirs from the repository belonging to the specified manufacturer.
+     *
+     * @param manufacturerId The ID of the manufacturer.
+     * @return A list of souvenirs belonging to the specified manufacturer.
+     */
+    @Override
+    public List<Souvenir> getByManufacturerId(Long manufacturerId) {
+        lock.readLock().lock();
+        try {
+            Rows rows = rowsByManufacturer.get(manufacturerId);
+            List<Souvenir> result = new ArrayList<>(rows == null ? 0 : rows.size());
+            for (int i = 0; rows != null && i < rows.size(); i++) {
+                result.add(souvenir(rows.get(i)));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves souvenirs of the specified manufacturers, grouped by manufacturer ID.
+     *
+     * @param manufacturerIds The IDs of the manufacturers.
+     * @return A map where each requested manufacturer ID is mapped to the list of its souvenirs.
+     */
+    @Override
+    public Map<Long, List<Souvenir>> getByManufacturerIds(Collection<Long> manufacturerIds) {
+        Map<Long, List<Souvenir>> result = HashMap.newHashMap(manufacturerIds.size());
+        manufacturerIds.forEach(manufacturerId -> result.put(manufacturerId, getByManufacturerId(manufacturerId)));
+        return result;
+    }
+
+    /**
+     * Retrieves the IDs of manufacturers having at least one souvenir priced above the specified price.
+     *
+     * @param price The price.
+     * @return A set of manufacturer IDs.
+     */
+    @Override
+    public Set<Long> getManufacturerIdsWithPriceAbove(double price) {
+        lock.readLock().lock();
+        try {
+            Set<Long> result = new HashSet<>();
+            manufacturersByMaxPrice.tailMap(price, false).values().forEach(result::addAll);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retrieves souvenirs priced in the specified range.
+     * The price column is scanned, and only souvenirs priced in the range are created.
+     *
+     * @param minPrice The lowest price, inclusive.
+     * @param maxPrice The highest price, inclusive.
+     * @return A list of souvenirs in ascending order of prices and then of IDs.
+     */
+    @Override
+    public List<Souvenir> getByPriceRange(double minPrice, double maxPrice) {
+        List<Souvenir> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < rowCount; row++) {
+                double price = price(row);
+                if (price >= minPrice && price <= maxPrice) {
+                    result.add(souvenir(row));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparingDouble(Souvenir::getPrice).thenComparingLong(Souvenir::getId));
+        return result;
+    }
+
+    /**
+     * Retrieves the cheapest souvenirs.
+     * The price column is scanned keeping only the best rows so far, so only the retrieved souvenirs are created.
+     *
+     * @param limit The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs in ascending order of prices and then of IDs.
+     */
+    @Override
+    public List<Souvenir> getCheapest(int limit) {
+        Pages.checkLimit(limit);
+        return firstByPrice(Comparator.comparingDouble(this::price), limit);
+    }
+
+    /**
+     * Retrieves the most expensive souvenirs.
+     * The price column is scanned keeping only the best rows so far, so only the retrieved souvenirs are created.
+     *
+     * @param limit The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs in descending order of prices and then ascending order of IDs.
+     */
+    @Override
+    public List<Souvenir> getMostExpensive(int limit) {
+        Pages.checkLimit(limit);
+        return firstByPrice(Comparator.comparingDouble(this::price).reversed(), limit);
+    }
+
+    /**
+     * Retrieves souvenirs produced in the specified range of years, grouped by year.
+     * The production date column is scanned, and only souvenirs produced in the range are created.
+     *
+     * @param fromYear The first year of the range, inclusive.
+     * @param toYear   The last year of the range, inclusive.
+     * @return A read-only map of years in ascending order to read-only lists of souvenirs produced in them.
+     */
+    @Override
+    public Map<Integer, List<Souvenir>> getByProductionYears(int fromYear, int toYear) {
+        long fromDay = LocalDate.of(Math.max(fromYear, Year.MIN_VALUE), 1, 1).toEpochDay();
+        long toDay = LocalDate.of(Math.min(toYear, Year.MAX_VALUE), 12, 31).toEpochDay();
+        Map<Integer, List<Souvenir>> result = new TreeMap<>();
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < rowCount; row++) {
+                int epochDay = productionDays.buffer().getInt(intIndex(row));
+                if (epochDay != NO_DATE && epochDay >= fromDay && epochDay <= toDay) {
+                    Souvenir souvenir = souvenir(row);
+                    result.computeIfAbsent(souvenir.getProductionDate().getYear(), year -> new ArrayList<>())
+                            .add(souvenir);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.replaceAll((year, souvenirs) -> Collections.unmodifiableList(souvenirs));
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Retrieves souvenirs produced in the specified time window.
+     * The production date column is scanned, and only souvenirs produced in the window are created.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A list of souvenirs in ascending order of production dates and then of IDs.
+     */
+    @Override
+    public List<Souvenir> getByProductionDates(LocalDate from, LocalDate to) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        List<Souvenir> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < rowCount; row++) {
+                int epochDay = productionDays.buffer().getInt(intIndex(row));
+                if (epochDay != NO_DATE && epochDay >= fromDay && epochDay <= toDay) {
+                    result.add(souvenir(row));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        result.sort(Comparator.comparing(Souvenir::getProductionDate).thenComparingLong(Souvenir::getId));
+        return result;
+    }
+
+    /**
+     * Counts souvenirs produced in the specified time window per month.
+     * Only the production date column is scanned, no souvenirs are created.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A read-only map of months in ascending order to the numbers of souvenirs produced in them.
+     */
+    @Override
+    public Map<YearMonth, Long> countByProductionMonth(LocalDate from, LocalDate to) {
+        return countByProductionPeriod(from, to, epochDay -> YearMonth.from(LocalDate.ofEpochDay(epochDay)));
+    }
+
+    /**
+     * Counts souvenirs produced in the specified time window per year.
+     * Only the production date column is scanned, no souvenirs are created.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A read-only map of years in ascending order to the numbers of souvenirs produced in them.
+     */
+    @Override
+    public Map<Integer, Long> countByProductionYear(LocalDate from, LocalDate to) {
+        return countByProductionPeriod(from, to, epochDay -> LocalDate.ofEpochDay(epochDay).getYear());
+    }
+
+    /**
+     * Forces all changes to the storage device.
+     */
+    public void flush() {
+        lock.writeLock().lock();
+        try {
+            for (MappedFile file : files()) {
+                file.force();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Forces all changes to the storage device and closes the files.
+     * The repository must not be used afterwards.
+     *
+     * @throws IOException If a file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            for (MappedFile file : files()) {
+                file.close();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private List<MappedFile> files() {
+        return List.of(ids, manufacturerIds, productionDays, prices, nameOffsets, names, rowsById, meta);
+    }
+
+    private Souvenir souvenir(int row) {
+        int epochDay = productionDays.buffer().getInt(intIndex(row));
+        return Souvenir.builder()
+                .id(id(row))
+                .name(name(row))
+                .manufacturerId(manufacturerId(row))
+                .productionDate(epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay))
+                .price(price(row))
+                .build()
+                .freeze();
+    }
+
+    /**
+     * Retrieves the souvenirs of the first rows in the order of prices, with ties broken by ID.
+     *
+     * @param byPrice The order of rows by price.
+     * @param limit   The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs in the order of rows.
+     */
+    private List<Souvenir> firstByPrice(Comparator<Integer> byPrice, int limit) {
+        Comparator<Integer> order = byPrice.thenComparingLong(this::id);
+        lock.readLock().lock();
+        try {
+            // The head of the queue is the worst of the rows kept so far
+            PriorityQueue<Integer> rows = new PriorityQueue<>(Math.min(limit, rowCount) + 1, order.reversed());
+            for (int row = 0; row < rowCount && limit > 0; row++) {
+                if (rows.size() < limit) {
+                    rows.add(row);
+                } else if (order.compare(row, rows.peek()) < 0) {
+                    rows.poll();
+                    rows.add(row);
+                }
+            }
+            return rows.stream()
+                    .sorted(order)
+                    .map(this::souvenir)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the rows produced in a time window per period, counting each day first,
+     * so the period of a day is computed once however many souvenirs were produced on it.
+     *
+     * @param from   The first day of the window, inclusive.
+     * @param to     The last day of the window, inclusive.
+     * @param period The function mapping an epoch day to its period.
+     * @param <K>    The type of periods.
+     * @return A read-only map of periods in ascending order to the numbers of rows produced in them.
+     */
+    private <K extends Comparable<K>> Map<K, Long> countByProductionPeriod(LocalDate from, LocalDate to,
+                                                                        IntFunction<K> period) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        Map<Integer, Long> countsByDay = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < rowCount; row++) {
+                int epochDay = productionDays.buffer().getInt(intIndex(row));
+                if (epochDay != NO_DATE && epochDay >= fromDay && epochDay <= toDay) {
+                    countsByDay.merge(epochDay, 1L, Long::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Map<K, Long> result = new TreeMap<>();
+        countsByDay.forEach((epochDay, count) -> result.merge(period.apply(epochDay), count, Long::sum));
+        return Collections.unmodifiableMap(result);
+    }
+
+    private double price(int row) {
+        return prices.buffer().getDouble(longIndex(row));
+    }
+
+    private long id(int row) {
+        return ids.buffer().getLong(longIndex(row));
+    }
+
+    private long manufacturerId(int row) {
+        return manufacturerIds.buffer().getLong(longIndex(row));
+    }
+
+    private int nameOffset(int row) {
+        // appendName never grows the heap beyond MAX_HEAP_SIZE, so every offset fits in an int
+        return (int) nameOffsets.buffer().getLong(longIndex(row));
+    }
+
+    private String name(int row) {
+        int offset = nameOffset(row);
+        byte[] bytes = new byte[names.buffer().getInt(offset)];
+        names.buffer().get(offset + Integer.BYTES, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private int nameSize(int row) {
+        int offset = nameOffset(row);
+        return Integer.BYTES + names.buffer().getInt(offset);
+    }
+
+    private boolean nameEquals(int row, byte[] name) {
+        int offset = nameOffset(row);
+        int length = names.buffer().getInt(offset);
+        return length == name.length
+                && names.buffer().slice(offset + Integer.BYTES, length).mismatch(ByteBuffer.wrap(name)) < 0;
+    }
+
+    /**
+     * Writes a souvenir into a row of the columns, which must have capacity for it.
+     * The row becomes visible to queries only when the row count includes it.
+     *
+     * @param row      The row.
+     * @param id       The ID of the souvenir.
+     * @param souvenir The souvenir.
+     * @param name     The encoded name of the souvenir.
+     * @throws IOException           If the name heap cannot grow.
+     * @throws IllegalStateException If the name heap is full.
+     */
+    private void writeRow(int row, long id, Souvenir souvenir, byte[] name) throws IOException {
+        ids.buffer().putLong(longIndex(row), id);
+        manufacturerIds.buffer().putLong(longIndex(row), souvenir.getManufacturerId());
+        productionDays.buffer().putInt(intIndex(row), toEpochDay(souvenir.getProductionDate()));
+        prices.buffer().putDouble(longIndex(row), souvenir.getPrice());
+        nameOffsets.buffer().putLong(longIndex(row), appendName(name));
+        setRow(id, row);
+        rowsOf(souvenir.getManufacturerId()).add(row);
+        raiseMaxPrice(souvenir.getManufacturerId(), souvenir.getPrice());
+    }
+
+    /**
+     * Writes the updated state of a stored souvenir to its row.
+     * Maximum prices that may have dropped are not recomputed, but collected for the caller.
+     *
+     * @param updatedSouvenir The updated souvenir.
+     * @param name            The encoded name of the updated souvenir.
+     * @param staleMaxPrices  The IDs of manufacturers whose maximum price has to be recomputed.
+     * @return true if the souvenir was updated, false if it is not stored or would duplicate another souvenir.
+     * @throws IOException           If the name heap cannot grow.
+     * @throws IllegalStateException If the name heap is full.
+     */
+    private boolean updateRow(Souvenir updatedSouvenir, byte[] name, Set<Long> staleMaxPrices) throws IOException {
+        int row = row(updatedSouvenir.getId());
+        if (row < 0 || findRow(name, updatedSouvenir.getManufacturerId(), row) >= 0) {
+            return false;
+        }
+        boolean renamed = !nameEquals(row, name);
+        // The name is appended first, so a heap that cannot grow leaves the row unchanged
+        long nameOffset = renamed ? appendName(name) : 0;
+        long manufacturerId = manufacturerId(row);
+        if (manufacturerId != updatedSouvenir.getManufacturerId()) {
+            removeFromManufacturer(manufacturerId, row);
+            rowsOf(updatedSouvenir.getManufacturerId()).add(row);
+            manufacturerIds.buffer().putLong(longIndex(row), updatedSouvenir.getManufacturerId());
+        }
+        productionDays.buffer().putInt(intIndex(row), toEpochDay(updatedSouvenir.getProductionDate()));
+        prices.buffer().putDouble(longIndex(row), updatedSouvenir.getPrice());
+        staleMaxPrices.add(manufacturerId);
+        if (manufacturerId != updatedSouvenir.getManufacturerId()) {
+            raiseMaxPrice(updatedSouvenir.getManufacturerId(), updatedSouvenir.getPrice());
+        }
+        if (renamed) {
+            setGarbageSize(garbageSize + nameSize(row));
+            nameOffsets.buffer().putLong(longIndex(row), nameOffset);
+            compactNamesIfNeeded();
+        }
+        return true;
+    }
+
+    private Set<String> namesOf(long manufacturerId) {
+        Rows rows = rowsByManufacturer.get(manufacturerId);
+        Set<String> result = new HashSet<>();
+        for (int i = 0; rows != null && i < rows.size(); i++) {
+            result.add(name(rows.get(i)));
+        }
+        return result;
+    }
+
+    /**
+     * Finds the row of a souvenir with the specified natural key.
+     *
+     * @param name           The encoded name.
+     * @param manufacturerId The ID of the manufacturer.
+     * @param excludedRow    The row to skip, or -1.
+     * @return The found row, or -1 if there is no such souvenir.
+     */
+    private int findRow(byte[] name, long manufacturerId, int excludedRow) {
+        Rows rows = rowsByManufacturer.get(manufacturerId);
+        for (int i = 0; rows != null && i < rows.size(); i++) {
+            int row = rows.get(i);
+            if (row != excludedRow && nameEquals(row, name)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private int row(long id) {
+        if (id <= 0 || (id + 1) * Integer.BYTES > rowsById.buffer().capacity()) {
+            return -1;
+        }
+        // Rows are stored incremented by one, so the zeros of a newly grown file mean "no row"
+        return rowsById.buffer().getInt(intIndex(id)) - 1;
+    }
+
+    private void setRow(long id, int row) {
+        rowsById.buffer().putInt(intIndex(id), row + 1);
+    }
+
+    private Rows rowsOf(long manufacturerId) {
+        return rowsByManufacturer.computeIfAbsent(manufacturerId, key -> new Rows());
+    }
+
+    private void removeFromManufacturer(long manufacturerId, int row) {
+        Rows rows = rowsByManufacturer.get(manufacturerId);
+        rows.remove(row);
+        if (rows.size() == 0) {
+            rowsByManufacturer.remove(manufacturerId);
+        }
+    }
+
+    /**
+     * Raises the maximum price of a manufacturer after a souvenir was added to it.
+     *
+     * @param manufacturerId The ID of the manufacturer.
+     * @param price          The price of the added souvenir.
+     */
+    private void raiseMaxPrice(long manufacturerId, double price) {
+        Double maxPrice = maxPrices.get(manufacturerId);
+        if (maxPrice == null || price > maxPrice) {
+            setMaxPrice(manufacturerId, maxPrice, price);
+        }
+    }
+
+    /**
+     * Recomputes the maximum price of a manufacturer from the price column.
+     *
+     * @param manufacturerId The ID of the manufacturer.
+     */
+    private void refreshMaxPrice(long manufacturerId) {
+        Rows rows = rowsByManufacturer.get(manufacturerId);
+        Double newMaxPrice = null;
+        for (int i = 0; rows != null && i < rows.size(); i++) {
+            double price = prices.buffer().getDouble(longIndex(rows.get(i)));
+            newMaxPrice = newMaxPrice == null ? price : Math.max(newMaxPrice, price);
+        }
+        setMaxPrice(manufacturerId, maxPrices.get(manufacturerId), newMaxPrice);
+    }
+
+    private void setMaxPrice(long manufacturerId, Double maxPrice, Double newMaxPrice) {
+        if (Objects.equals(maxPrice, newMaxPrice)) {
+            return;
+        }
+        if (maxPrice != null) {
+            Set<Long> manufacturerIds = manufacturersByMaxPrice.get(maxPrice);
+            manufacturerIds.remove(manufacturerId);
+            if (manufacturerIds.isEmpty()) {
+                manufacturersByMaxPrice.remove(maxPrice);
+            }
+        }
+        if (newMaxPrice == null) {
+            maxPrices.remove(manufacturerId);
+        } else {
+            maxPrices.put(manufacturerId, newMaxPrice);
+            manufacturersByMaxPrice.computeIfAbsent(newMaxPrice, key -> new HashSet<>()).add(manufacturerId);
+        }
+    }
+
+    private void moveRow(int source, int target) {
+        copyRow(source, target);
+        rowsByManufacturer.get(manufacturerId(target)).replace(source, target);
+    }
+
+    /**
+     * Copies a row over another one and points the ID of the copied souvenir to it,
+     * leaving the row lists of manufacturers to the caller.
+     *
+     * @param source The copied row.
+     * @param target The overwritten row.
+     */
+    private void copyRow(int source, int target) {
+        long id = id(source);
+        ids.buffer().putLong(longIndex(target), id);
+        manufacturerIds.buffer().putLong(longIndex(target), manufacturerId(source));
+        productionDays.buffer().putInt(intIndex(target), productionDays.buffer().getInt(intIndex(source)));
+        prices.buffer().putDouble(longIndex(target), prices.buffer().getDouble(longIndex(source)));
+        nameOffsets.buffer().putLong(longIndex(target), nameOffsets.buffer().getLong(longIndex(source)));
+        setRow(id, target);
+    }
+
+    /**
+     * Appends a length-prefixed name to the end of the heap.
+     *
+     * @param name The encoded name.
+     * @return The offset of the name in the heap.
+     * @throws IOException           If the heap cannot grow.
+     * @throws IllegalStateException If the heap would grow beyond {@link #MAX_HEAP_SIZE} bytes.
+     */
+    private long appendName(byte[] name) throws IOException {
+        long offset = heapSize;
+        if (offset + Integer.BYTES + name.length > MAX_HEAP_SIZE) {
+            throw new IllegalStateException("Name heap in " + directory + " cannot grow beyond "
+                    + MAX_HEAP_SIZE + " bytes.");
+        }
+        names.ensureCapacity(offset + Integer.BYTES + name.length);
+        names.buffer().putInt((int) offset, name.length);
+        names.buffer().put((int) offset + Integer.BYTES, name);
+        setHeapSize(offset + Integer.BYTES + name.length);
+        return offset;
+    }
+
+    /**
+     * Rewrites the name heap without the names of removed and renamed souvenirs,
+     * once they take more than half of it.
+     * The compacted heap and name offsets are written to temporary files first; replacing the names file
+     * commits the compaction, and the name offsets are replaced after it.
+     *
+     * @throws IOException If the heap cannot be rewritten.
+     */
+    private void compactNamesIfNeeded() throws IOException {
+        if (garbageSize < MIN_COMPACTED_GARBAGE_SIZE || garbageSize * 2 < heapSize) {
+            return;
+        }
+        Path namesPath = directory.resolve(NAMES_FILE);
+        Path offsetsPath = directory.resolve(NAME_OFFSETS_FILE);
+        Path compactedNamesPath = directory.resolve(NAMES_FILE + TEMPORARY_SUFFIX);
+        Path compactedOffsetsPath = directory.resolve(NAME_OFFSETS_FILE + TEMPORARY_SUFFIX);
+        Files.deleteIfExists(compactedNamesPath);
+        Files.deleteIfExists(compactedOffsetsPath);
+        // The rows must be on disk before the compacted files referring to them replace the old ones
+        for (MappedFile file : files()) {
+            file.force();
+        }
+        long compactedSize = 0;
+        try (MappedFile compactedNames = new MappedFile(compactedNamesPath, heapSize - garbageSize);
+             MappedFile compactedOffsets = new MappedFile(compactedOffsetsPath, nameOffsets.buffer().capacity())) {
+            for (int row = 0; row < rowCount; row++) {
+                int offset = nameOffset(row);
+                int size = nameSize(row);
+                compactedNames.buffer().put((int) compactedSize, names.buffer(), offset, size);
+                compactedOffsets.buffer().putLong(longIndex(row), compactedSize);
+                compactedSize += size;
+            }
+        }
+        names.close();
+        nameOffsets.close();
+        move(compactedNamesPath, namesPath);
+        setHeapSize(compactedSize);
+        setGarbageSize(0);
+        meta.force();
+        move(compactedOffsetsPath, offsetsPath);
+        names = new MappedFile(namesPath, 0);
+        nameOffsets = new MappedFile(offsetsPath, 0);
+    }
+
+    /**
+     * Finishes or discards a compaction of the name heap interrupted by a crash.
+     * While the compacted heap is still a temporary file the old files are intact, so the temporary files are
+     * deleted; once it replaced the names file, the compacted name offsets are moved into place.
+     *
+     * @throws IOException If the temporary files cannot be deleted or moved.
+     */
+    private void recoverCompaction() throws IOException {
+        Path compactedNamesPath = directory.resolve(NAMES_FILE + TEMPORARY_SUFFIX);
+        Path compactedOffsetsPath = directory.resolve(NAME_OFFSETS_FILE + TEMPORARY_SUFFIX);
+        if (Files.exists(compactedNamesPath)) {
+            Files.delete(compactedNamesPath);
+            Files.deleteIfExists(compactedOffsetsPath);
+        } else if (Files.exists(compactedOffsetsPath)) {
+            // The compacted heap holds no garbage and was created with the exact size of the names it holds
+            setHeapSize(Files.size(directory.resolve(NAMES_FILE)));
+            setGarbageSize(0);
+            meta.force();
+            move(compactedOffsetsPath, directory.resolve(NAME_OFFSETS_FILE));
+        }
+    }
+
+    private void ensureRowCapacity(int rows) throws IOException {
+        ids.ensureCapacity((long) rows * Long.BYTES);
+        manufacturerIds.ensureCapacity((long) rows * Long.BYTES);
+        productionDays.ensureCapacity((long) rows * Integer.BYTES);
+        prices.ensureCapacity((long) rows * Double.BYTES);
+        nameOffsets.ensureCapacity((long) rows * Long.BYTES);
+    }
+
+    private void setRowCount(int rowCount) {
+        this.rowCount = rowCount;
+        meta.buffer().putInt(META_ROW_COUNT, rowCount);
+    }
+
+    private void setHeapSize(long heapSize) {
+        this.heapSize = heapSize;
+        meta.buffer().putLong(META_HEAP_SIZE, heapSize);
+    }
+
+    private void setGarbageSize(long garbageSize) {
+        this.garbageSize = garbageSize;
+        meta.buffer().putLong(META_GARBAGE_SIZE, garbageSize);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int longIndex(long row) {
+        return Math.toIntExact(row * Long.BYTES);
+    }
+
+    private static int intIndex(long row) {
+        return Math.toIntExact(row * Integer.BYTES);
+    }
+
+    private static int toEpochDay(LocalDate date) {
+        return date == null ? NO_DATE : Math.toIntExact(date.toEpochDay());
+    }
+
+    private static byte[] encode(String name) {
+        return name.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Growable list of row numbers.
+     */
+    private static final class Rows {
+
+        private int[] rows = new int[4];
+        private int size;
+
+        int size() {
+            return size;
+        }
+
+        int get(int index) {
+            return rows[index];
+        }
+
+        void add(int row) {
+            if (size == rows.length) {
+                rows = Arrays.copyOf(rows, size * 2);
+            }
+            rows[size++] = row;
+        }
+
+        void remove(int row) {
+            int index = indexOf(row);
+            rows[index] = rows[--size];
+        }
+
+        void replace(int row, int newRow) {
+            rows[indexOf(row)] = newRow;
+        }
+
+        void removeAll(BitSet removedRows) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                if (!removedRows.get(rows[i])) {
+                    rows[kept++] = rows[i];
+                }
+            }
+            size = kept;
+        }
+
+        void replaceAll(Map<Integer, Integer> newRows) {
+            for (int i = 0; i < size; i++) {
+                Integer newRow = newRows.get(rows[i]);
+                if (newRow != null) {
+                    rows[i] = newRow;
+                }
+            }
+        }
+
+        private int indexOf(int row) {
+            for (int i = 0; i < size; i++) {
+                if (rows[i] == row) {
+                    return i;
+                }
+            }
+            throw new IllegalStateException("Row " + row + " is not indexed.");
+        }
+    }
+}
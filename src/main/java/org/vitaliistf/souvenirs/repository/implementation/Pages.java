@@ -0,0 +1,48 @@
+package org.vitaliistf.souvenirs.repository.implementation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+
+/**
+ * Helper for reading pages of objects indexed by ID.
+ */
+final class Pages {
+
+    private Pages() {
+    }
+
+    /**
+     * Reads a page of objects in ascending order of IDs, starting after the specified ID.
+     *
+     * @param objectsById The objects indexed by ID.
+     * @param afterId     The ID after which the page starts.
+     * @param limit       The maximum number of objects in the page.
+     * @param <T>         The type of objects.
+     * @return A list of at most limit objects.
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    static <T> List<T> of(NavigableMap<Long, T> objectsById, long afterId, int limit) {
+        checkLimit(limit);
+        List<T> page = new ArrayList<>(Math.min(limit, 1024));
+        for (T object : objectsById.tailMap(afterId, false).values()) {
+            page.add(object);
+            if (page.size() == limit) {
+                break;
+            }
+        }
+        return page;
+    }
+
+    /**
+     * Checks that a page limit is positive.
+     *
+     * @param limit The maximum number of objects in a page.
+     * @throws IllegalArgumentException If the limit is not positive.
+     */
+    static void checkLimit(int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("Page limit must be positive.");
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.vitaliistf.souvenirs.repository.index;
+
+import org.vitaliistf.souvenirs.model.Manufacturer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Index of manufacturers by country, backed by a dictionary of countries.
+ * Every distinct country gets a small integer code on first use, and the manufacturers of a country are kept
+ * under its code. The repository stores the country instances of the dictionary in its manufacturers,
+ * so each country string is held in memory once, however many manufacturers share it.
+ * Codes are never reused, as the number of distinct countries is small.
+ * Manufacturers without a country are not indexed.
+ * Lookups are safe to run concurrently with changes of the index.
+ */
+public class CountryIndex implements Index<Manufacturer> {
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private final List<Country> countries = new CopyOnWriteArrayList<>();
+
+    /**
+     * Retrieves the dictionary instance of a country, adding the country to the dictionary if it is new.
+     * Like changes of the index, it is called only while the repository serializes its changes.
+     *
+     * @param country The country.
+     * @return The equal country string held by the dictionary, or null if the country is null.
+     */
+    public String canonical(String country) {
+        return country == null ? null : countries.get(encode(country)).name();
+    }
+
+    /**
+     * Adds a manufacturer to the index.
+     *
+     * @param manufacturer The stored manufacturer.
+     */
+    @Override
+    public void add(Manufacturer manufacturer) {
+        if (manufacturer.getCountry() != null) {
+            countries.get(encode(manufacturer.getCountry())).manufacturers().put(manufacturer.getId(), manufacturer);
+        }
+    }
+
+    /**
+     * Removes a manufacturer from the index.
+     *
+     * @param manufacturer The dropped manufacturer.
+     */
+    @Override
+    public void remove(Manufacturer manufacturer) {
+        Integer code = manufacturer.getCountry() == null ? null : codes.get(manufacturer.getCountry());
+        if (code != null) {
+            countries.get(code).manufacturers().remove(manufacturer.getId());
+        }
+    }
+
+    /**
+     * Replaces a manufacturer in the index with its updated state.
+     * A manufacturer staying in the same country is replaced in place, otherwise it is added to the new country
+     * before it is removed from the old one, so concurrent lookups never miss it.
+     *
+     * @param manufacturer        The replaced manufacturer.
+     * @param updatedManufacturer The updated manufacturer.
+     */
+    @Override
+    public void update(Manufacturer manufacturer, Manufacturer updatedManufacturer) {
+        add(updatedManufacturer);
+        if (manufacturer.getCountry() != null && (!manufacturer.getCountry().equals(updatedManufacturer.getCountry())
+                || manufacturer.getId() != updatedManufacturer.getId())) {
+            remove(manufacturer);
+        }
+    }
+
+    /**
+     * Retrieves manufacturers located in the specified country.
+     *
+     * @param country The country.
+     * @return A list of manufacturers in ascending order of IDs, empty if no manufacturer is located there.
+     */
+    public List<Manufacturer> get(String country) {
+        Integer code = codes.get(country);
+        return code == null ? List.of() : List.copyOf(countries.get(code).manufacturers().values());
+    }
+
+    /**
+     * Retrieves the countries having at least one manufacturer.
+     * Only the dictionary is read, so the cost depends on the number of countries, not of manufacturers.
+     *
+     * @return A list of distinct countries in alphabetical order.
+     */
+    public List<String> getCountries() {
+        return countries.stream()
+                .filter(country -> !country.manufacturers().isEmpty())
+                .map(Country::name)
+                .sorted()
+                .toList();
+    }
+
+    private int encode(String country) {
+        Integer code = codes.get(country);
+        if (code == null) {
+            // The entry is published before its code, so a code read by a lookup always has an entry
+            code = countries.size();
+            countries.add(new Country(country, new ConcurrentSkipListMap<>()));
+            codes.put(country, code);
+        }
+        return code;
+    }
+
+    /**
+     * Entry of the dictionary.
+     *
+     * @param name          The country.
+     * @param manufacturers The manufacturers located in the country by ID.
+     */
+    private record Country(String name, Map<Long, Manufacturer> manufacturers) {
+    }
+
+}
@@ -0,0 +1,50 @@
+package org.vitaliistf.souvenirs.repository.index;
+
+import java.util.Collection;
+
+/**
+ * Represents a secondary index maintained by a repository.
+ * The repository notifies its indexes about every object it stores or drops, so they always reflect its contents.
+ * Notifications are serialized by the repository, while queries of an index may run concurrently with them.
+ *
+ * @param <T> The type of indexed objects.
+ */
+public interface Index<T> {
+
+    /**
+     * Adds an object stored by the repository to the index.
+     *
+     * @param object The stored object.
+     */
+    void add(T object);
+
+    /**
+     * Removes an object dropped by the repository from the index.
+     *
+     * @param object The dropped object, in the state it was added in.
+     */
+    void remove(T object);
+
+    /**
+     * Removes objects dropped by the repository in a single change from the index.
+     * Implementations may override it to restructure the index once for all of the objects.
+     *
+     * @param objects The dropped objects, in the state they were added in.
+     */
+    default void removeAll(Collection<T> objects) {
+        objects.forEach(this::remove);
+    }
+
+    /**
+     * Replaces an object in the index with its updated state.
+     * Implementations should override it to keep the object visible to concurrent queries during the replacement.
+     *
+     * @param object        The replaced object, in the state it was added in.
+     * @param updatedObject The updated object.
+     */
+    default void update(T object, T updatedObject) {
+        remove(object);
+        add(updatedObject);
+    }
+
+}
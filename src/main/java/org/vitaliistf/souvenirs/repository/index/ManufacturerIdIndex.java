@@ -0,0 +1,72 @@
+package org.vitaliistf.souvenirs.repository.index;
+
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Index of souvenir IDs by manufacturer ID.
+ * Lookups are safe to run concurrently with changes of the index.
+ */
+public class ManufacturerIdIndex implements Index<Souvenir> {
+
+    private final Map<Long, Set<Long>> souvenirIds = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a souvenir to the index.
+     *
+     * @param souvenir The stored souvenir.
+     */
+    @Override
+    public void add(Souvenir souvenir) {
+        souvenirIds.computeIfAbsent(souvenir.getManufacturerId(), key -> ConcurrentHashMap.newKeySet()).add(souvenir.getId());
+    }
+
+    /**
+     * Removes a souvenir from the index.
+     *
+     * @param souvenir The dropped souvenir.
+     */
+    @Override
+    public void remove(Souvenir souvenir) {
+        Set<Long> ids = souvenirIds.get(souvenir.getManufacturerId());
+        if (ids != null) {
+            ids.remove(souvenir.getId());
+            if (ids.isEmpty()) {
+                souvenirIds.remove(souvenir.getManufacturerId());
+            }
+        }
+    }
+
+    /**
+     * Replaces a souvenir in the index with its updated state.
+     * The souvenir is added under its new manufacturer before it is removed from the old one,
+     * so concurrent lookups never miss it.
+     *
+     * @param souvenir        The replaced souvenir.
+     * @param updatedSouvenir The updated souvenir.
+     */
+    @Override
+    public void update(Souvenir souvenir, Souvenir updatedSouvenir) {
+        if (souvenir.getManufacturerId() == updatedSouvenir.getManufacturerId()
+                && souvenir.getId() == updatedSouvenir.getId()) {
+            return;
+        }
+        add(updatedSouvenir);
+        remove(souvenir);
+    }
+
+    /**
+     * Retrieves the IDs of souvenirs produced by the specified manufacturer.
+     *
+     * @param manufacturerId The ID of the manufacturer.
+     * @return A read-only set of souvenir IDs, empty if the manufacturer has no souvenirs.
+     */
+    public Set<Long> get(long manufacturerId) {
+        Set<Long> ids = souvenirIds.get(manufacturerId);
+        return ids == null ? Set.of() : Set.copyOf(ids);
+    }
+
+}
@@ -0,0 +1,145 @@
+package org.vitaliistf.souvenirs.repository.index;
+
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index of manufacturer IDs by the maximum price of their souvenirs.
+ * The prices of every manufacturer are counted, so the maximum is known after any of its souvenirs is dropped,
+ * and manufacturers are kept sorted by their maximum price, so price queries are range lookups.
+ * Lookups are safe to run concurrently with changes of the index.
+ */
+public class MaxPriceIndex implements Index<Souvenir> {
+
+    private final Map<Long, NavigableMap<Double, Integer>> pricesByManufacturer = new HashMap<>();
+    private final NavigableMap<Double, Set<Long>> manufacturersByMaxPrice = new ConcurrentSkipListMap<>();
+
+    /**
+     * Adds a souvenir to the index.
+     *
+     * @param souvenir The stored souvenir.
+     */
+    @Override
+    public void add(Souvenir souvenir) {
+        NavigableMap<Double, Integer> prices =
+                pricesByManufacturer.computeIfAbsent(souvenir.getManufacturerId(), key -> new TreeMap<>());
+        Double maxPrice = prices.isEmpty() ? null : prices.lastKey();
+        prices.merge(souvenir.getPrice(), 1, Integer::sum);
+        moveManufacturer(souvenir.getManufacturerId(), maxPrice, prices.lastKey());
+    }
+
+    /**
+     * Removes a souvenir from the index.
+     *
+     * @param souvenir The dropped souvenir.
+     */
+    @Override
+    public void remove(Souvenir souvenir) {
+        NavigableMap<Double, Integer> prices = pricesByManufacturer.get(souvenir.getManufacturerId());
+        if (prices == null || !prices.containsKey(souvenir.getPrice())) {
+            return;
+        }
+        Double maxPrice = prices.lastKey();
+        prices.computeIfPresent(souvenir.getPrice(), (price, count) -> count == 1 ? null : count - 1);
+        if (prices.isEmpty()) {
+            pricesByManufacturer.remove(souvenir.getManufacturerId());
+            moveManufacturer(souvenir.getManufacturerId(), maxPrice, null);
+        } else {
+            moveManufacturer(souvenir.getManufacturerId(), maxPrice, prices.lastKey());
+        }
+    }
+
+    /**
+     * Removes souvenirs dropped in a single change from the index.
+     * Every affected manufacturer is moved to the entry of its new maximum price once,
+     * instead of after each of its souvenirs.
+     *
+     * @param souvenirs The dropped souvenirs.
+     */
+    @Override
+    public void removeAll(Collection<Souvenir> souvenirs) {
+        Map<Long, Double> maxPrices = new HashMap<>();
+        for (Souvenir souvenir : souvenirs) {
+            NavigableMap<Double, Integer> prices = pricesByManufacturer.get(souvenir.getManufacturerId());
+            if (prices == null || !prices.containsKey(souvenir.getPrice())) {
+                continue;
+            }
+            maxPrices.putIfAbsent(souvenir.getManufacturerId(), prices.lastKey());
+            prices.computeIfPresent(souvenir.getPrice(), (price, count) -> count == 1 ? null : count - 1);
+        }
+        maxPrices.forEach((manufacturerId, maxPrice) -> {
+            NavigableMap<Double, Integer> prices = pricesByManufacturer.get(manufacturerId);
+            if (prices.isEmpty()) {
+                pricesByManufacturer.remove(manufacturerId);
+                moveManufacturer(manufacturerId, maxPrice, null);
+            } else {
+                moveManufacturer(manufacturerId, maxPrice, prices.lastKey());
+            }
+        });
+    }
+
+    /**
+     * Replaces a souvenir in the index with its updated state.
+     * The index changes only if the price or the manufacturer of the souvenir changed.
+     *
+     * @param souvenir        The replaced souvenir.
+     * @param updatedSouvenir The updated souvenir.
+     */
+    @Override
+    public void update(Souvenir souvenir, Souvenir updatedSouvenir) {
+        if (souvenir.getManufacturerId() == updatedSouvenir.getManufacturerId()
+                && souvenir.getPrice() == updatedSouvenir.getPrice()) {
+            return;
+        }
+        add(updatedSouvenir);
+        remove(souvenir);
+    }
+
+    /**
+     * Retrieves the IDs of manufacturers having at least one souvenir priced above the specified price.
+     *
+     * @param price The price.
+     * @return A set of manufacturer IDs, empty if no souvenir is more expensive.
+     */
+    public Set<Long> getAbove(double price) {
+        Set<Long> result = new HashSet<>();
+        manufacturersByMaxPrice.tailMap(price, false).values().forEach(result::addAll);
+        return result;
+    }
+
+    /**
+     * Moves a manufacturer to the entry of its new maximum price.
+     * The manufacturer is added to the new entry before it is removed from the old one,
+     * so concurrent lookups never miss it.
+     *
+     * @param manufacturerId The ID of the manufacturer.
+     * @param maxPrice       The previous maximum price, or null if the manufacturer had no souvenirs.
+     * @param newMaxPrice    The new maximum price, or null if the manufacturer has no souvenirs anymore.
+     */
+    private void moveManufacturer(long manufacturerId, Double maxPrice, Double newMaxPrice) {
+        if (maxPrice != null && maxPrice.equals(newMaxPrice)) {
+            return;
+        }
+        if (newMaxPrice != null) {
+            manufacturersByMaxPrice.computeIfAbsent(newMaxPrice, key -> ConcurrentHashMap.newKeySet())
+                    .add(manufacturerId);
+        }
+        if (maxPrice != null) {
+            Set<Long> manufacturerIds = manufacturersByMaxPrice.get(maxPrice);
+            manufacturerIds.remove(manufacturerId);
+            if (manufacturerIds.isEmpty()) {
+                manufacturersByMaxPrice.remove(maxPrice);
+            }
+        }
+    }
+
+}
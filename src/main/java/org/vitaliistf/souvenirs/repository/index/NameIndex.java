@@ -0,0 +1,118 @@
+package org.vitaliistf.souvenirs.repository.index;
+
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index of souvenirs by name.
+ * Exact names are looked up in a hash map, while prefix lookups run over a map sorted by lower-case name,
+ * so they visit only the names starting with the prefix and stop once enough souvenirs are found.
+ * Lookups are safe to run concurrently with changes of the index.
+ */
+public class NameIndex implements Index<Souvenir> {
+
+    private final Map<String, Map<Long, Souvenir>> souvenirsByName = new ConcurrentHashMap<>();
+    private final NavigableMap<String, Map<Long, Souvenir>> souvenirsByLowerCaseName = new ConcurrentSkipListMap<>();
+
+    /**
+     * Adds a souvenir to the index.
+     *
+     * @param souvenir The stored souvenir.
+     */
+    @Override
+    public void add(Souvenir souvenir) {
+        souvenirsByName.computeIfAbsent(souvenir.getName(), key -> new ConcurrentSkipListMap<>())
+                .put(souvenir.getId(), souvenir);
+        souvenirsByLowerCaseName.computeIfAbsent(lowerCase(souvenir.getName()), key -> new ConcurrentSkipListMap<>())
+                .put(souvenir.getId(), souvenir);
+    }
+
+    /**
+     * Removes a souvenir from the index.
+     *
+     * @param souvenir The dropped souvenir.
+     */
+    @Override
+    public void remove(Souvenir souvenir) {
+        remove(souvenirsByName, souvenir.getName(), souvenir.getId());
+        remove(souvenirsByLowerCaseName, lowerCase(souvenir.getName()), souvenir.getId());
+    }
+
+    /**
+     * Replaces a souvenir in the index with its updated state.
+     * The updated souvenir is added before the replaced one is removed, so concurrent lookups never miss it.
+     *
+     * @param souvenir        The replaced souvenir.
+     * @param updatedSouvenir The updated souvenir.
+     */
+    @Override
+    public void update(Souvenir souvenir, Souvenir updatedSouvenir) {
+        add(updatedSouvenir);
+        boolean sameId = souvenir.getId() == updatedSouvenir.getId();
+        if (!sameId || !souvenir.getName().equals(updatedSouvenir.getName())) {
+            remove(souvenirsByName, souvenir.getName(), souvenir.getId());
+        }
+        // A change of case only keeps the souvenir under the same lower-case name
+        if (!sameId || !lowerCase(souvenir.getName()).equals(lowerCase(updatedSouvenir.getName()))) {
+            remove(souvenirsByLowerCaseName, lowerCase(souvenir.getName()), souvenir.getId());
+        }
+    }
+
+    /**
+     * Retrieves souvenirs with the specified name.
+     *
+     * @param name The exact name.
+     * @return A list of souvenirs in ascending order of IDs, empty if no souvenir has the name.
+     */
+    public List<Souvenir> get(String name) {
+        Map<Long, Souvenir> souvenirs = souvenirsByName.get(name);
+        return souvenirs == null ? List.of() : List.copyOf(souvenirs.values());
+    }
+
+    /**
+     * Retrieves souvenirs whose name starts with the specified prefix, ignoring case.
+     *
+     * @param prefix The prefix of names.
+     * @param limit  The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs, ordered by lower-case name and then by ID.
+     */
+    public List<Souvenir> getByPrefix(String prefix, int limit) {
+        String lowerCasePrefix = lowerCase(prefix);
+        List<Souvenir> result = new ArrayList<>(Math.min(limit, 16));
+        for (Map.Entry<String, Map<Long, Souvenir>> entry
+                : souvenirsByLowerCaseName.tailMap(lowerCasePrefix, true).entrySet()) {
+            if (!entry.getKey().startsWith(lowerCasePrefix)) {
+                break;
+            }
+            for (Souvenir souvenir : entry.getValue().values()) {
+                if (result.size() == limit) {
+                    return result;
+                }
+                result.add(souvenir);
+            }
+        }
+        return result;
+    }
+
+    private static void remove(Map<String, Map<Long, Souvenir>> index, String key, long id) {
+        Map<Long, Souvenir> souvenirs = index.get(key);
+        if (souvenirs != null) {
+            souvenirs.remove(id);
+            if (souvenirs.isEmpty()) {
+                index.remove(key);
+            }
+        }
+    }
+
+    private static String lowerCase(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.vitaliistf.souvenirs.repository.index;
+
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Index of souvenirs by price.
+ * Prices are sorted, so souvenirs in a range of prices are read without visiting other prices,
+ * and the cheapest or most expensive souvenirs are read from either end of the index.
+ * Souvenirs with the same price are kept in ascending order of IDs.
+ * Lookups are safe to run concurrently with changes of the index.
+ */
+public class PriceIndex implements Index<Souvenir> {
+
+    private final NavigableMap<Double, Map<Long, Souvenir>> souvenirsByPrice = new ConcurrentSkipListMap<>();
+
+    /**
+     * Adds a souvenir to the index.
+     *
+     * @param souvenir The stored souvenir.
+     */
+    @Override
+    public void add(Souvenir souvenir) {
+        souvenirsByPrice.computeIfAbsent(souvenir.getPrice(), key -> new ConcurrentSkipListMap<>())
+                .put(souvenir.getId(), souvenir);
+    }
+
+    /**
+     * Removes a souvenir from the index.
+     *
+     * @param souvenir The dropped souvenir.
+     */
+    @Override
+    public void remove(Souvenir souvenir) {
+        Map<Long, Souvenir> souvenirs = souvenirsByPrice.get(souvenir.getPrice());
+        if (souvenirs != null) {
+            souvenirs.remove(souvenir.getId());
+            if (souvenirs.isEmpty()) {
+                souvenirsByPrice.remove(souvenir.getPrice());
+            }
+        }
+    }
+
+    /**
+     * Replaces a souvenir in the index with its updated state.
+     * A souvenir keeping its price is replaced in place, otherwise it is added to the new price
+     * before it is removed from the old one, so concurrent lookups never miss it.
+     *
+     * @param souvenir        The replaced souvenir.
+     * @param updatedSouvenir The updated souvenir.
+     */
+    @Override
+    public void update(Souvenir souvenir, Souvenir updatedSouvenir) {
+        add(updatedSouvenir);
+        if (souvenir.getPrice() != updatedSouvenir.getPrice() || souvenir.getId() != updatedSouvenir.getId()) {
+            remove(souvenir);
+        }
+    }
+
+    /**
+     * Retrieves souvenirs priced in the specified range.
+     *
+     * @param minPrice The lowest price, inclusive.
+     * @param maxPrice The highest price, inclusive.
+     * @return A list of souvenirs in ascending order of prices, empty if the range is empty.
+     */
+    public List<Souvenir> getBetween(double minPrice, double maxPrice) {
+        List<Souvenir> result = new ArrayList<>();
+        if (minPrice <= maxPrice) {
+            souvenirsByPrice.subMap(minPrice, true, maxPrice, true).values()
+                    .forEach(souvenirs -> result.addAll(souvenirs.values()));
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the cheapest souvenirs.
+     *
+     * @param limit The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs in ascending order of prices.
+     */
+    public List<Souvenir> getCheapest(int limit) {
+        return first(souvenirsByPrice, limit);
+    }
+
+    /**
+     * Retrieves the most expensive souvenirs.
+     *
+     * @param limit The maximum number of souvenirs to retrieve.
+     * @return A list of at most limit souvenirs in descending order of prices.
+     */
+    public List<Souvenir> getMostExpensive(int limit) {
+        return first(souvenirsByPrice.descendingMap(), limit);
+    }
+
+    private static List<Souvenir> first(NavigableMap<Double, Map<Long, Souvenir>> souvenirsByPrice, int limit) {
+        List<Souvenir> result = new ArrayList<>(Math.min(limit, 16));
+        for (Map<Long, Souvenir> souvenirs : souvenirsByPrice.values()) {
+            for (Souvenir souvenir : souvenirs.values()) {
+                if (result.size() == limit) {
+                    return result;
+                }
+                result.add(souvenir);
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,168 @@
+package org.vitaliistf.souvenirs.repository.index;
+
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.LongFunction;
+
+/**
+ * Index of souvenirs by production date, keyed by epoch day.
+ * Days are sorted, so souvenirs of a time window are read without visiting other days.
+ * The number of souvenirs of every day is kept up to date by changes of the index, so counts per month or year
+ * are summed from the counters of the days in the window, in time linear in the number of those days,
+ * without visiting souvenirs.
+ * Souvenirs produced on the same day are kept in ascending order of IDs.
+ * Souvenirs without a production date are not indexed.
+ * Lookups are safe to run concurrently with changes of the index.
+ */
+public class ProductionDateIndex implements Index<Souvenir> {
+
+    private final NavigableMap<Long, Map<Long, Souvenir>> souvenirsByDay = new ConcurrentSkipListMap<>();
+    private final NavigableMap<Long, Integer> countsByDay = new ConcurrentSkipListMap<>();
+
+    /**
+     * Adds a souvenir to the index.
+     *
+     * @param souvenir The stored souvenir.
+     */
+    @Override
+    public void add(Souvenir souvenir) {
+        if (souvenir.getProductionDate() == null) {
+            return;
+        }
+        long day = souvenir.getProductionDate().toEpochDay();
+        // A souvenir replaced in place is already counted
+        if (souvenirsByDay.computeIfAbsent(day, key -> new ConcurrentSkipListMap<>())
+                .put(souvenir.getId(), souvenir) == null) {
+            countsByDay.merge(day, 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Removes a souvenir from the index.
+     *
+     * @param souvenir The dropped souvenir.
+     */
+    @Override
+    public void remove(Souvenir souvenir) {
+        if (souvenir.getProductionDate() == null) {
+            return;
+        }
+        long day = souvenir.getProductionDate().toEpochDay();
+        Map<Long, Souvenir> souvenirs = souvenirsByDay.get(day);
+        if (souvenirs != null && souvenirs.remove(souvenir.getId()) != null) {
+            countsByDay.computeIfPresent(day, (key, count) -> count == 1 ? null : count - 1);
+            if (souvenirs.isEmpty()) {
+                souvenirsByDay.remove(day);
+            }
+        }
+    }
+
+    /**
+     * Replaces a souvenir in the index with its updated state.
+     * A souvenir keeping its production date is replaced in place, otherwise it is added to the new day
+     * before it is removed from the old one, so concurrent lookups never miss it.
+     *
+     * @param souvenir        The replaced souvenir.
+     * @param updatedSouvenir The updated souvenir.
+     */
+    @Override
+    public void update(Souvenir souvenir, Souvenir updatedSouvenir) {
+        add(updatedSouvenir);
+        if (souvenir.getProductionDate() != null
+                && (!souvenir.getProductionDate().equals(updatedSouvenir.getProductionDate())
+                || souvenir.getId() != updatedSouvenir.getId())) {
+            remove(souvenir);
+        }
+    }
+
+    /**
+     * Retrieves souvenirs produced in the specified range of years, grouped by year.
+     *
+     * @param fromYear The first year of the range, inclusive.
+     * @param toYear   The last year of the range, inclusive.
+     * @return A read-only map of years in ascending order to read-only lists of souvenirs produced in them.
+     */
+    public Map<Integer, List<Souvenir>> get(int fromYear, int toYear) {
+        Map<Integer, List<Souvenir>> result = new LinkedHashMap<>();
+        if (fromYear <= toYear && fromYear <= Year.MAX_VALUE && toYear >= Year.MIN_VALUE) {
+            Map<Integer, List<Souvenir>> souvenirsByYear = new TreeMap<>();
+            days(LocalDate.of(Math.max(fromYear, Year.MIN_VALUE), 1, 1),
+                    LocalDate.of(Math.min(toYear, Year.MAX_VALUE), 12, 31)).forEach((day, souvenirs) ->
+                    souvenirsByYear.computeIfAbsent(LocalDate.ofEpochDay(day).getYear(), year -> new ArrayList<>())
+                            .addAll(souvenirs.values()));
+            // The last souvenir of a day may be removed concurrently before the day itself
+            souvenirsByYear.forEach((year, souvenirs) -> {
+                if (!souvenirs.isEmpty()) {
+                    result.put(year, Collections.unmodifiableList(souvenirs));
+                }
+            });
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    /**
+     * Retrieves souvenirs produced in the specified time window.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A list of souvenirs in ascending order of production dates and then of IDs,
+     * empty if the window is empty.
+     */
+    public List<Souvenir> get(LocalDate from, LocalDate to) {
+        List<Souvenir> result = new ArrayList<>();
+        days(from, to).values().forEach(souvenirs -> result.addAll(souvenirs.values()));
+        return result;
+    }
+
+    /**
+     * Counts souvenirs produced in the specified time window per month.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A read-only map of months in ascending order to the numbers of souvenirs produced in them,
+     * without months having no souvenirs.
+     */
+    public Map<YearMonth, Long> countByMonth(LocalDate from, LocalDate to) {
+        return count(from, to, day -> YearMonth.from(LocalDate.ofEpochDay(day)));
+    }
+
+    /**
+     * Counts souvenirs produced in the specified time window per year.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A read-only map of years in ascending order to the numbers of souvenirs produced in them,
+     * without years having no souvenirs.
+     */
+    public Map<Integer, Long> countByYear(LocalDate from, LocalDate to) {
+        return count(from, to, day -> LocalDate.ofEpochDay(day).getYear());
+    }
+
+    private <K extends Comparable<K>> Map<K, Long> count(LocalDate from, LocalDate to, LongFunction<K> period) {
+        Map<K, Long> result = new TreeMap<>();
+        if (!from.isAfter(to)) {
+            countsByDay.subMap(from.toEpochDay(), true, to.toEpochDay(), true)
+                    .forEach((day, count) -> result.merge(period.apply(day), (long) count, Long::sum));
+        }
+        return Collections.unmodifiableMap(result);
+    }
+
+    private NavigableMap<Long, Map<Long, Souvenir>> days(LocalDate from, LocalDate to) {
+        if (from.isAfter(to)) {
+            return Collections.emptyNavigableMap();
+        }
+        return souvenirsByDay.subMap(from.toEpochDay(), true, to.toEpochDay(), true);
+    }
+
+}
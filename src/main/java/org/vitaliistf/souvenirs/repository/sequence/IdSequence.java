@@ -0,0 +1,75 @@
+package org.vitaliistf.souvenirs.repository.sequence;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.LongStream;
+
+/**
+ * Thread-safe generator of sequential IDs.
+ * The sequence is seeded from the last ID recorded with the persisted data, so it continues after every ID
+ * allocated before, including IDs of removed objects, which are never allocated again.
+ */
+public class IdSequence {
+
+    private final AtomicLong lastId;
+
+    /**
+     * Constructs a sequence that continues after the specified ID.
+     *
+     * @param lastId The last ID that is already in use.
+     */
+    public IdSequence(long lastId) {
+        this.lastId = new AtomicLong(lastId);
+    }
+
+    /**
+     * Creates a sequence that continues after the greatest of the specified IDs.
+     *
+     * @param ids The IDs that are already in use.
+     * @return The sequence, starting from 1 if there are no IDs.
+     */
+    public static IdSequence seededFrom(LongStream ids) {
+        return new IdSequence(ids.max().orElse(0L));
+    }
+
+    /**
+     * Allocates the next ID.
+     *
+     * @return The allocated ID.
+     */
+    public long next() {
+        return lastId.incrementAndGet();
+    }
+
+    /**
+     * Allocates a block of consecutive IDs with a single atomic operation.
+     *
+     * @param size The number of IDs to allocate.
+     * @return The first allocated ID; the block spans from it to {@code first + size - 1}.
+     * @throws IllegalArgumentException If the size is not positive.
+     */
+    public long nextBlock(int size) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("Block size must be positive.");
+        }
+        return lastId.getAndAdd(size) + 1;
+    }
+
+    /**
+     * Retrieves the last allocated ID.
+     *
+     * @return The last ID, which is 0 if no ID was allocated yet.
+     */
+    public long last() {
+        return lastId.get();
+    }
+
+    /**
+     * Restarts the sequence after the specified ID.
+     *
+     * @param lastId The last ID that is in use.
+     */
+    public void reset(long lastId) {
+        this.lastId.set(lastId);
+    }
+
+}
@@ -0,0 +1,229 @@
+package org.vitaliistf.souvenirs.service;
+
+import org.vitaliistf.souvenirs.repository.Repository;
+import org.vitaliistf.souvenirs.validation.ValidationResult;
+import org.vitaliistf.souvenirs.validation.Validator;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Import of objects from CSV files into a repository.
+ * The file is read sequentially in chunks of lines, which are parsed and validated in parallel,
+ * and the valid objects of every chunk are added with a single bulk addition, in the order of the file.
+ * Only a bounded number of chunks is in flight, so memory does not depend on the size of the file,
+ * and the whole import runs as one repository batch, so it is persisted with a single write.
+ * The first line of a file is a header. Fields are separated by commas and may be quoted with double quotes,
+ * with doubled quotes inside quoted fields; a field cannot span lines.
+ */
+final class CsvImport {
+
+    private static final int CHUNK_SIZE = 10_000;
+    private static final int MAX_REPORTED_ERRORS = 100;
+
+    private CsvImport() {
+    }
+
+    /**
+     * Imports objects from a CSV file.
+     *
+     * @param file       The CSV file.
+     * @param columns    The number of fields of every row.
+     * @param parser     The function creating an object from the fields of a row; it may be called concurrently
+     *                   and throws IllegalArgumentException if the fields are invalid.
+     * @param validator  The validator of created objects.
+     * @param repository The repository to add the objects to.
+     * @param <T>        The type of imported objects.
+     * @return The result of the import.
+     * @throws UncheckedIOException If the file cannot be read; chunks added before are kept.
+     */
+    static <T> ImportResult run(Path file, int columns, Function<String[], T> parser, Validator<T> validator,
+                                Repository<T, Long> repository) {
+        Progress progress = new Progress();
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+             BufferedReader reader = Files.newBufferedReader(file)) {
+            repository.batch(() -> {
+                Deque<Future<Chunk<T>>> inFlight = new ArrayDeque<>();
+                try {
+                    // The header is skipped
+                    int lineNumber = reader.readLine() == null ? 0 : 1;
+                    List<String> lines = new ArrayList<>(CHUNK_SIZE);
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        lineNumber++;
+                        lines.add(line);
+                        if (lines.size() == CHUNK_SIZE) {
+                            submit(executor, inFlight, lines, lineNumber - lines.size() + 1, columns, parser,
+                                    validator);
+                            lines = new ArrayList<>(CHUNK_SIZE);
+                            if (inFlight.size() >= 2 * parallelism) {
+                                commit(inFlight.removeFirst(), repository, progress);
+                            }
+                        }
+                    }
+                    if (!lines.isEmpty()) {
+                        submit(executor, inFlight, lines, lineNumber - lines.size() + 1, columns, parser, validator);
+                    }
+                    while (!inFlight.isEmpty()) {
+                        commit(inFlight.removeFirst(), repository, progress);
+                    }
+                } catch (IOException e) {
+                    inFlight.forEach(future -> future.cancel(true));
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ImportResult(progress.imported, progress.rejected, List.copyOf(progress.errors));
+    }
+
+    /**
+     * Splits a line of a CSV file into fields.
+     *
+     * @param line The line.
+     * @return The fields of the line.
+     * @throws IllegalArgumentException If a quoted field is not closed.
+     */
+    static String[] parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Quoted field is not closed.");
+        }
+        fields.add(field.toString());
+        return fields.toArray(String[]::new);
+    }
+
+    private static <T> void submit(ExecutorService executor, Deque<Future<Chunk<T>>> inFlight, List<String> lines,
+                                   int firstLineNumber, int columns, Function<String[], T> parser,
+                                   Validator<T> validator) {
+        inFlight.addLast(executor.submit(() -> parse(lines, firstLineNumber, columns, parser, validator)));
+    }
+
+    private static <T> Chunk<T> parse(List<String> lines, int firstLineNumber, int columns,
+                                      Function<String[], T> parser, Validator<T> validator) {
+        Chunk<T> chunk = new Chunk<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            int lineNumber = firstLineNumber + i;
+            String line = lines.get(i);
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                String[] fields = parseLine(line);
+                if (fields.length != columns) {
+                    chunk.errors.add(error(lineNumber, "Expected " + columns + " fields."));
+                    continue;
+                }
+                T object = parser.apply(fields);
+                ValidationResult result = validator.validate(object);
+                if (result.isSuccessful()) {
+                    chunk.objects.add(object);
+                    chunk.lineNumbers.add(lineNumber);
+                } else {
+                    chunk.errors.add(error(lineNumber, String.join(" ", result.getErrors())));
+                }
+            } catch (IllegalArgumentException e) {
+                chunk.errors.add(error(lineNumber, e.getMessage()));
+            }
+        }
+        return chunk;
+    }
+
+    private static <T> void commit(Future<Chunk<T>> future, Repository<T, Long> repository, Progress progress) {
+        Chunk<T> chunk;
+        try {
+            chunk = future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Import is interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Chunk cannot be parsed.", e.getCause());
+        }
+        chunk.errors.forEach(progress::reject);
+        List<T> added = repository.addAll(chunk.objects);
+        // The added objects keep the order of the chunk, so the skipped ones are found in a single pass
+        int addedIndex = 0;
+        for (int i = 0; i < chunk.objects.size(); i++) {
+            if (addedIndex < added.size() && added.get(addedIndex).equals(chunk.objects.get(i))) {
+                addedIndex++;
+            } else {
+                progress.reject(error(chunk.lineNumbers.get(i), "This object is already present in the system."));
+            }
+        }
+        progress.imported += added.size();
+    }
+
+    private static String error(int lineNumber, String message) {
+        return "Line " + lineNumber + ": " + message;
+    }
+
+    /**
+     * Objects and errors of a parsed chunk of lines.
+     *
+     * @param <T> The type of objects.
+     */
+    private static final class Chunk<T> {
+
+        private final List<T> objects;
+        private final List<Integer> lineNumbers;
+        private final List<String> errors = new ArrayList<>();
+
+        private Chunk(int size) {
+            this.objects = new ArrayList<>(size);
+            this.lineNumbers = new ArrayList<>(size);
+        }
+    }
+
+    /**
+     * Counters of an import, updated only by the reading thread.
+     */
+    private static final class Progress {
+
+        private int imported;
+        private int rejected;
+        private final List<String> errors = new ArrayList<>();
+
+        private void reject(String error) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(error);
+            }
+        }
+    }
+}
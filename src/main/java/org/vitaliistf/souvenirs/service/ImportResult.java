@@ -0,0 +1,22 @@
+package org.vitaliistf.souvenirs.service;
+
+import java.util.List;
+
+/**
+ * Result of an import of objects from a file.
+ *
+ * @param imported The number of imported objects.
+ * @param rejected The number of rejected rows.
+ * @param errors   The errors of the first rejected rows, each prefixed with its line number.
+ */
+public record ImportResult(int imported, int rejected, List<String> errors) {
+
+    /**
+     * Checks if every row was imported.
+     *
+     * @return True if no row was rejected, otherwise false.
+     */
+    public boolean isSuccessful() {
+        return rejected == 0;
+    }
+}
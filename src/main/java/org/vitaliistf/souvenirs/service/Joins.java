@@ -0,0 +1,107 @@
+package org.vitaliistf.souvenirs.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Join algorithms for combining objects of two repositories by a key in a single pass.
+ * Selective queries should join through a repository index, so only matching objects are read,
+ * while queries over whole repositories should use a hash join, so each side is read once.
+ */
+final class Joins {
+
+    private Joins() {
+    }
+
+    /**
+     * Groups the right objects under the left objects with equal keys using a hash join.
+     * The hash table is built over the smaller side and probed with the larger one.
+     *
+     * @param left     The left objects; each of them is present in the result.
+     * @param leftKey  The function extracting join keys of the left objects.
+     * @param right    The right objects.
+     * @param rightKey The function extracting join keys of the right objects.
+     * @param <L>      The type of left objects.
+     * @param <R>      The type of right objects.
+     * @param <K>      The type of join keys.
+     * @return A map of left objects, in their order, to lists of matching right objects, empty if none match.
+     */
+    static <L, R, K> Map<L, List<R>> hashGroupJoin(Collection<L> left, Function<L, K> leftKey,
+                                                    Collection<R> right, Function<R, K> rightKey) {
+        Map<L, List<R>> result = LinkedHashMap.newLinkedHashMap(left.size());
+        if (left.size() <= right.size()) {
+            Map<K, List<List<R>>> table = HashMap.newHashMap(left.size());
+            for (L object : left) {
+                List<R> matches = new ArrayList<>();
+                result.put(object, matches);
+                table.computeIfAbsent(leftKey.apply(object), key -> new ArrayList<>(1)).add(matches);
+            }
+            for (R object : right) {
+                List<List<R>> matches = table.get(rightKey.apply(object));
+                if (matches != null) {
+                    matches.forEach(list -> list.add(object));
+                }
+            }
+        } else {
+            Map<K, List<R>> table = HashMap.newHashMap(right.size());
+            for (R object : right) {
+                table.computeIfAbsent(rightKey.apply(object), key -> new ArrayList<>()).add(object);
+            }
+            for (L object : left) {
+                result.put(object, new ArrayList<>(table.getOrDefault(leftKey.apply(object), List.of())));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Groups the right objects under the left objects using an index of the right objects.
+     * The index is queried once with the distinct keys of the left objects.
+     *
+     * @param left    The left objects; each of them is present in the result.
+     * @param leftKey The function extracting join keys of the left objects.
+     * @param index   The index returning right objects grouped by the requested keys.
+     * @param <L>     The type of left objects.
+     * @param <R>     The type of right objects.
+     * @param <K>     The type of join keys.
+     * @return A map of left objects, in their order, to lists of matching right objects, empty if none match.
+     */
+    static <L, R, K> Map<L, List<R>> indexGroupJoin(Collection<L> left, Function<L, K> leftKey,
+                                                     Function<Collection<K>, Map<K, List<R>>> index) {
+        Set<K> keys = LinkedHashSet.newLinkedHashSet(left.size());
+        left.forEach(object -> keys.add(leftKey.apply(object)));
+        Map<K, List<R>> matches = index.apply(keys);
+        Map<L, List<R>> result = LinkedHashMap.newLinkedHashMap(left.size());
+        left.forEach(object -> result.put(object, matches.getOrDefault(leftKey.apply(object), List.of())));
+        return result;
+    }
+
+    /**
+     * Retrieves the distinct right objects referenced by the left objects using an index of the right objects.
+     * Each distinct key is looked up once, and keys without a right object are skipped.
+     *
+     * @param left    The left objects.
+     * @param leftKey The function extracting keys of the referenced right objects.
+     * @param index   The index returning the right object with the requested key.
+     * @param <L>     The type of left objects.
+     * @param <R>     The type of right objects.
+     * @param <K>     The type of join keys.
+     * @return A list of distinct referenced right objects, in the order of their first reference.
+     */
+    static <L, R, K> List<R> indexSemiJoin(Collection<L> left, Function<L, K> leftKey,
+                                           Function<K, Optional<R>> index) {
+        Set<K> keys = LinkedHashSet.newLinkedHashSet(left.size());
+        left.forEach(object -> keys.add(leftKey.apply(object)));
+        List<R> result = new ArrayList<>(keys.size());
+        keys.forEach(key -> index.apply(key).ifPresent(result::add));
+        return result;
+    }
+}
@@ -7,9 +7,12 @@ import org.vitaliistf.souvenirs.repository.SouvenirRepository;
 import org.vitaliistf.souvenirs.validation.ManufacturerValidator;
 import org.vitaliistf.souvenirs.validation.ValidationResult;
 
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 /**
  * A service class providing operations related to manufacturers.
@@ -51,6 +54,19 @@ public class ManufacturerService {
         return result;
     }
 
+    /**
+     * Imports manufacturers from a CSV file with the columns name and country.
+     * Rows are parsed and validated in parallel, and the manufacturers are added in bulk
+     * with a single persistence write.
+     *
+     * @param file The CSV file, starting with a header line.
+     * @return The result of the import, reporting rejected rows.
+     */
+    public ImportResult importManufacturers(Path file) {
+        return CsvImport.run(file, 2, fields -> new Manufacturer(fields[0].strip(), fields[1].strip()),
+                validator, manufacturerRepository);
+    }
+
     /**
      * Updates an existing manufacturer in the system.
      *
@@ -73,20 +89,44 @@ public class ManufacturerService {
 
     /**
      * Deletes a manufacturer from the system along with its associated souvenirs.
+     * The souvenirs are removed with a single bulk removal, and both changes are persisted together.
      *
      * @param manufacturerId The ID of the manufacturer to delete.
      * @return true if the manufacturer was successfully deleted, false otherwise.
      */
     public boolean deleteManufacturer(Long manufacturerId) {
-        if (manufacturerRepository.remove(manufacturerId)) {
-            souvenirRepository.getByManufacturerId(manufacturerId)
+        return batch(() -> {
+            if (!manufacturerRepository.remove(manufacturerId)) {
+                return false;
+            }
+            souvenirRepository.removeAll(souvenirRepository.getByManufacturerId(manufacturerId)
                     .stream()
                     .map(Souvenir::getId)
-                    .forEach(souvenirRepository::remove);
+                    .toList());
             return true;
-        } else {
-            return false;
-        }
+        });
+    }
+
+    /**
+     * Runs operations as a batch of changes to manufacturers and souvenirs,
+     * so the changes of both repositories are persisted together when it ends.
+     *
+     * @param operations The operations changing manufacturers and souvenirs.
+     */
+    public void batch(Runnable operations) {
+        manufacturerRepository.batch(() -> souvenirRepository.batch(operations));
+    }
+
+    /**
+     * Runs operations as a batch of changes to manufacturers and souvenirs, like {@link #batch(Runnable)},
+     * and returns their result.
+     *
+     * @param operations The operations changing manufacturers and souvenirs.
+     * @param <R>        The type of the result.
+     * @return The result of the operations.
+     */
+    public <R> R batch(Supplier<R> operations) {
+        return manufacturerRepository.batch(() -> souvenirRepository.batch(operations));
     }
 
     /**
@@ -98,6 +138,27 @@ public class ManufacturerService {
         return manufacturerRepository.getAll();
     }
 
+    /**
+     * Retrieves a page of manufacturers in ascending order of IDs.
+     *
+     * @param afterId The ID of the last manufacturer of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of manufacturers in the page.
+     * @return A list of at most limit manufacturers.
+     */
+    public List<Manufacturer> getManufacturersPage(long afterId, int limit) {
+        return manufacturerRepository.getPage(afterId, limit);
+    }
+
+    /**
+     * Streams all manufacturers in ascending order of IDs, reading them page by page.
+     *
+     * @param pageSize The number of manufacturers read at once.
+     * @return A stream of all manufacturers.
+     */
+    public Stream<Manufacturer> streamAllManufacturers(int pageSize) {
+        return PagedStream.of(manufacturerRepository::getPage, Manufacturer::getId, pageSize);
+    }
+
     /**
      * Retrieves manufacturers from whom souvenirs with a price less than or equal to the given price are available.
      *
@@ -105,11 +166,9 @@ public class ManufacturerService {
      * @return A list of manufacturers meeting the criteria.
      */
     public List<Manufacturer> getManufacturersByMaxPrice(double price) {
+        Set<Long> excludedIds = souvenirRepository.getManufacturerIdsWithPriceAbove(price);
         return manufacturerRepository.getAll().stream()
-                .filter(m ->
-                        souvenirRepository.getByManufacturerId(m.getId())
-                                .stream()
-                                .allMatch(s -> s.getPrice() <= price))
+                .filter(m -> !excludedIds.contains(m.getId()))
                 .toList();
     }
 
@@ -119,11 +178,9 @@ public class ManufacturerService {
      * @return A map where each manufacturer is mapped to a list of its associated souvenirs.
      */
     public Map<Manufacturer, List<Souvenir>> getManufacturersWithSouvenirs() {
-        return manufacturerRepository.getAll().stream()
-                .collect(Collectors.toMap(
-                        manufacturer -> manufacturer,
-                        manufacturer -> souvenirRepository.getByManufacturerId(manufacturer.getId())
-                ));
+        // Both repositories are read as a whole, so a hash join reads each of them once
+        return Joins.hashGroupJoin(manufacturerRepository.getAll(), Manufacturer::getId,
+                souvenirRepository.getAll(), Souvenir::getManufacturerId);
     }
 
     /**
@@ -134,11 +191,10 @@ public class ManufacturerService {
      * @return A list of manufacturers producing the specified souvenir in the given year.
      */
     public List<Manufacturer> getManufacturersOfSouvenirByYear(String souvenirName, int year) {
-        return souvenirRepository.getByName(souvenirName).stream()
+        List<Souvenir> souvenirs = souvenirRepository.getByName(souvenirName).stream()
                 .filter(souvenir -> souvenir.getProductionDate().getYear() == year)
-                .map(souvenir -> manufacturerRepository.getById(souvenir.getManufacturerId()).orElse(null))
-                .distinct()
-                .collect(Collectors.toList());
+                .toList();
+        return Joins.indexSemiJoin(souvenirs, Souvenir::getManufacturerId, manufacturerRepository::getById);
     }
 
     /**
@@ -147,9 +203,6 @@ public class ManufacturerService {
      * @return A list of countries where manufacturers are located.
      */
     public List<String> getManufacturersCountries() {
-        return getAllManufacturers().stream()
-                .map(Manufacturer::getCountry)
-                .distinct()
-                .collect(Collectors.toList());
+        return manufacturerRepository.getCountries();
     }
 }
@@ -0,0 +1,76 @@
+package org.vitaliistf.souvenirs.service;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Stream over objects read page by page in ascending order of IDs.
+ * Only the current page is held in memory, and the next page is read when the stream reaches its end.
+ *
+ * @param <T> The type of objects.
+ */
+final class PagedStream<T> implements Iterator<T> {
+
+    private final BiFunction<Long, Integer, List<T>> pageReader;
+    private final ToLongFunction<T> idExtractor;
+    private final int pageSize;
+    private List<T> page = List.of();
+    private int position;
+    private boolean lastPage;
+
+    private PagedStream(BiFunction<Long, Integer, List<T>> pageReader, ToLongFunction<T> idExtractor, int pageSize) {
+        this.pageReader = pageReader;
+        this.idExtractor = idExtractor;
+        this.pageSize = pageSize;
+    }
+
+    /**
+     * Creates a stream over objects read page by page.
+     *
+     * @param pageReader  The function reading a page of at most the given number of objects after the given ID.
+     * @param idExtractor The function extracting IDs of objects.
+     * @param pageSize    The number of objects in a page.
+     * @param <T>         The type of objects.
+     * @return A sequential stream of objects in ascending order of IDs.
+     * @throws IllegalArgumentException If the page size is not positive.
+     */
+    static <T> Stream<T> of(BiFunction<Long, Integer, List<T>> pageReader, ToLongFunction<T> idExtractor,
+                            int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("Page size must be positive.");
+        }
+        PagedStream<T> iterator = new PagedStream<>(pageReader, idExtractor, pageSize);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (position < page.size()) {
+            return true;
+        }
+        if (lastPage) {
+            return false;
+        }
+        long afterId = page.isEmpty() ? 0 : idExtractor.applyAsLong(page.get(page.size() - 1));
+        page = pageReader.apply(afterId, pageSize);
+        position = 0;
+        lastPage = page.size() < pageSize;
+        return !page.isEmpty();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.get(position++);
+    }
+}
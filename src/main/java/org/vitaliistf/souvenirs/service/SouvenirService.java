@@ -7,10 +7,17 @@ import org.vitaliistf.souvenirs.repository.SouvenirRepository;
 import org.vitaliistf.souvenirs.validation.SouvenirValidator;
 import org.vitaliistf.souvenirs.validation.ValidationResult;
 
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * A service class providing operations related to souvenirs.
@@ -56,6 +63,40 @@ public class SouvenirService {
         return result;
     }
 
+    /**
+     * Imports souvenirs from a CSV file with the columns name, manufacturer, production date and price.
+     * Manufacturers are referenced by their unique names, which are resolved once for the whole file,
+     * and production dates are written as yyyy-MM-dd. Rows are parsed and validated in parallel,
+     * and the souvenirs are added in bulk with a single persistence write.
+     *
+     * @param file The CSV file, starting with a header line.
+     * @return The result of the import, reporting rejected rows.
+     */
+    public ImportResult importSouvenirs(Path file) {
+        Map<String, Long> manufacturerIds = new HashMap<>();
+        manufacturerRepository.getAll().forEach(manufacturer ->
+                manufacturerIds.put(manufacturer.getName(), manufacturer.getId()));
+        return CsvImport.run(file, 4, fields -> {
+            Long manufacturerId = manufacturerIds.get(fields[1].strip());
+            if (manufacturerId == null) {
+                throw new IllegalArgumentException("There is no such manufacturer in the system.");
+            }
+            LocalDate productionDate;
+            try {
+                productionDate = LocalDate.parse(fields[2].strip());
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("Production date must be written as yyyy-MM-dd.");
+            }
+            double price;
+            try {
+                price = Double.parseDouble(fields[3].strip());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Price must be a number.");
+            }
+            return new Souvenir(fields[0].strip(), manufacturerId, productionDate, price);
+        }, validator, souvenirRepository);
+    }
+
     /**
      * Updates an existing souvenir in the system.
      *
@@ -97,6 +138,69 @@ public class SouvenirService {
         return souvenirRepository.getAll();
     }
 
+    /**
+     * Retrieves a page of souvenirs in ascending order of IDs.
+     *
+     * @param afterId The ID of the last souvenir of the previous page, or 0 for the first page.
+     * @param limit   The maximum number of souvenirs in the page.
+     * @return A list containing at most limit souvenirs.
+     */
+    public List<Souvenir> getSouvenirsPage(long afterId, int limit) {
+        return souvenirRepository.getPage(afterId, limit);
+    }
+
+    /**
+     * Streams all souvenirs in ascending order of IDs, reading them page by page.
+     *
+     * @param pageSize The number of souvenirs read at once.
+     * @return A stream of all souvenirs.
+     */
+    public Stream<Souvenir> streamAllSouvenirs(int pageSize) {
+        return PagedStream.of(souvenirRepository::getPage, Souvenir::getId, pageSize);
+    }
+
+    /**
+     * Retrieves souvenirs whose name starts with the specified prefix, ignoring case, for autocompletion.
+     *
+     * @param prefix The prefix typed so far.
+     * @param limit  The maximum number of souvenirs to retrieve.
+     * @return A list containing at most limit souvenirs, ordered by name.
+     */
+    public List<Souvenir> findSouvenirsByNamePrefix(String prefix, int limit) {
+        return souvenirRepository.findByNamePrefix(prefix, limit);
+    }
+
+    /**
+     * Retrieves souvenirs priced in the specified range.
+     *
+     * @param minPrice The lowest price, inclusive.
+     * @param maxPrice The highest price, inclusive.
+     * @return A list containing souvenirs in ascending order of prices.
+     */
+    public List<Souvenir> getSouvenirsByPriceRange(double minPrice, double maxPrice) {
+        return souvenirRepository.getByPriceRange(minPrice, maxPrice);
+    }
+
+    /**
+     * Retrieves the cheapest souvenirs.
+     *
+     * @param limit The maximum number of souvenirs to retrieve.
+     * @return A list containing at most limit souvenirs in ascending order of prices.
+     */
+    public List<Souvenir> getCheapestSouvenirs(int limit) {
+        return souvenirRepository.getCheapest(limit);
+    }
+
+    /**
+     * Retrieves the most expensive souvenirs.
+     *
+     * @param limit The maximum number of souvenirs to retrieve.
+     * @return A list containing at most limit souvenirs in descending order of prices.
+     */
+    public List<Souvenir> getMostExpensiveSouvenirs(int limit) {
+        return souvenirRepository.getMostExpensive(limit);
+    }
+
     /**
      * Retrieves souvenirs associated with a specific manufacturer.
      *
@@ -114,9 +218,10 @@ public class SouvenirService {
      * @return A list containing souvenirs associated with manufacturers from the specified country.
      */
     public List<Souvenir> getSouvenirsByCountry(String manufacturerCountry) {
-        return manufacturerRepository.getByCountry(manufacturerCountry)
+        return Joins.indexGroupJoin(manufacturerRepository.getByCountry(manufacturerCountry), Manufacturer::getId,
+                        souvenirRepository::getByManufacturerIds)
+                .values()
                 .stream()
-                .map(m -> souvenirRepository.getByManufacturerId(m.getId()))
                 .flatMap(List::stream)
                 .collect(Collectors.toList());
     }
@@ -124,11 +229,54 @@ public class SouvenirService {
     /**
      * Retrieves souvenirs grouped by production year.
      *
-     * @return A map containing souvenirs grouped by production year.
+     * @return A read-only map containing souvenirs grouped by production year, in ascending order of years.
      */
     public Map<Integer, List<Souvenir>> getSouvenirsByYear() {
-        return souvenirRepository.getAll().stream()
-                .collect(Collectors.groupingBy(souvenir -> souvenir.getProductionDate().getYear()));
+        return getSouvenirsByYears(Year.MIN_VALUE, Year.MAX_VALUE);
+    }
+
+    /**
+     * Retrieves souvenirs produced in the specified range of years, grouped by production year.
+     *
+     * @param fromYear The first year of the range, inclusive.
+     * @param toYear   The last year of the range, inclusive.
+     * @return A read-only map containing souvenirs grouped by production year, in ascending order of years.
+     */
+    public Map<Integer, List<Souvenir>> getSouvenirsByYears(int fromYear, int toYear) {
+        return souvenirRepository.getByProductionYears(fromYear, toYear);
+    }
+
+    /**
+     * Retrieves souvenirs produced in the specified time window.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A list containing souvenirs in ascending order of production dates.
+     */
+    public List<Souvenir> getSouvenirsByProductionDates(LocalDate from, LocalDate to) {
+        return souvenirRepository.getByProductionDates(from, to);
+    }
+
+    /**
+     * Counts souvenirs produced in the specified time window per month.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A read-only map of months in ascending order to the numbers of souvenirs produced in them.
+     */
+    public Map<YearMonth, Long> countSouvenirsByMonth(LocalDate from, LocalDate to) {
+        return souvenirRepository.countByProductionMonth(from, to);
+    }
+
+    /**
+     * Counts souvenirs produced in the specified time window per year.
+     *
+     * @param from The first day of the window, inclusive.
+     * @param to   The last day of the window, inclusive.
+     * @return A read-only map of years in ascending order to the numbers of souvenirs produced in them.
+     */
+    public Map<Integer, Long> countSouvenirsByYear(LocalDate from, LocalDate to) {
+        return souvenirRepository.countByProductionYear(from, to);
     }
 
 }
@@ -0,0 +1,107 @@
+package org.vitaliistf.souvenirs.batch;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.vitaliistf.souvenirs.controller.MainController;
+import org.vitaliistf.souvenirs.model.Souvenir;
+import org.vitaliistf.souvenirs.repository.ManufacturerRepository;
+import org.vitaliistf.souvenirs.repository.SouvenirRepository;
+import org.vitaliistf.souvenirs.repository.implementation.InMemoryManufacturerRepository;
+import org.vitaliistf.souvenirs.repository.implementation.InMemorySouvenirRepository;
+import org.vitaliistf.souvenirs.service.ManufacturerService;
+import org.vitaliistf.souvenirs.service.SouvenirService;
+import org.vitaliistf.souvenirs.validation.ManufacturerValidator;
+import org.vitaliistf.souvenirs.validation.SouvenirValidator;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+public class BatchRunnerTest {
+
+    private final ManufacturerRepository manufacturerRepository = InMemoryManufacturerRepository.getInstance();
+    private final SouvenirRepository souvenirRepository = InMemorySouvenirRepository.getInstance();
+    private BatchRunner runner;
+
+    @BeforeClass
+    public void setUp() {
+        runner = new BatchRunner(new MainController(
+                new ManufacturerService(new ManufacturerValidator(), souvenirRepository, manufacturerRepository),
+                new SouvenirService(new SouvenirValidator(), souvenirRepository, manufacturerRepository)));
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        souvenirRepository.getAll().forEach(souvenir -> souvenirRepository.remove(souvenir.getId()));
+        manufacturerRepository.getAll().forEach(manufacturer -> manufacturerRepository.remove(manufacturer.getId()));
+    }
+
+    @Test
+    public void testRun() {
+        String script = """
+                # catalog
+                add-manufacturer Acme; Ukraine
+                """;
+        Assert.assertEquals(run(script), new BatchRunner.Summary(1, 0));
+        long manufacturerId = manufacturerRepository.getAll().get(0).getId();
+
+        script = """
+
+                add-souvenir Signature Mug; %1$d; 2023-05-01; 12.5
+                add-souvenir Pen; %1$d; 2023-05-01; 2
+                """.formatted(manufacturerId);
+        Assert.assertEquals(run(script), new BatchRunner.Summary(2, 0));
+        long mugId = souvenirRepository.getByName("Signature Mug").get(0).getId();
+        long penId = souvenirRepository.getByName("Pen").get(0).getId();
+
+        script = """
+                update-souvenir %d; Pen; %d; 2022-01-01; 3
+                delete-souvenir %d
+                """.formatted(penId, manufacturerId, mugId);
+        Assert.assertEquals(run(script), new BatchRunner.Summary(2, 0));
+
+        Assert.assertEquals(manufacturerRepository.getAll().size(), 1);
+        Souvenir souvenir = souvenirRepository.getAll().get(0);
+        Assert.assertEquals(souvenir.getName(), "Pen");
+        Assert.assertEquals(souvenir.getProductionDate(), LocalDate.of(2022, 1, 1));
+        Assert.assertEquals(souvenir.getPrice(), 3.0);
+    }
+
+    @Test
+    public void testRunReportsFailedLines() {
+        String script = """
+                add-manufacturer Acme
+                add-manufacturer Acme; Ukraine
+                add-souvenir Pen; one; 2023-05-01; 2
+                delete-souvenir 7
+                rename Acme
+                """;
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        BatchRunner.Summary summary = runner.run(new BufferedReader(new StringReader(script)),
+                new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        Assert.assertEquals(summary, new BatchRunner.Summary(1, 4));
+        Assert.assertEquals(output.toString(StandardCharsets.UTF_8).lines().toList(), List.of(
+                "Line 1: Operation add-manufacturer expects 2 arguments.",
+                "Line 3: Manufacturer ID must be an integer.",
+                "Line 4: There is no souvenir with such id.",
+                "Line 5: Unknown operation rename.",
+                "Batch finished: 1 operations succeeded, 4 failed."));
+    }
+
+    private BatchRunner.Summary run(String script) {
+        return runner.run(new BufferedReader(new StringReader(script)), discard());
+    }
+
+    private static PrintStream discard() {
+        return new PrintStream(OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,143 @@
+package org.vitaliistf.souvenirs.config;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class ConfigurationTest {
+
+    private Path directory;
+    private Configuration configuration;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("configuration-test");
+        Properties properties = new Properties();
+        properties.setProperty("int", " 42 ");
+        properties.setProperty("long", "5000000000");
+        properties.setProperty("boolean", "TRUE");
+        properties.setProperty("duration", "2s");
+        properties.setProperty("enum", "half-up");
+        properties.setProperty("reloadable", "1");
+        properties.setProperty("fixed", "1");
+        configuration = new Configuration(properties, Set.of("reloadable", "added"));
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        configuration.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Test
+    public void testTypedValues() {
+        Assert.assertEquals(configuration.getInt("int", 0), 42);
+        Assert.assertEquals(configuration.getLong("long", 0), 5_000_000_000L);
+        Assert.assertTrue(configuration.getBoolean("boolean", false));
+        Assert.assertEquals(configuration.getDuration("duration", Duration.ZERO), Duration.ofSeconds(2));
+        Assert.assertEquals(configuration.getEnum("enum", RoundingMode.class, null), RoundingMode.HALF_UP);
+    }
+
+    @Test
+    public void testDefaultValues() {
+        Assert.assertEquals(configuration.getInt("missing", 7), 7);
+        Assert.assertFalse(configuration.getBoolean("missing", false));
+        Assert.assertEquals(configuration.getDuration("missing", Duration.ofMillis(5)), Duration.ofMillis(5));
+        Assert.assertTrue(configuration.getString("missing").isEmpty());
+    }
+
+    @Test
+    public void testDurationFormats() {
+        Properties properties = new Properties();
+        properties.setProperty("plain", "1500");
+        properties.setProperty("millis", "250ms");
+        properties.setProperty("iso", "PT1.5S");
+        Configuration durations = new Configuration(properties, Set.of());
+
+        Assert.assertEquals(durations.getDuration("plain", null), Duration.ofMillis(1500));
+        Assert.assertEquals(durations.getDuration("millis", null), Duration.ofMillis(250));
+        Assert.assertEquals(durations.getDuration("iso", null), Duration.ofMillis(1500));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class,
+            expectedExceptionsMessageRegExp = "Property boolean must be an integer, but is TRUE.")
+    public void testInvalidValue() {
+        configuration.getInt("boolean", 0);
+    }
+
+    @Test
+    public void testWatchOverridesAndReloadsOnlyReloadableProperties() throws IOException {
+        Path file = directory.resolve("override.properties");
+        Files.writeString(file, "reloadable=2\nfixed=2\n");
+        AtomicInteger notifications = new AtomicInteger();
+        configuration.addListener(notifications::incrementAndGet);
+
+        configuration.watch(file);
+        Files.writeString(file, "fixed=3\nadded=4\n");
+        configuration.reload();
+
+        Assert.assertEquals(configuration.getInt("fixed", 0), 2);
+        Assert.assertEquals(configuration.getInt("reloadable", 0), 1);
+        Assert.assertEquals(configuration.getInt("added", 0), 4);
+        Assert.assertTrue(notifications.get() >= 1);
+    }
+
+    @Test
+    public void testReloadWithoutChangesDoesNotNotify() throws IOException {
+        Path file = directory.resolve("override.properties");
+        Files.writeString(file, "reloadable=2\n");
+        AtomicInteger notifications = new AtomicInteger();
+        configuration.addListener(notifications::incrementAndGet);
+        configuration.watch(file);
+
+        configuration.reload();
+
+        Assert.assertEquals(notifications.get(), 0);
+    }
+
+    @Test
+    public void testChangedFileIsReloaded() throws IOException, InterruptedException {
+        Path file = directory.resolve("override.properties");
+        Files.writeString(file, "reloadable=2\n");
+        CountDownLatch reloaded = new CountDownLatch(1);
+        // Writing truncates the file first, so a reload may briefly see it empty before the new value
+        configuration.addListener(() -> {
+            if (configuration.getInt("reloadable", 0) == 3) {
+                reloaded.countDown();
+            }
+        });
+        configuration.watch(file);
+
+        Files.writeString(file, "reloadable=3\n");
+
+        Assert.assertTrue(reloaded.await(30, TimeUnit.SECONDS));
+        Assert.assertEquals(configuration.getInt("reloadable", 0), 3);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testWatchTwice() throws IOException {
+        Path file = directory.resolve("override.properties");
+        Files.writeString(file, "");
+        configuration.watch(file);
+
+        configuration.watch(file);
+    }
+}
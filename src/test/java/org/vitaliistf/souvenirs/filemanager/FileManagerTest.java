@@ -5,30 +5,49 @@ import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
+import org.vitaliistf.souvenirs.filemanager.codec.ManufacturerCodec;
+import org.vitaliistf.souvenirs.model.Manufacturer;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class FileManagerTest {
 
     private static final String TEST_FILE_PATH = "test_data.ser";
+    private static final String TEST_JOURNAL_PATH = TEST_FILE_PATH + ".journal";
+    private static final String TEST_PREVIOUS_JOURNAL_PATH = TEST_FILE_PATH + ".journal.prev";
+    private static final String TEST_BACKUP_PATH = TEST_FILE_PATH + ".bak";
+    private static final String TEST_CORRUPTED_PATH = TEST_FILE_PATH + ".corrupted";
 
     @BeforeMethod
     public void setUp() {
         // Clean up any previous test data
-        File testFile = new File(TEST_FILE_PATH);
-        if (testFile.exists()) {
-            testFile.delete();
-        }
+        deleteTestFiles();
     }
 
     @AfterMethod
     public void tearDown() {
         // Clean up after each test
-        File testFile = new File(TEST_FILE_PATH);
-        if (testFile.exists()) {
-            testFile.delete();
+        deleteTestFiles();
+    }
+
+    private void deleteTestFiles() {
+        for (String path : new String[]{TEST_FILE_PATH, TEST_JOURNAL_PATH, TEST_PREVIOUS_JOURNAL_PATH,
+                TEST_BACKUP_PATH, TEST_CORRUPTED_PATH, TEST_FILE_PATH + ".tmp"}) {
+            File testFile = new File(path);
+            if (testFile.exists()) {
+                testFile.delete();
+            }
         }
     }
 
@@ -52,6 +71,348 @@ public class FileManagerTest {
         Assert.assertTrue(loadedSet.isEmpty());
     }
 
+    @Test
+    public void testJournalReplay() {
+        FileManager<Manufacturer> fileManager = createJournalFileManager(100);
+        Manufacturer manufacturer1 = createManufacturer(1, "Manufacturer1", "Country1");
+        Manufacturer manufacturer2 = createManufacturer(2, "Manufacturer2", "Country2");
+        Manufacturer updatedManufacturer1 = createManufacturer(1, "Manufacturer3", "Country3");
+
+        fileManager.persist(JournalEntry.add(1, manufacturer1), Set.of(manufacturer1));
+        fileManager.persist(JournalEntry.add(2, manufacturer2), Set.of(manufacturer1, manufacturer2));
+        fileManager.persist(JournalEntry.update(1, updatedManufacturer1), Set.of(updatedManufacturer1, manufacturer2));
+        fileManager.persist(JournalEntry.remove(2), Set.of(updatedManufacturer1));
+
+        Assert.assertFalse(new File(TEST_FILE_PATH).exists());
+        Set<Manufacturer> loadedSet = createJournalFileManager(100).loadFromFile();
+
+        Assert.assertEquals(loadedSet, Set.of(updatedManufacturer1));
+    }
+
+    @Test
+    public void testJournalSnapshot() {
+        FileManager<Manufacturer> fileManager = createJournalFileManager(2);
+        Manufacturer manufacturer1 = createManufacturer(1, "Manufacturer1", "Country1");
+        Manufacturer manufacturer2 = createManufacturer(2, "Manufacturer2", "Country2");
+        Manufacturer manufacturer3 = createManufacturer(3, "Manufacturer3", "Country3");
+
+        fileManager.persist(JournalEntry.add(1, manufacturer1), Set.of(manufacturer1));
+        fileManager.persist(JournalEntry.add(2, manufacturer2), Set.of(manufacturer1, manufacturer2));
+
+        Assert.assertTrue(new File(TEST_FILE_PATH).exists());
+        Assert.assertEquals(new File(TEST_JOURNAL_PATH).length(), 0);
+
+        fileManager.persist(JournalEntry.add(3, manufacturer3), Set.of(manufacturer1, manufacturer2, manufacturer3));
+        Set<Manufacturer> loadedSet = createJournalFileManager(2).loadFromFile();
+
+        Assert.assertEquals(loadedSet, Set.of(manufacturer1, manufacturer2, manufacturer3));
+    }
+
+    @Test
+    public void testJournalWithTornRecord() throws IOException {
+        FileManager<Manufacturer> fileManager = createJournalFileManager(100);
+        Manufacturer manufacturer1 = createManufacturer(1, "Manufacturer1", "Country1");
+        Manufacturer manufacturer2 = createManufacturer(2, "Manufacturer2", "Country2");
+        Manufacturer manufacturer3 = createManufacturer(3, "Manufacturer3", "Country3");
+        Manufacturer manufacturer4 = createManufacturer(4, "Manufacturer4", "Country4");
+        fileManager.persist(JournalEntry.add(1, manufacturer1), Set.of(manufacturer1));
+        fileManager.persist(JournalEntry.add(2, manufacturer2), Set.of(manufacturer1, manufacturer2));
+        fileManager.close();
+        try (RandomAccessFile journal = new RandomAccessFile(TEST_JOURNAL_PATH, "rw")) {
+            journal.setLength(journal.length() - 3);
+        }
+
+        FileManager<Manufacturer> reopenedFileManager = createJournalFileManager(100);
+        Assert.assertEquals(reopenedFileManager.loadFromFile(), Set.of(manufacturer1));
+        reopenedFileManager.persist(JournalEntry.add(3, manufacturer3), Set.of(manufacturer1, manufacturer3));
+        reopenedFileManager.persist(JournalEntry.add(4, manufacturer4),
+                Set.of(manufacturer1, manufacturer3, manufacturer4));
+        reopenedFileManager.close();
+
+        Assert.assertEquals(createJournalFileManager(100).loadFromFile(),
+                Set.of(manufacturer1, manufacturer3, manufacturer4));
+    }
+
+    @Test
+    public void testJournalWithCorruptedRecord() throws IOException {
+        FileManager<Manufacturer> fileManager = createJournalFileManager(100);
+        Manufacturer manufacturer1 = createManufacturer(1, "Manufacturer1", "Country1");
+        Manufacturer manufacturer2 = createManufacturer(2, "Manufacturer2", "Country2");
+        Manufacturer manufacturer3 = createManufacturer(3, "Manufacturer3", "Country3");
+        fileManager.persist(JournalEntry.add(1, manufacturer1), Set.of(manufacturer1));
+        long firstRecordEnd = new File(TEST_JOURNAL_PATH).length();
+        fileManager.persist(JournalEntry.add(2, manufacturer2), Set.of(manufacturer1, manufacturer2));
+        fileManager.close();
+        // The operation code of the second record is overwritten
+        try (RandomAccessFile journal = new RandomAccessFile(TEST_JOURNAL_PATH, "rw")) {
+            journal.seek(firstRecordEnd + 2 * Integer.BYTES);
+            journal.write(0x7F);
+        }
+
+        FileManager<Manufacturer> reopenedFileManager = createJournalFileManager(100);
+        Assert.assertEquals(reopenedFileManager.loadFromFile(), Set.of(manufacturer1));
+        Assert.assertEquals(new File(TEST_JOURNAL_PATH).length(), firstRecordEnd);
+        reopenedFileManager.persist(JournalEntry.add(3, manufacturer3), Set.of(manufacturer1, manufacturer3));
+        reopenedFileManager.close();
+
+        Assert.assertEquals(createJournalFileManager(100).loadFromFile(), Set.of(manufacturer1, manufacturer3));
+    }
+
+    @Test
+    public void testSaveAndLoadWithCodec() {
+        FileManager<Manufacturer> fileManager = new FileManager<>(TEST_FILE_PATH, new ManufacturerCodec(),
+                Manufacturer::getId, PersistenceMode.SNAPSHOT, 0);
+        Set<Manufacturer> inputSet = Set.of(
+                createManufacturer(1, "Manufacturer1", "Country1"),
+                createManufacturer(2, "Manufacturer2", "Country2"));
+
+        fileManager.saveToFile(inputSet);
+        Set<Manufacturer> loadedSet = fileManager.loadFromFile();
+
+        Assert.assertEquals(loadedSet, inputSet);
+    }
+
+    @Test
+    public void testMigrationFromSerializedFile() {
+        Set<Manufacturer> inputSet = new HashSet<>(Set.of(createManufacturer(1, "Manufacturer1", "Country1")));
+        new FileManager<Manufacturer>(TEST_FILE_PATH).saveToFile(inputSet);
+        long serializedLength = new File(TEST_FILE_PATH).length();
+
+        FileManager<Manufacturer> fileManager = new FileManager<>(TEST_FILE_PATH, new ManufacturerCodec(),
+                Manufacturer::getId, PersistenceMode.SNAPSHOT, 0);
+        Set<Manufacturer> loadedSet = fileManager.loadFromFile();
+
+        Assert.assertEquals(loadedSet, inputSet);
+        Assert.assertEquals(loadedSet.iterator().next().getId(), 1L);
+        Assert.assertTrue(new File(TEST_FILE_PATH).length() < serializedLength);
+        Assert.assertEquals(fileManager.loadFromFile(), inputSet);
+    }
+
+    @Test
+    public void testWriteBehindFlush() {
+        FileManager<Manufacturer> fileManager = createWriteBehindFileManager(100);
+        Manufacturer manufacturer1 = createManufacturer(1, "Manufacturer1", "Country1");
+        Manufacturer manufacturer2 = createManufacturer(2, "Manufacturer2", "Country2");
+        Manufacturer updatedManufacturer1 = createManufacturer(1, "Manufacturer1", "Country3");
+
+        try {
+            fileManager.persist(JournalEntry.add(1, manufacturer1), Set.of(manufacturer1));
+            fileManager.persist(JournalEntry.add(2, manufacturer2), Set.of(manufacturer1, manufacturer2));
+            fileManager.persist(JournalEntry.update(1, updatedManufacturer1),
+                    Set.of(updatedManufacturer1, manufacturer2));
+
+            Assert.assertTrue(createJournalFileManager(100).loadFromFile().isEmpty());
+
+            fileManager.flush();
+        } finally {
+            fileManager.close();
+        }
+
+        Set<Manufacturer> loadedSet = createJournalFileManager(100).loadFromFile();
+        Assert.assertEquals(loadedSet, Set.of(updatedManufacturer1, manufacturer2));
+        Assert.assertEquals(loadedSet.stream().filter(m -> m.getId() == 1).findFirst().orElseThrow().getCountry(),
+                "Country3");
+    }
+
+    @Test
+    public void testWriteBehindBatchSize() throws InterruptedException {
+        FileManager<Manufacturer> fileManager = createWriteBehindFileManager(2);
+        Manufacturer manufacturer1 = createManufacturer(1, "Manufacturer1", "Country1");
+        Manufacturer manufacturer2 = createManufacturer(2, "Manufacturer2", "Country2");
+
+        try {
+            fileManager.persist(JournalEntry.add(1, manufacturer1), Set.of(manufacturer1));
+            fileManager.persist(JournalEntry.add(2, manufacturer2), Set.of(manufacturer1, manufacturer2));
+
+            Set<Manufacturer> loadedSet = Set.of();
+            for (int attempt = 0; attempt < 50 && loadedSet.size() < 2; attempt++) {
+                Thread.sleep(100);
+                loadedSet = createJournalFileManager(100).loadFromFile();
+            }
+
+            Assert.assertEquals(loadedSet, Set.of(manufacturer1, manufacturer2));
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    @Test
+    public void testBatch() {
+        FileManager<Manufacturer> fileManager = createJournalFileManager(100);
+        Manufacturer manufacturer1 = createManufacturer(1, "Manufacturer1", "Country1");
+        Manufacturer manufacturer2 = createManufacturer(2, "Manufacturer2", "Country2");
+
+        try {
+            fileManager.batch(() -> {
+                fileManager.persist(JournalEntry.add(1, manufacturer1), Set.of(manufacturer1));
+                fileManager.persist(JournalEntry.add(2, manufacturer2), Set.of(manufacturer1, manufacturer2));
+
+                Assert.assertTrue(createJournalFileManager(100).loadFromFile().isEmpty());
+            });
+        } finally {
+            fileManager.close();
+        }
+
+        Assert.assertEquals(createJournalFileManager(100).loadFromFile(), Set.of(manufacturer1, manufacturer2));
+    }
+
+    @Test
+    public void testSetWriteBehindPolicyReschedulesFlush() throws IOException, InterruptedException {
+        FileManager<Manufacturer> fileManager = createWriteBehindFileManager(100);
+        Manufacturer manufacturer = createManufacturer(1, "Manufacturer1", "Country1");
+
+        try {
+            fileManager.persist(JournalEntry.add(1, manufacturer), Set.of(manufacturer));
+            fileManager.setWriteBehindPolicy(new WriteBehindPolicy(10, 100));
+
+            // The journal is still being written, so only copies of it are replayed
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (replayJournalCopy().isEmpty() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            Assert.assertEquals(replayJournalCopy(), Set.of(manufacturer));
+        } finally {
+            fileManager.close();
+        }
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testSetWriteBehindPolicyWithoutWriteBehind() {
+        createJournalFileManager(100).setWriteBehindPolicy(new WriteBehindPolicy(10, 100));
+    }
+
+    @Test
+    public void testLastIdSurvivesRemovalInJournal() {
+        FileManager<Manufacturer> fileManager = createJournalFileManager(100);
+        Manufacturer manufacturer1 = createManufacturer(1, "Manufacturer1", "Country1");
+        Manufacturer manufacturer2 = createManufacturer(2, "Manufacturer2", "Country2");
+        fileManager.persist(JournalEntry.add(1, manufacturer1), Set.of(manufacturer1));
+        fileManager.persist(JournalEntry.add(2, manufacturer2), Set.of(manufacturer1, manufacturer2));
+        fileManager.persist(JournalEntry.remove(2), Set.of(manufacturer1));
+
+        FileManager<Manufacturer> reloaded = createJournalFileManager(100);
+
+        Assert.assertEquals(reloaded.loadFromFile(), Set.of(manufacturer1));
+        Assert.assertEquals(reloaded.getLastId(), 2);
+    }
+
+    @Test
+    public void testLastIdSurvivesRemovalInSnapshot() {
+        FileManager<Manufacturer> fileManager = createSnapshotFileManager();
+        Manufacturer manufacturer1 = createManufacturer(1, "Manufacturer1", "Country1");
+        fileManager.saveToFile(Set.of(manufacturer1, createManufacturer(2, "Manufacturer2", "Country2")));
+        fileManager.saveToFile(Set.of(manufacturer1));
+
+        FileManager<Manufacturer> reloaded = createSnapshotFileManager();
+
+        Assert.assertEquals(reloaded.loadFromFile(), Set.of(manufacturer1));
+        Assert.assertEquals(reloaded.getLastId(), 2);
+    }
+
+    @Test
+    public void testSaveKeepsBackup() {
+        FileManager<Manufacturer> fileManager = createSnapshotFileManager();
+        Set<Manufacturer> inputSet = Set.of(createManufacturer(2, "Manufacturer2", "Country2"));
+
+        fileManager.saveToFile(Set.of(createManufacturer(1, "Manufacturer1", "Country1")));
+        fileManager.saveToFile(inputSet);
+
+        Assert.assertTrue(new File(TEST_BACKUP_PATH).exists());
+        Assert.assertFalse(new File(TEST_FILE_PATH + ".tmp").exists());
+        Assert.assertEquals(fileManager.loadFromFile(), inputSet);
+    }
+
+    @Test
+    public void testRecoveryFromCorruptedFile() throws IOException {
+        FileManager<Manufacturer> fileManager = createSnapshotFileManager();
+        Set<Manufacturer> backupSet = Set.of(createManufacturer(1, "Manufacturer1", "Country1"));
+        fileManager.saveToFile(backupSet);
+        fileManager.saveToFile(Set.of(createManufacturer(2, "Manufacturer2", "Country2")));
+        corruptLastByte(TEST_FILE_PATH);
+
+        Set<Manufacturer> loadedSet = fileManager.loadFromFile();
+
+        Assert.assertEquals(loadedSet, backupSet);
+        Assert.assertTrue(new File(TEST_CORRUPTED_PATH).exists());
+        Assert.assertEquals(fileManager.loadFromFile(), backupSet);
+    }
+
+    @Test
+    public void testRecoveryFromCorruptedFileReplaysPreviousJournal() throws IOException {
+        FileManager<Manufacturer> fileManager = createJournalFileManager(100);
+        Manufacturer manufacturer1 = createManufacturer(1, "Manufacturer1", "Country1");
+        Manufacturer manufacturer2 = createManufacturer(2, "Manufacturer2", "Country2");
+        Manufacturer manufacturer3 = createManufacturer(3, "Manufacturer3", "Country3");
+        fileManager.saveToFile(Set.of(manufacturer1));
+        fileManager.persist(JournalEntry.add(2, manufacturer2), Set.of(manufacturer1, manufacturer2));
+        fileManager.saveToFile(Set.of(manufacturer1, manufacturer2));
+        fileManager.persist(JournalEntry.add(3, manufacturer3), Set.of(manufacturer1, manufacturer2, manufacturer3));
+        fileManager.close();
+        corruptLastByte(TEST_FILE_PATH);
+
+        FileManager<Manufacturer> recovered = createJournalFileManager(100);
+
+        Assert.assertEquals(recovered.loadFromFile(), Set.of(manufacturer1, manufacturer2, manufacturer3));
+        Assert.assertEquals(recovered.getLastId(), 3);
+        Assert.assertTrue(new File(TEST_CORRUPTED_PATH).exists());
+        Assert.assertEquals(createJournalFileManager(100).loadFromFile(),
+                Set.of(manufacturer1, manufacturer2, manufacturer3));
+    }
+
+    @Test(expectedExceptions = UncheckedIOException.class)
+    public void testLoadFromFileWithoutReadableSnapshot() throws IOException {
+        FileManager<Manufacturer> fileManager = createSnapshotFileManager();
+        fileManager.saveToFile(Set.of(createManufacturer(1, "Manufacturer1", "Country1")));
+        corruptLastByte(TEST_FILE_PATH);
+
+        fileManager.loadFromFile();
+    }
+
+    private void corruptLastByte(String path) throws IOException {
+        // The last bytes of a snapshot hold the checksum of the last block and the end marker
+        try (RandomAccessFile file = new RandomAccessFile(path, "rw")) {
+            file.seek(file.length() - Integer.BYTES - 1);
+            int value = file.read();
+            file.seek(file.length() - Integer.BYTES - 1);
+            file.write(value ^ 0xFF);
+        }
+    }
+
+    private FileManager<Manufacturer> createSnapshotFileManager() {
+        return new FileManager<>(TEST_FILE_PATH, new ManufacturerCodec(), Manufacturer::getId,
+                PersistenceMode.SNAPSHOT, 0);
+    }
+
+    private FileManager<Manufacturer> createWriteBehindFileManager(int flushBatchSize) {
+        return new FileManager<>(TEST_FILE_PATH, new ManufacturerCodec(), Manufacturer::getId,
+                PersistenceMode.JOURNAL, 100, new WriteBehindPolicy(TimeUnit.HOURS.toMillis(1), flushBatchSize));
+    }
+
+    private FileManager<Manufacturer> createJournalFileManager(int snapshotInterval) {
+        return new FileManager<>(TEST_FILE_PATH, new ManufacturerCodec(), Manufacturer::getId,
+                PersistenceMode.JOURNAL, snapshotInterval);
+    }
+
+    private Set<Manufacturer> replayJournalCopy() throws IOException {
+        Path copy = Files.createTempFile("journal", ".copy");
+        try {
+            if (new File(TEST_JOURNAL_PATH).exists()) {
+                Files.copy(Path.of(TEST_JOURNAL_PATH), copy, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Map<Long, Manufacturer> state = new HashMap<>();
+            new Journal<>(copy.toFile(), new ManufacturerCodec()).replay(state);
+            return new HashSet<>(state.values());
+        } finally {
+            Files.delete(copy);
+        }
+    }
+
+    private Manufacturer createManufacturer(long id, String name, String country) {
+        Manufacturer manufacturer = new Manufacturer(name, country);
+        manufacturer.setId(id);
+        return manufacturer;
+    }
+
     @DataProvider(name = "setInput")
     public Object[][] setInput() {
         Set<String> set1 = new HashSet<>();
@@ -0,0 +1,34 @@
+package org.vitaliistf.souvenirs.filemanager.codec;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.io.*;
+import java.time.LocalDate;
+
+public class SouvenirCodecTest {
+
+    private final SouvenirCodec codec = new SouvenirCodec();
+
+    @Test
+    public void testWriteAndRead() throws IOException {
+        Souvenir souvenir = new Souvenir("Keychain", 2L, LocalDate.of(2023, 5, 15), 10.99);
+        souvenir.setId(7L);
+
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        codec.write(new DataOutputStream(buffer), souvenir);
+        Souvenir result = codec.read(new DataInputStream(new ByteArrayInputStream(buffer.toByteArray())),
+                codec.version());
+
+        Assert.assertEquals(result, souvenir);
+        Assert.assertEquals(result.getId(), 7L);
+        Assert.assertEquals(result.getProductionDate(), souvenir.getProductionDate());
+        Assert.assertEquals(result.getPrice(), 10.99);
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testUnsupportedVersion() throws IOException {
+        codec.read(new DataInputStream(new ByteArrayInputStream(new byte[0])), codec.version() + 1);
+    }
+}
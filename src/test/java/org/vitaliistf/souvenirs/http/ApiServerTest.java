@@ -0,0 +1,146 @@
+package org.vitaliistf.souvenirs.http;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import org.vitaliistf.souvenirs.controller.MainController;
+import org.vitaliistf.souvenirs.repository.ManufacturerRepository;
+import org.vitaliistf.souvenirs.repository.SouvenirRepository;
+import org.vitaliistf.souvenirs.repository.implementation.InMemoryManufacturerRepository;
+import org.vitaliistf.souvenirs.repository.implementation.InMemorySouvenirRepository;
+import org.vitaliistf.souvenirs.service.ManufacturerService;
+import org.vitaliistf.souvenirs.service.SouvenirService;
+import org.vitaliistf.souvenirs.validation.ManufacturerValidator;
+import org.vitaliistf.souvenirs.validation.SouvenirValidator;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+public class ApiServerTest {
+
+    private final ManufacturerRepository manufacturerRepository = InMemoryManufacturerRepository.getInstance();
+    private final SouvenirRepository souvenirRepository = InMemorySouvenirRepository.getInstance();
+    private final HttpClient client = HttpClient.newHttpClient();
+    private ApiServer server;
+
+    @BeforeClass
+    public void setUp() throws IOException {
+        MainController controller = new MainController(
+                new ManufacturerService(new ManufacturerValidator(), souvenirRepository, manufacturerRepository),
+                new SouvenirService(new SouvenirValidator(), souvenirRepository, manufacturerRepository));
+        server = new ApiServer(controller, new InetSocketAddress("localhost", 0));
+        server.start();
+    }
+
+    @AfterClass
+    public void stopServer() {
+        server.stop(0);
+        client.close();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        souvenirRepository.getAll().forEach(souvenir -> souvenirRepository.remove(souvenir.getId()));
+        manufacturerRepository.getAll().forEach(manufacturer -> manufacturerRepository.remove(manufacturer.getId()));
+    }
+
+    @Test
+    public void testAddAndGetManufacturers() throws Exception {
+        HttpResponse<String> added = send("POST", "/manufacturers", "{\"name\":\"Acme\",\"country\":\"Ukraine\"}");
+        HttpResponse<String> all = send("GET", "/manufacturers", null);
+
+        Assert.assertEquals(added.statusCode(), 201);
+        Assert.assertEquals(all.statusCode(), 200);
+        long id = manufacturerRepository.getAll().get(0).getId();
+        Assert.assertEquals(Json.parse(all.body()), List.of(Map.of("id", id, "name", "Acme", "country", "Ukraine")));
+    }
+
+    @Test
+    public void testAddInvalidManufacturer() throws Exception {
+        HttpResponse<String> response = send("POST", "/manufacturers", "{\"name\":\"\",\"country\":\"Ukraine\"}");
+
+        Assert.assertEquals(response.statusCode(), 400);
+        Assert.assertTrue(Json.parse(response.body()) instanceof Map<?, ?> body && body.containsKey("errors"));
+    }
+
+    @Test
+    public void testSouvenirLifecycle() throws Exception {
+        send("POST", "/manufacturers", "{\"name\":\"Acme\",\"country\":\"Ukraine\"}");
+        long manufacturerId = manufacturerRepository.getAll().get(0).getId();
+        String souvenir = "{\"name\":\"Mug\",\"manufacturerId\":" + manufacturerId
+                + ",\"productionDate\":\"2020-05-01\",\"price\":%s}";
+
+        Assert.assertEquals(send("POST", "/souvenirs", souvenir.formatted("10")).statusCode(), 201);
+        long id = souvenirRepository.getAll().get(0).getId();
+        Assert.assertEquals(send("PUT", "/souvenirs/" + id, souvenir.formatted("12.5")).statusCode(), 200);
+        HttpResponse<String> byCountry = send("GET", "/souvenirs?country=Ukraine", null);
+        HttpResponse<String> byYear = send("GET", "/souvenirs/by-year?from=2019&to=2021", null);
+        HttpResponse<String> byMaxPrice = send("GET", "/manufacturers?maxPrice=12", null);
+        HttpResponse<String> autocomplete = send("GET", "/souvenirs/autocomplete?prefix=mu", null);
+        HttpResponse<String> byPrice = send("GET", "/souvenirs/by-price?min=10&max=12.5", null);
+        HttpResponse<String> mostExpensive = send("GET", "/souvenirs/most-expensive?limit=1", null);
+        HttpResponse<String> byDate = send("GET", "/souvenirs/by-date?from=2020-05-01&to=2020-05-31", null);
+        HttpResponse<String> counts = send("GET", "/souvenirs/counts?from=2020-01-01&to=2020-12-31&per=month",
+                null);
+
+        Assert.assertEquals(Json.parse(byCountry.body()), List.of(Map.of("id", id, "name", "Mug",
+                "manufacturerId", manufacturerId, "productionDate", "2020-05-01", "price", 12.5)));
+        Assert.assertEquals(((Map<?, ?>) Json.parse(byYear.body())).keySet(), java.util.Set.of("2020"));
+        Assert.assertEquals(Json.parse(byMaxPrice.body()), List.of());
+        Assert.assertEquals(Json.parse(byCountry.body()), Json.parse(autocomplete.body()));
+        Assert.assertEquals(Json.parse(byCountry.body()), Json.parse(byPrice.body()));
+        Assert.assertEquals(Json.parse(byCountry.body()), Json.parse(mostExpensive.body()));
+        Assert.assertEquals(Json.parse(byCountry.body()), Json.parse(byDate.body()));
+        Assert.assertEquals(Json.parse(counts.body()), Map.of("2020-05", 1L));
+        Assert.assertEquals(send("GET", "/souvenirs/cheapest?limit=0", null).statusCode(), 400);
+        Assert.assertEquals(send("DELETE", "/souvenirs/" + id, null).statusCode(), 204);
+        Assert.assertEquals(send("DELETE", "/souvenirs/" + id, null).statusCode(), 404);
+    }
+
+    @Test
+    public void testBadRequests() throws Exception {
+        Assert.assertEquals(send("POST", "/souvenirs", "{not json").statusCode(), 400);
+        Assert.assertEquals(send("GET", "/souvenirs?manufacturerId=abc", null).statusCode(), 400);
+        Assert.assertEquals(send("GET", "/souvenirs/by-date?from=2020&to=2021", null).statusCode(), 400);
+        Assert.assertEquals(send("GET", "/souvenirs/unknown/path", null).statusCode(), 404);
+        Assert.assertEquals(send("PATCH", "/manufacturers", null).statusCode(), 405);
+    }
+
+    @Test
+    public void testConcurrentRequests() throws Exception {
+        List<CompletableFuture<HttpResponse<String>>> responses = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            String body = "{\"name\":\"Manufacturer" + i + "\",\"country\":\"Ukraine\"}";
+            responses.add(client.sendAsync(request("POST", "/manufacturers", body),
+                    HttpResponse.BodyHandlers.ofString()));
+        }
+
+        for (CompletableFuture<HttpResponse<String>> response : responses) {
+            Assert.assertEquals(response.get().statusCode(), 201);
+        }
+        Assert.assertEquals(manufacturerRepository.getAll().size(), 200);
+    }
+
+    private HttpResponse<String> send(String method, String path, String body) throws Exception {
+        return client.send(request(method, path, body), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpRequest request(String method, String path, String body) {
+        URI uri = URI.create("http://localhost:" + server.getAddress().getPort() + path);
+        return HttpRequest.newBuilder(uri)
+                .method(method, body == null
+                        ? HttpRequest.BodyPublishers.noBody()
+                        : HttpRequest.BodyPublishers.ofString(body))
+                .build();
+    }
+}
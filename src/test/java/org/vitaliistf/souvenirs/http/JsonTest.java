@@ -0,0 +1,79 @@
+package org.vitaliistf.souvenirs.http;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JsonTest {
+
+    @Test
+    public void testWrite() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("name", "Mug \"Kyiv\"\n");
+        value.put("id", 1L);
+        value.put("price", 9.5);
+        value.put("tags", List.of(true, "a"));
+        value.put("date", null);
+
+        String result = Json.write(value);
+
+        Assert.assertEquals(result,
+                "{\"name\":\"Mug \\\"Kyiv\\\"\\n\",\"id\":1,\"price\":9.5,\"tags\":[true,\"a\"],\"date\":null}");
+    }
+
+    @Test
+    public void testParse() {
+        Object result = Json.parse(" {\"name\": \"Сувенір \\u0041\", \"id\": 12, \"price\": 1.5e1,"
+                + " \"list\": [null, false, {}], \"empty\": []} ");
+
+        Assert.assertEquals(result, Map.of(
+                "name", "Сувенір A",
+                "id", 12L,
+                "price", 15.0,
+                "list", Arrays.asList(null, false, Map.of()),
+                "empty", List.of()));
+    }
+
+    @Test
+    public void testWriteAndParse() {
+        Map<String, Object> value = Map.of("text", "tab\tquote\"backslash\\", "number", -3L);
+
+        Assert.assertEquals(Json.parse(Json.write(value)), value);
+    }
+
+    @Test
+    public void testParseNestedToMaxDepth() {
+        Object value = Json.parse("[".repeat(64) + "]".repeat(64));
+
+        for (int i = 1; i < 64; i++) {
+            value = ((List<?>) value).getFirst();
+        }
+        Assert.assertEquals(value, List.of());
+    }
+
+    @DataProvider(name = "invalidJson")
+    public Object[][] invalidJson() {
+        return new Object[][]{
+                {""},
+                {"{"},
+                {"{\"a\" 1}"},
+                {"[1,]"},
+                {"\"unterminated"},
+                {"tru"},
+                {"{} {}"},
+                {"1.2.3"},
+                {"\u0661"},
+                {"[".repeat(65) + "]".repeat(65)}
+        };
+    }
+
+    @Test(dataProvider = "invalidJson", expectedExceptions = IllegalArgumentException.class)
+    public void testParseInvalid(String text) {
+        Json.parse(text);
+    }
+}
@@ -33,6 +33,7 @@ public class CommandPoolTest {
                 {MenuOptions.GET_ALL_MANUFACTURERS_WITH_SOUVENIRS, true},
                 {MenuOptions.GET_MANUFACTURERS_BY_SOUVENIR_AND_YEAR, true},
                 {MenuOptions.GET_ALL_SOUVENIRS_BY_YEARS, true},
+                {MenuOptions.GET_SOUVENIRS_BY_YEAR_RANGE, true},
                 {100, false},
                 {-1, false},
                 {50, false}
@@ -0,0 +1,63 @@
+package org.vitaliistf.souvenirs.menu.view;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.vitaliistf.souvenirs.model.Manufacturer;
+
+import java.util.List;
+
+public class TableWriterTest {
+
+    private static final String N = System.lineSeparator();
+
+    private final ManufacturerTableView view = new ManufacturerTableView();
+
+    @Test
+    public void testGenerateTable() {
+        Manufacturer manufacturer = new Manufacturer("Acme", "Ukraine");
+        manufacturer.setId(12);
+
+        String result = view.generateTable(List.of(manufacturer));
+
+        Assert.assertEquals(result, view.getTitle() + "\n"
+                + "+----+------+---------+\n"
+                + "| ID | Name | Country |" + N
+                + "+----+------+---------+\n"
+                + "| 12 | Acme | Ukraine |" + N
+                + "+----+------+---------+\n");
+    }
+
+    @Test
+    public void testFixedWidthsStreamRows() {
+        Manufacturer manufacturer = new Manufacturer("Manufacturer", "UA");
+        manufacturer.setId(1);
+        StringBuilder out = new StringBuilder();
+
+        TableWriter<Manufacturer> writer = new TableWriter<>(view, out, new int[]{3, 6, 0});
+        writer.writeHeader(false).writeRow(manufacturer).writeFooter();
+
+        Assert.assertEquals(out.toString(), "+-----+--------+---------+\n"
+                + "| ID  | Name   | Country |" + N
+                + "+-----+--------+---------+\n"
+                + "|   1 | Manufacturer |      UA |" + N
+                + "+-----+--------+---------+\n");
+    }
+
+    @Test
+    public void testSampledWidths() {
+        Manufacturer sampled = new Manufacturer("Acme", "Ukraine");
+        sampled.setId(1);
+        Manufacturer streamed = new Manufacturer("Bee", "USA");
+        streamed.setId(2);
+        StringBuilder out = new StringBuilder();
+
+        TableWriter.sampled(view, out, List.of(sampled)).writeHeader(false).writeRow(streamed);
+
+        Assert.assertTrue(out.toString().endsWith("|  2 |  Bee |     USA |" + N));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testWrongNumberOfWidths() {
+        new TableWriter<>(view, new StringBuilder(), new int[]{1});
+    }
+}
@@ -35,5 +35,22 @@ public class ManufacturerTest {
 
         Assert.assertEquals(manufacturer1.hashCode(), manufacturer2.hashCode());
     }
-}
 
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testFrozenRejectsChanges() {
+        Manufacturer manufacturer = new Manufacturer("ABC Inc.", "USA").freeze();
+
+        manufacturer.setCountry("UK");
+    }
+
+    @Test
+    public void testToBuilder() {
+        Manufacturer manufacturer = new Manufacturer("ABC Inc.", "USA").freeze();
+
+        Manufacturer modifiedManufacturer = manufacturer.toBuilder().country("UK").build();
+
+        Assert.assertEquals(modifiedManufacturer.getCountry(), "UK");
+        Assert.assertEquals(manufacturer.getCountry(), "USA");
+        Assert.assertFalse(modifiedManufacturer.isFrozen());
+    }
+}
@@ -37,5 +37,30 @@ public class SouvenirTest {
 
         Assert.assertEquals(souvenir1.hashCode(), souvenir2.hashCode());
     }
-}
 
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testFrozenRejectsChanges() {
+        Souvenir souvenir = new Souvenir("Keychain", 1, LocalDate.of(2023, 5, 15), 10.99).freeze();
+
+        souvenir.setPrice(12.49);
+    }
+
+    @Test
+    public void testToBuilder() {
+        Souvenir souvenir = new Souvenir("Keychain", 1, LocalDate.of(2023, 5, 15), 10.99).freeze();
+
+        Souvenir modifiedSouvenir = souvenir.toBuilder().price(12.49).build();
+
+        Assert.assertEquals(modifiedSouvenir, souvenir);
+        Assert.assertEquals(modifiedSouvenir.getPrice(), 12.49);
+        Assert.assertEquals(souvenir.getPrice(), 10.99);
+        Assert.assertFalse(modifiedSouvenir.isFrozen());
+    }
+
+    @Test
+    public void testCloneIsNotFrozen() {
+        Souvenir souvenir = new Souvenir("Keychain", 1, LocalDate.of(2023, 5, 15), 10.99).freeze();
+
+        Assert.assertFalse(souvenir.clone().isFrozen());
+    }
+}
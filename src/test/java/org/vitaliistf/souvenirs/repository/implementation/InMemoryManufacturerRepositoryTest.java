@@ -53,7 +53,7 @@ public class InMemoryManufacturerRepositoryTest {
     @Test(dataProvider = "manufacturerInput")
     public void testUpdate(Manufacturer manufacturer) {
         repository.add(manufacturer);
-        manufacturer.setId(1);
+        manufacturer.setId(idOf("Manufacturer1"));
         boolean result = repository.update(manufacturer);
 
         Assert.assertTrue(result);
@@ -74,7 +74,7 @@ public class InMemoryManufacturerRepositoryTest {
         Manufacturer manufacturer2 = new Manufacturer("Manufacturer2", "Country2");
         repository.add(manufacturer1);
         repository.add(manufacturer2);
-        manufacturer1.setId(1);
+        manufacturer1.setId(idOf("Manufacturer1"));
         manufacturer1.setName("Manufacturer2");
         boolean result = repository.update(manufacturer1);
 
@@ -86,7 +86,7 @@ public class InMemoryManufacturerRepositoryTest {
     public void testRemove(Manufacturer manufacturer) {
         repository.add(manufacturer);
 
-        boolean result = repository.remove(1L);
+        boolean result = repository.remove(idOf("Manufacturer1"));
 
         Assert.assertTrue(result);
         Assert.assertFalse(repository.getAll().contains(manufacturer));
@@ -106,7 +106,7 @@ public class InMemoryManufacturerRepositoryTest {
     public void testGetById(Manufacturer manufacturer) {
         repository.add(manufacturer);
 
-        Optional<Manufacturer> result = repository.getById(1L);
+        Optional<Manufacturer> result = repository.getById(idOf("Manufacturer1"));
 
         Assert.assertEquals(result, Optional.of(manufacturer));
     }
@@ -133,6 +133,69 @@ public class InMemoryManufacturerRepositoryTest {
         Assert.assertEquals(new HashSet<>(result), expected);
     }
 
+    @Test
+    public void testAddAll() {
+        repository.add(new Manufacturer("Manufacturer1", "Country1"));
+
+        List<Manufacturer> result = repository.addAll(List.of(
+                new Manufacturer("Manufacturer2", "Country2"),
+                new Manufacturer("Manufacturer1", "Country3")));
+
+        Assert.assertEquals(result.size(), 1);
+        Assert.assertEquals(result.get(0).getName(), "Manufacturer2");
+        Assert.assertEquals(repository.getById(result.get(0).getId()), Optional.of(result.get(0)));
+        Assert.assertEquals(repository.getAll().size(), 2);
+    }
+
+    @Test
+    public void testUpdateAll() {
+        List<Manufacturer> added = repository.addAll(List.of(
+                new Manufacturer("Manufacturer1", "Country1"),
+                new Manufacturer("Manufacturer2", "Country2")));
+        Manufacturer renamed = added.get(0).toBuilder().name("Manufacturer3").build();
+        Manufacturer duplicate = added.get(1).toBuilder().name("Manufacturer3").build();
+        Manufacturer missing = new Manufacturer("Manufacturer4", "Country4");
+        missing.setId(0);
+
+        List<Manufacturer> result = repository.updateAll(List.of(renamed, duplicate, missing));
+
+        Assert.assertEquals(result, List.of(renamed));
+        Assert.assertEquals(repository.getById(added.get(0).getId()).orElseThrow().getName(), "Manufacturer3");
+        Assert.assertEquals(repository.getById(added.get(1).getId()).orElseThrow().getName(), "Manufacturer2");
+    }
+
+    @Test
+    public void testRemoveAll() {
+        List<Manufacturer> added = repository.addAll(List.of(
+                new Manufacturer("Manufacturer1", "Country1"),
+                new Manufacturer("Manufacturer2", "Country2"),
+                new Manufacturer("Manufacturer3", "Country3")));
+
+        List<Manufacturer> result = repository.removeAll(List.of(added.get(2).getId(), added.get(0).getId(), 0L));
+
+        Assert.assertEquals(result, List.of(added.get(2), added.get(0)));
+        Assert.assertEquals(repository.getAll(), List.of(added.get(1)));
+    }
+
+    @Test
+    public void testGetPage() {
+        for (int i = 1; i <= 5; i++) {
+            repository.add(new Manufacturer("Manufacturer" + i, "Country1"));
+        }
+        List<Long> ids = repository.getAll().stream().map(Manufacturer::getId).sorted().toList();
+
+        List<Manufacturer> firstPage = repository.getPage(0L, 3);
+        List<Manufacturer> secondPage = repository.getPage(ids.get(2), 3);
+
+        Assert.assertEquals(firstPage.stream().map(Manufacturer::getId).toList(), ids.subList(0, 3));
+        Assert.assertEquals(secondPage.stream().map(Manufacturer::getId).toList(), ids.subList(3, 5));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetPageInvalidLimit() {
+        repository.getPage(0L, -1);
+    }
+
     @Test
     public void testGetByCountry() {
         Manufacturer manufacturer1 = new Manufacturer("Manufacturer1", "Country1");
@@ -152,5 +215,30 @@ public class InMemoryManufacturerRepositoryTest {
 
         Assert.assertTrue(result.isEmpty());
     }
-}
 
+    @Test
+    public void testGetCountriesSharesCountryStrings() {
+        repository.add(new Manufacturer("Manufacturer1", new String("Country1")));
+        repository.add(new Manufacturer("Manufacturer2", new String("Country1")));
+        repository.add(new Manufacturer("Manufacturer3", "Country2"));
+        Manufacturer movedManufacturer = repository.getByCountry("Country2").get(0).toBuilder()
+                .country(new String("Country1"))
+                .build();
+        repository.update(movedManufacturer);
+
+        List<Manufacturer> result = repository.getByCountry("Country1");
+
+        Assert.assertEquals(result.size(), 3);
+        Assert.assertSame(result.get(0).getCountry(), result.get(1).getCountry());
+        Assert.assertSame(result.get(0).getCountry(), result.get(2).getCountry());
+        Assert.assertEquals(repository.getCountries(), List.of("Country1"));
+    }
+
+    private long idOf(String name) {
+        return repository.getAll().stream()
+                .filter(manufacturer -> manufacturer.getName().equals(name))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+    }
+}
@@ -8,7 +8,9 @@ import org.testng.annotations.Test;
 import org.vitaliistf.souvenirs.model.Souvenir;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.stream.IntStream;
 
 public class InMemorySouvenirRepositoryTest {
 
@@ -51,10 +53,27 @@ public class InMemorySouvenirRepositoryTest {
         Assert.assertEquals(repository.getAll().size(), 1);
     }
 
+    @Test
+    public void testAddAll() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        long firstId = idOf("Souvenir1");
+
+        List<Souvenir> result = repository.addAll(List.of(
+                new Souvenir("Souvenir2", 1L, LocalDate.now(), 9.0),
+                new Souvenir("Souvenir1", 1L, LocalDate.now(), 11.0),
+                new Souvenir("Souvenir3", 2L, LocalDate.now(), 8.0),
+                new Souvenir("Souvenir2", 1L, LocalDate.now(), 7.0)));
+
+        Assert.assertEquals(result.stream().map(Souvenir::getName).toList(), List.of("Souvenir2", "Souvenir3"));
+        Assert.assertEquals(result.stream().map(Souvenir::getId).toList(), List.of(firstId + 1, firstId + 2));
+        Assert.assertEquals(repository.getAll().size(), 3);
+        Assert.assertEquals(repository.getByManufacturerId(2L), List.of(result.get(1)));
+    }
+
     @Test(dataProvider = "souvenirInput")
     public void testUpdate(Souvenir souvenir) {
         repository.add(souvenir);
-        souvenir.setId(1);
+        souvenir.setId(idOf("Souvenir1"));
         boolean result = repository.update(souvenir);
 
         Assert.assertTrue(result);
@@ -76,7 +95,7 @@ public class InMemorySouvenirRepositoryTest {
         repository.add(souvenir1);
         repository.add(souvenir2);
 
-        souvenir1.setId(1);
+        souvenir1.setId(idOf("Souvenir1"));
         souvenir1.setName("Souvenir2");
         souvenir1.setManufacturerId(1L);
 
@@ -90,7 +109,7 @@ public class InMemorySouvenirRepositoryTest {
     public void testRemove(Souvenir souvenir) {
         repository.add(souvenir);
 
-        boolean result = repository.remove(1L);
+        boolean result = repository.remove(idOf("Souvenir1"));
 
         Assert.assertTrue(result);
         Assert.assertFalse(repository.getAll().contains(souvenir));
@@ -108,11 +127,24 @@ public class InMemorySouvenirRepositoryTest {
     public void testGetById(Souvenir souvenir) {
         repository.add(souvenir);
 
-        Optional<Souvenir> result = repository.getById(1L);
+        Optional<Souvenir> result = repository.getById(idOf("Souvenir1"));
 
         Assert.assertEquals(result, Optional.of(souvenir));
     }
 
+    @Test
+    public void testGetByIdAfterUpdate() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        Souvenir updatedSouvenir = new Souvenir("Souvenir2", 1L, LocalDate.now(), 12.0);
+        updatedSouvenir.setId(idOf("Souvenir1"));
+        repository.update(updatedSouvenir);
+
+        Optional<Souvenir> result = repository.getById(updatedSouvenir.getId());
+
+        Assert.assertEquals(result, Optional.of(updatedSouvenir));
+        Assert.assertEquals(result.get().getPrice(), 12.0);
+    }
+
     @Test
     public void testGetByIdNonExisting() {
         Optional<Souvenir> result = repository.getById(1L);
@@ -135,6 +167,26 @@ public class InMemorySouvenirRepositoryTest {
         Assert.assertEquals(new HashSet<>(result), expected);
     }
 
+    @Test
+    public void testGetPage() {
+        for (int i = 1; i <= 5; i++) {
+            repository.add(new Souvenir("Souvenir" + i, 1L, LocalDate.now(), i));
+        }
+        List<Long> ids = repository.getAll().stream().map(Souvenir::getId).sorted().toList();
+
+        List<Souvenir> firstPage = repository.getPage(0L, 2);
+        List<Souvenir> lastPage = repository.getPage(ids.get(3), 2);
+
+        Assert.assertEquals(firstPage.stream().map(Souvenir::getId).toList(), ids.subList(0, 2));
+        Assert.assertEquals(lastPage.stream().map(Souvenir::getId).toList(), ids.subList(4, 5));
+        Assert.assertTrue(repository.getPage(ids.get(4), 2).isEmpty());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetPageInvalidLimit() {
+        repository.getPage(0L, 0);
+    }
+
     @Test
     public void testGetByName() {
         Souvenir souvenir1 = new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0);
@@ -170,5 +222,189 @@ public class InMemorySouvenirRepositoryTest {
     public void testGetByManufacturerIdNonExisting() {
         Assert.assertTrue(repository.getByManufacturerId(1L).isEmpty());
     }
-}
 
+    @Test
+    public void testGetByManufacturerIdAfterUpdate() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        Souvenir updatedSouvenir = new Souvenir("Souvenir1", 2L, LocalDate.now(), 10.0);
+        updatedSouvenir.setId(idOf("Souvenir1"));
+        repository.update(updatedSouvenir);
+
+        Assert.assertTrue(repository.getByManufacturerId(1L).isEmpty());
+        Assert.assertEquals(repository.getByManufacturerId(2L), List.of(updatedSouvenir));
+    }
+
+    @Test
+    public void testGetByManufacturerIds() {
+        Souvenir souvenir1 = new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0);
+        Souvenir souvenir2 = new Souvenir("Souvenir2", 2L, LocalDate.now(), 9.0);
+        repository.add(souvenir1);
+        repository.add(souvenir2);
+
+        Map<Long, List<Souvenir>> result = repository.getByManufacturerIds(List.of(1L, 3L));
+
+        Assert.assertEquals(result, Map.of(1L, List.of(souvenir1), 3L, List.of()));
+    }
+
+    @Test
+    public void testFindByNamePrefixAfterUpdate() {
+        repository.add(new Souvenir("Mug", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Music box", 1L, LocalDate.now(), 11.0));
+        Souvenir renamedSouvenir = new Souvenir("Cup", 1L, LocalDate.now(), 10.0);
+        renamedSouvenir.setId(idOf("Mug"));
+        repository.update(renamedSouvenir);
+
+        Assert.assertEquals(repository.findByNamePrefix("mu", 10).stream().map(Souvenir::getName).toList(),
+                List.of("Music box"));
+        Assert.assertEquals(repository.getByName("Cup"), List.of(renamedSouvenir));
+        Assert.assertTrue(repository.getByName("Mug").isEmpty());
+    }
+
+    @Test
+    public void testGetByPriceRange() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 20.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Souvenir3", 2L, LocalDate.now(), 30.0));
+        repository.add(new Souvenir("Souvenir4", 2L, LocalDate.now(), 10.0));
+        Souvenir repricedSouvenir = new Souvenir("Souvenir3", 2L, LocalDate.now(), 15.0);
+        repricedSouvenir.setId(idOf("Souvenir3"));
+        repository.update(repricedSouvenir);
+
+        List<Souvenir> result = repository.getByPriceRange(10.0, 15.0);
+
+        Assert.assertEquals(result.stream().map(Souvenir::getName).toList(),
+                List.of("Souvenir2", "Souvenir4", "Souvenir3"));
+        Assert.assertTrue(repository.getByPriceRange(25.0, 40.0).isEmpty());
+        Assert.assertTrue(repository.getByPriceRange(20.0, 10.0).isEmpty());
+    }
+
+    @Test
+    public void testGetCheapestAndMostExpensive() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 20.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Souvenir3", 2L, LocalDate.now(), 30.0));
+        repository.add(new Souvenir("Souvenir4", 2L, LocalDate.now(), 30.0));
+        repository.remove(idOf("Souvenir1"));
+
+        Assert.assertEquals(repository.getCheapest(2).stream().map(Souvenir::getName).toList(),
+                List.of("Souvenir2", "Souvenir3"));
+        Assert.assertEquals(repository.getMostExpensive(2).stream().map(Souvenir::getName).toList(),
+                List.of("Souvenir3", "Souvenir4"));
+        Assert.assertEquals(repository.getMostExpensive(10).size(), 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetCheapestInvalidLimit() {
+        repository.getCheapest(0);
+    }
+
+    @Test
+    public void testGetByProductionDates() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.of(2020, 5, 2), 10.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.of(2020, 5, 1), 11.0));
+        repository.add(new Souvenir("Souvenir3", 2L, LocalDate.of(2020, 6, 1), 12.0));
+        repository.add(new Souvenir("Souvenir4", 2L, null, 13.0));
+
+        List<Souvenir> result = repository.getByProductionDates(LocalDate.of(2020, 5, 1), LocalDate.of(2020, 5, 31));
+
+        Assert.assertEquals(result.stream().map(Souvenir::getName).toList(), List.of("Souvenir2", "Souvenir1"));
+        Assert.assertTrue(repository.getByProductionDates(LocalDate.of(2021, 1, 1), LocalDate.of(2020, 1, 1))
+                .isEmpty());
+    }
+
+    @Test
+    public void testCountByProductionMonthAndYear() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.of(2019, 12, 31), 10.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.of(2020, 1, 1), 11.0));
+        repository.add(new Souvenir("Souvenir3", 2L, LocalDate.of(2020, 1, 20), 12.0));
+        repository.add(new Souvenir("Souvenir4", 2L, LocalDate.of(2021, 1, 1), 13.0));
+        repository.remove(idOf("Souvenir3"));
+        LocalDate from = LocalDate.of(2019, 1, 1);
+        LocalDate to = LocalDate.of(2020, 12, 31);
+
+        Assert.assertEquals(repository.countByProductionMonth(from, to),
+                Map.of(YearMonth.of(2019, 12), 1L, YearMonth.of(2020, 1), 1L));
+        Assert.assertEquals(repository.countByProductionYear(from, to), Map.of(2019, 1L, 2020, 1L));
+    }
+
+    @Test
+    public void testUpdateAll() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.now(), 20.0));
+        Souvenir moved = new Souvenir("Souvenir1", 2L, LocalDate.now(), 30.0);
+        moved.setId(idOf("Souvenir1"));
+        Souvenir duplicate = new Souvenir("Souvenir1", 2L, LocalDate.now(), 5.0);
+        duplicate.setId(idOf("Souvenir2"));
+
+        List<Souvenir> result = repository.updateAll(List.of(moved, duplicate));
+
+        Assert.assertEquals(result, List.of(moved));
+        Assert.assertEquals(repository.getByManufacturerId(2L), List.of(moved));
+        Assert.assertEquals(repository.getById(duplicate.getId()).orElseThrow().getPrice(), 20.0);
+        Assert.assertEquals(repository.getManufacturerIdsWithPriceAbove(25.0), Set.of(2L));
+    }
+
+    @Test
+    public void testRemoveAll() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.of(2020, 1, 1), 10.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.of(2020, 1, 1), 30.0));
+        repository.add(new Souvenir("Souvenir3", 2L, LocalDate.of(2021, 1, 1), 20.0));
+
+        long id1 = idOf("Souvenir1");
+        long id2 = idOf("Souvenir2");
+
+        List<Souvenir> result = repository.removeAll(List.of(id2, id1, id2, 0L));
+
+        Assert.assertEquals(result.stream().map(Souvenir::getId).toList(), List.of(id2, id1));
+        Assert.assertTrue(repository.getByManufacturerId(1L).isEmpty());
+        Assert.assertEquals(repository.getManufacturerIdsWithPriceAbove(0.0), Set.of(2L));
+        Assert.assertEquals(repository.getByProductionYears(2020, 2021).keySet(), Set.of(2021));
+        Assert.assertEquals(repository.getAll().size(), 1);
+    }
+
+    @Test(dataProvider = "souvenirInput")
+    public void testGetByIdReturnsFrozenSouvenir(Souvenir souvenir) {
+        repository.add(souvenir);
+
+        long id = idOf("Souvenir1");
+
+        Souvenir result = repository.getById(id).orElseThrow();
+
+        Assert.assertTrue(result.isFrozen());
+        Assert.assertSame(repository.getById(id).orElseThrow(), result);
+        Assert.assertFalse(souvenir.isFrozen());
+    }
+
+    @Test
+    public void testConcurrentAdd() {
+        IntStream.range(0, 200).parallel()
+                .forEach(i -> repository.add(new Souvenir("Souvenir" + i, i % 10L, LocalDate.now(), i)));
+
+        List<Souvenir> result = repository.getAll();
+
+        Assert.assertEquals(result.size(), 200);
+        Assert.assertEquals(result.stream().map(Souvenir::getId).distinct().count(), 200L);
+        Assert.assertEquals(repository.getByManufacturerId(3L).size(), 20);
+    }
+
+    @Test
+    public void testConcurrentUpdateAndRead() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        long id = idOf("Souvenir1");
+
+        IntStream.range(0, 200).parallel().forEach(i -> {
+            if (i % 2 == 0) {
+                Souvenir updatedSouvenir = new Souvenir("Souvenir1", 1L, LocalDate.now(), i);
+                updatedSouvenir.setId(id);
+                repository.update(updatedSouvenir);
+            } else {
+                Assert.assertTrue(repository.getById(id).isPresent());
+                Assert.assertEquals(repository.getByManufacturerId(1L).size(), 1);
+            }
+        });
+    }
+
+    private long idOf(String name) {
+        return repository.getByName(name).get(0).getId();
+    }
+}
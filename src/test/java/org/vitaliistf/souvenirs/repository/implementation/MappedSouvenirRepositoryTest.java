@@ -0,0 +1,397 @@
+package org.vitaliistf.souvenirs.repository.implementation;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+public class MappedSouvenirRepositoryTest {
+
+    private Path directory;
+    private MappedSouvenirRepository repository;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("mapped-souvenirs");
+        repository = new MappedSouvenirRepository(directory);
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        repository.close();
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    @Test
+    public void testAdd() {
+        Souvenir souvenir = new Souvenir("Souvenir1", 1L, LocalDate.of(2020, 5, 1), 10.0);
+
+        boolean result = repository.add(souvenir);
+
+        Assert.assertTrue(result);
+        Souvenir added = repository.getById(1L).orElseThrow();
+        Assert.assertEquals(added, souvenir);
+        Assert.assertEquals(added.getProductionDate(), LocalDate.of(2020, 5, 1));
+        Assert.assertEquals(added.getPrice(), 10.0);
+    }
+
+    @Test
+    public void testAddDuplicate() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+
+        boolean result = repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 12.0));
+
+        Assert.assertFalse(result);
+        Assert.assertEquals(repository.getAll().size(), 1);
+    }
+
+    @Test
+    public void testAddWithoutProductionDate() {
+        repository.add(new Souvenir("Souvenir1", 1L, null, 10.0));
+
+        Assert.assertNull(repository.getById(1L).orElseThrow().getProductionDate());
+    }
+
+    @Test
+    public void testUpdate() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        Souvenir updated = souvenir(1L, "Renamed", 2L, LocalDate.of(2019, 1, 1), 20.0);
+
+        boolean result = repository.update(updated);
+
+        Assert.assertTrue(result);
+        Souvenir souvenir = repository.getById(1L).orElseThrow();
+        Assert.assertEquals(souvenir.getName(), "Renamed");
+        Assert.assertEquals(souvenir.getPrice(), 20.0);
+        Assert.assertTrue(repository.getByManufacturerId(1L).isEmpty());
+        Assert.assertEquals(repository.getByManufacturerId(2L), List.of(updated));
+    }
+
+    @Test
+    public void testUpdateDuplicate() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.now(), 9.0));
+
+        boolean result = repository.update(souvenir(1L, "Souvenir2", 1L, LocalDate.now(), 10.0));
+
+        Assert.assertFalse(result);
+        Assert.assertEquals(repository.getById(1L).orElseThrow().getName(), "Souvenir1");
+    }
+
+    @Test
+    public void testUpdateNonExisting() {
+        boolean result = repository.update(souvenir(5L, "Souvenir1", 1L, LocalDate.now(), 10.0));
+
+        Assert.assertFalse(result);
+        Assert.assertTrue(repository.getAll().isEmpty());
+    }
+
+    @Test
+    public void testRemoveMovesLastRow() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Souvenir2", 2L, LocalDate.now(), 11.0));
+        repository.add(new Souvenir("Souvenir3", 1L, LocalDate.now(), 12.0));
+
+        boolean result = repository.remove(1L);
+
+        Assert.assertTrue(result);
+        Assert.assertFalse(repository.remove(1L));
+        Assert.assertTrue(repository.getById(1L).isEmpty());
+        Assert.assertEquals(repository.getById(3L).orElseThrow().getName(), "Souvenir3");
+        Assert.assertEquals(repository.getByManufacturerId(1L).size(), 1);
+        Assert.assertEquals(repository.getByName("Souvenir3").get(0).getId(), 3L);
+        Assert.assertEquals(repository.getAll().size(), 2);
+    }
+
+    @Test
+    public void testAddAll() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+
+        List<Souvenir> result = repository.addAll(List.of(
+                new Souvenir("Souvenir2", 1L, LocalDate.of(2020, 1, 1), 30.0),
+                new Souvenir("Souvenir1", 1L, LocalDate.now(), 11.0),
+                new Souvenir("Souvenir2", 1L, LocalDate.now(), 12.0),
+                new Souvenir("Souvenir1", 2L, LocalDate.now(), 13.0)));
+
+        Assert.assertEquals(result.stream().map(Souvenir::getId).toList(), List.of(2L, 3L));
+        Assert.assertEquals(repository.getById(2L).orElseThrow().getProductionDate(), LocalDate.of(2020, 1, 1));
+        Assert.assertEquals(repository.getByManufacturerId(1L).size(), 2);
+        Assert.assertEquals(repository.getManufacturerIdsWithPriceAbove(20.0), Set.of(1L));
+        Assert.assertEquals(repository.getAll().size(), 3);
+    }
+
+    @Test
+    public void testUpdateAll() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.now(), 20.0));
+        Souvenir moved = new Souvenir("Souvenir1", 2L, LocalDate.now(), 30.0);
+        moved.setId(1);
+        Souvenir duplicate = new Souvenir("Souvenir1", 2L, LocalDate.now(), 5.0);
+        duplicate.setId(2);
+
+        List<Souvenir> result = repository.updateAll(List.of(moved, duplicate));
+
+        Assert.assertEquals(result, List.of(moved));
+        Assert.assertEquals(repository.getByManufacturerId(2L), List.of(moved));
+        Assert.assertEquals(repository.getById(2L).orElseThrow().getPrice(), 20.0);
+        Assert.assertEquals(repository.getManufacturerIdsWithPriceAbove(15.0), Set.of(1L, 2L));
+        Assert.assertEquals(repository.getManufacturerIdsWithPriceAbove(25.0), Set.of(2L));
+    }
+
+    @Test
+    public void testRemoveAllFillsRemovedRows() {
+        for (int i = 1; i <= 6; i++) {
+            repository.add(new Souvenir("Souvenir" + i, i % 2 == 0 ? 2L : 1L, LocalDate.now(), i));
+        }
+
+        List<Souvenir> result = repository.removeAll(List.of(1L, 3L, 6L, 3L, 100L));
+
+        Assert.assertEquals(result.stream().map(Souvenir::getId).toList(), List.of(1L, 3L, 6L));
+        Assert.assertEquals(repository.getAll().stream().map(Souvenir::getId).sorted().toList(),
+                List.of(2L, 4L, 5L));
+        Assert.assertEquals(repository.getByManufacturerId(1L).stream().map(Souvenir::getId).toList(),
+                List.of(5L));
+        Assert.assertEquals(repository.getById(4L).orElseThrow().getName(), "Souvenir4");
+        Assert.assertEquals(repository.getManufacturerIdsWithPriceAbove(4.5), Set.of(1L));
+        Assert.assertTrue(repository.remove(5L));
+        Assert.assertTrue(repository.remove(2L));
+        Assert.assertEquals(repository.getAll().stream().map(Souvenir::getId).toList(), List.of(4L));
+    }
+
+    @Test
+    public void testGetPageSkipsRemovedIds() {
+        for (int i = 1; i <= 5; i++) {
+            repository.add(new Souvenir("Souvenir" + i, 1L, LocalDate.now(), i));
+        }
+        repository.remove(2L);
+
+        List<Souvenir> firstPage = repository.getPage(0L, 2);
+        List<Souvenir> secondPage = repository.getPage(3L, 2);
+
+        Assert.assertEquals(firstPage.stream().map(Souvenir::getId).toList(), List.of(1L, 3L));
+        Assert.assertEquals(secondPage.stream().map(Souvenir::getId).toList(), List.of(4L, 5L));
+        Assert.assertTrue(repository.getPage(5L, 2).isEmpty());
+    }
+
+    @Test
+    public void testGetByManufacturerIds() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Souvenir2", 2L, LocalDate.now(), 11.0));
+
+        Map<Long, List<Souvenir>> result = repository.getByManufacturerIds(Set.of(1L, 3L));
+
+        Assert.assertEquals(result.get(1L).size(), 1);
+        Assert.assertTrue(result.get(3L).isEmpty());
+    }
+
+    @Test
+    public void testFindByNamePrefix() {
+        repository.add(new Souvenir("Music box", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("mug", 2L, LocalDate.now(), 11.0));
+        repository.add(new Souvenir("Magnet", 1L, LocalDate.now(), 12.0));
+        repository.add(new Souvenir("Mug", 1L, LocalDate.now(), 13.0));
+
+        List<Souvenir> result = repository.findByNamePrefix("MU", 2);
+
+        Assert.assertEquals(result.stream().map(Souvenir::getId).toList(), List.of(2L, 4L));
+        Assert.assertEquals(repository.findByNamePrefix("m", 10).size(), 4);
+    }
+
+    @Test
+    public void testGetManufacturerIdsWithPriceAbove() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.now(), 30.0));
+        repository.add(new Souvenir("Souvenir3", 2L, LocalDate.now(), 20.0));
+
+        repository.remove(2L);
+        repository.update(souvenir(3L, "Souvenir3", 1L, LocalDate.now(), 25.0));
+
+        Assert.assertEquals(repository.getManufacturerIdsWithPriceAbove(10.0), Set.of(1L));
+        Assert.assertTrue(repository.getManufacturerIdsWithPriceAbove(25.0).isEmpty());
+    }
+
+    @Test
+    public void testGetByPriceRange() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 20.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Souvenir3", 2L, LocalDate.now(), 30.0));
+        repository.add(new Souvenir("Souvenir4", 2L, LocalDate.now(), 10.0));
+        Souvenir repricedSouvenir = new Souvenir("Souvenir3", 2L, LocalDate.now(), 15.0);
+        repricedSouvenir.setId(3);
+        repository.update(repricedSouvenir);
+
+        List<Souvenir> result = repository.getByPriceRange(10.0, 15.0);
+
+        Assert.assertEquals(result.stream().map(Souvenir::getId).toList(), List.of(2L, 4L, 3L));
+        Assert.assertTrue(repository.getByPriceRange(25.0, 40.0).isEmpty());
+        Assert.assertTrue(repository.getByPriceRange(20.0, 10.0).isEmpty());
+    }
+
+    @Test
+    public void testGetCheapestAndMostExpensive() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 20.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Souvenir3", 2L, LocalDate.now(), 30.0));
+        repository.add(new Souvenir("Souvenir4", 2L, LocalDate.now(), 30.0));
+        repository.remove(1L);
+
+        Assert.assertEquals(repository.getCheapest(2).stream().map(Souvenir::getId).toList(), List.of(2L, 3L));
+        Assert.assertEquals(repository.getMostExpensive(2).stream().map(Souvenir::getId).toList(), List.of(3L, 4L));
+        Assert.assertEquals(repository.getMostExpensive(10).size(), 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetCheapestInvalidLimit() {
+        repository.getCheapest(0);
+    }
+
+    @Test
+    public void testGetByProductionDates() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.of(2020, 5, 2), 10.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.of(2020, 5, 1), 11.0));
+        repository.add(new Souvenir("Souvenir3", 2L, LocalDate.of(2020, 6, 1), 12.0));
+        repository.add(new Souvenir("Souvenir4", 2L, null, 13.0));
+
+        List<Souvenir> result = repository.getByProductionDates(LocalDate.of(2020, 5, 1), LocalDate.of(2020, 5, 31));
+
+        Assert.assertEquals(result.stream().map(Souvenir::getId).toList(), List.of(2L, 1L));
+        Assert.assertTrue(repository.getByProductionDates(LocalDate.of(2021, 1, 1), LocalDate.of(2020, 1, 1))
+                .isEmpty());
+    }
+
+    @Test
+    public void testCountByProductionMonthAndYear() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.of(2019, 12, 31), 10.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.of(2020, 1, 1), 11.0));
+        repository.add(new Souvenir("Souvenir3", 2L, LocalDate.of(2020, 1, 20), 12.0));
+        repository.add(new Souvenir("Souvenir4", 2L, LocalDate.of(2021, 1, 1), 13.0));
+        repository.remove(3L);
+        LocalDate from = LocalDate.of(2019, 1, 1);
+        LocalDate to = LocalDate.of(2020, 12, 31);
+
+        Assert.assertEquals(repository.countByProductionMonth(from, to),
+                Map.of(YearMonth.of(2019, 12), 1L, YearMonth.of(2020, 1), 1L));
+        Assert.assertEquals(repository.countByProductionYear(from, to), Map.of(2019, 1L, 2020, 1L));
+    }
+
+    @Test
+    public void testGetByProductionYears() {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.of(2020, 1, 1), 10.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.of(2021, 12, 31), 11.0));
+        repository.add(new Souvenir("Souvenir3", 2L, LocalDate.of(2022, 1, 1), 12.0));
+        repository.add(new Souvenir("Souvenir4", 2L, null, 13.0));
+
+        Map<Integer, List<Souvenir>> result = repository.getByProductionYears(2021, 2022);
+
+        Assert.assertEquals(List.copyOf(result.keySet()), List.of(2021, 2022));
+        Assert.assertEquals(result.get(2021).get(0).getName(), "Souvenir2");
+        Assert.assertEquals(repository.getByProductionYears(Integer.MIN_VALUE, Integer.MAX_VALUE).size(), 3);
+    }
+
+    @Test
+    public void testReopen() throws IOException {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Сувенір", 2L, LocalDate.now(), 11.0));
+        repository.remove(1L);
+        repository.close();
+
+        repository = new MappedSouvenirRepository(directory);
+
+        Assert.assertEquals(repository.getAll().size(), 1);
+        Assert.assertEquals(repository.getByManufacturerId(2L).get(0).getName(), "Сувенір");
+        Assert.assertTrue(repository.add(new Souvenir("Souvenir3", 1L, LocalDate.now(), 12.0)));
+        Assert.assertTrue(repository.getById(3L).isPresent());
+    }
+
+    @Test
+    public void testReopenDoesNotReuseRemovedIds() throws IOException {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.now(), 11.0));
+        repository.remove(2L);
+        repository.remove(1L);
+        repository.close();
+
+        repository = new MappedSouvenirRepository(directory);
+        repository.add(new Souvenir("Souvenir3", 1L, LocalDate.now(), 12.0));
+
+        Assert.assertEquals(repository.getByName("Souvenir3").get(0).getId(), 3L);
+    }
+
+    @Test
+    public void testGrowAndCompact() {
+        int count = 20_000;
+        String suffix = "x".repeat(100);
+        for (int i = 0; i < count; i++) {
+            repository.add(new Souvenir("Souvenir" + i + suffix, i % 10, LocalDate.now(), i));
+        }
+        for (long id = 2; id <= count; id += 4) {
+            repository.update(souvenir(id, "Renamed" + id, 0L, LocalDate.now(), 1.0));
+        }
+        for (long id = 1; id <= count; id += 2) {
+            repository.remove(id);
+        }
+
+        Assert.assertEquals(repository.getAll().size(), count / 2);
+        Assert.assertEquals(repository.getById(2L).orElseThrow().getName(), "Renamed2");
+        Assert.assertEquals(repository.getById(4L).orElseThrow().getName(), "Souvenir3" + suffix);
+        Assert.assertTrue(Files.exists(directory.resolve("names.heap")));
+        Assert.assertTrue(directory.resolve("names.heap").toFile().length() < (long) count * suffix.length());
+    }
+
+    @Test
+    public void testReopenDiscardsUncommittedCompaction() throws IOException {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        repository.close();
+        Files.write(directory.resolve("names.heap.tmp"), new byte[16]);
+        Files.write(directory.resolve("name-offsets.col.tmp"), new byte[16]);
+
+        repository = new MappedSouvenirRepository(directory);
+
+        Assert.assertEquals(repository.getById(1L).orElseThrow().getName(), "Souvenir1");
+        Assert.assertFalse(Files.exists(directory.resolve("names.heap.tmp")));
+        Assert.assertFalse(Files.exists(directory.resolve("name-offsets.col.tmp")));
+    }
+
+    @Test
+    public void testReopenFinishesCommittedCompaction() throws IOException {
+        repository.add(new Souvenir("Souvenir1", 1L, LocalDate.now(), 10.0));
+        repository.add(new Souvenir("Souvenir2", 1L, LocalDate.now(), 11.0));
+        repository.close();
+        // The names file is already replaced, only the name offsets are left to move into place
+        Files.move(directory.resolve("name-offsets.col"), directory.resolve("name-offsets.col.tmp"));
+
+        repository = new MappedSouvenirRepository(directory);
+
+        Assert.assertEquals(repository.getById(2L).orElseThrow().getName(), "Souvenir2");
+        Assert.assertFalse(Files.exists(directory.resolve("name-offsets.col.tmp")));
+        Assert.assertTrue(repository.add(new Souvenir("Souvenir3", 1L, LocalDate.now(), 12.0)));
+        Assert.assertEquals(repository.getByName("Souvenir3").get(0).getManufacturerId(), 1L);
+    }
+
+    private static Souvenir souvenir(long id, String name, long manufacturerId, LocalDate productionDate,
+                                     double price) {
+        return Souvenir.builder()
+                .id(id)
+                .name(name)
+                .manufacturerId(manufacturerId)
+                .productionDate(productionDate)
+                .price(price)
+                .build();
+    }
+}
@@ -0,0 +1,83 @@
+package org.vitaliistf.souvenirs.repository.index;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.vitaliistf.souvenirs.model.Manufacturer;
+
+import java.util.List;
+
+public class CountryIndexTest {
+
+    private CountryIndex index;
+
+    @BeforeMethod
+    public void setUp() {
+        index = new CountryIndex();
+    }
+
+    @Test
+    public void testAdd() {
+        Manufacturer manufacturer1 = createManufacturer(1, "Ukraine");
+        Manufacturer manufacturer2 = createManufacturer(2, "Poland");
+        Manufacturer manufacturer3 = createManufacturer(3, "Ukraine");
+        index.add(manufacturer3);
+        index.add(manufacturer1);
+        index.add(manufacturer2);
+
+        Assert.assertEquals(index.get("Ukraine"), List.of(manufacturer1, manufacturer3));
+        Assert.assertTrue(index.get("Germany").isEmpty());
+        Assert.assertEquals(index.getCountries(), List.of("Poland", "Ukraine"));
+    }
+
+    @Test
+    public void testCanonical() {
+        String country = index.canonical(new String("Ukraine"));
+
+        Assert.assertSame(index.canonical(new String("Ukraine")), country);
+        Assert.assertNull(index.canonical(null));
+        Assert.assertTrue(index.getCountries().isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        Manufacturer manufacturer = createManufacturer(1, "Ukraine");
+        index.add(manufacturer);
+
+        index.remove(manufacturer);
+
+        Assert.assertTrue(index.get("Ukraine").isEmpty());
+        Assert.assertTrue(index.getCountries().isEmpty());
+    }
+
+    @Test
+    public void testUpdate() {
+        Manufacturer manufacturer = createManufacturer(1, "Ukraine");
+        Manufacturer renamedManufacturer = createManufacturer(1, "Ukraine");
+        renamedManufacturer.setName("Renamed");
+        Manufacturer movedManufacturer = createManufacturer(1, "Poland");
+        index.add(manufacturer);
+
+        index.update(manufacturer, renamedManufacturer);
+
+        Assert.assertEquals(index.get("Ukraine"), List.of(renamedManufacturer));
+
+        index.update(renamedManufacturer, movedManufacturer);
+
+        Assert.assertTrue(index.get("Ukraine").isEmpty());
+        Assert.assertEquals(index.get("Poland"), List.of(movedManufacturer));
+    }
+
+    @Test
+    public void testWithoutCountry() {
+        index.add(createManufacturer(1, null));
+
+        Assert.assertTrue(index.getCountries().isEmpty());
+    }
+
+    private Manufacturer createManufacturer(long id, String country) {
+        Manufacturer manufacturer = new Manufacturer("Manufacturer" + id, country);
+        manufacturer.setId(id);
+        return manufacturer;
+    }
+}
@@ -0,0 +1,72 @@
+package org.vitaliistf.souvenirs.repository.index;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+public class ManufacturerIdIndexTest {
+
+    private ManufacturerIdIndex index;
+
+    @BeforeMethod
+    public void setUp() {
+        index = new ManufacturerIdIndex();
+    }
+
+    @Test
+    public void testAdd() {
+        index.add(createSouvenir(1, 1L));
+        index.add(createSouvenir(2, 1L));
+        index.add(createSouvenir(3, 2L));
+
+        Assert.assertEquals(index.get(1L), Set.of(1L, 2L));
+        Assert.assertEquals(index.get(2L), Set.of(3L));
+    }
+
+    @Test
+    public void testRemove() {
+        Souvenir souvenir = createSouvenir(1, 1L);
+        index.add(souvenir);
+        index.add(createSouvenir(2, 1L));
+
+        index.remove(souvenir);
+
+        Assert.assertEquals(index.get(1L), Set.of(2L));
+    }
+
+    @Test
+    public void testUpdate() {
+        Souvenir souvenir = createSouvenir(1, 1L);
+        index.add(souvenir);
+
+        index.update(souvenir, createSouvenir(1, 2L));
+
+        Assert.assertTrue(index.get(1L).isEmpty());
+        Assert.assertEquals(index.get(2L), Set.of(1L));
+    }
+
+    @Test
+    public void testUpdateSameManufacturer() {
+        Souvenir souvenir = createSouvenir(1, 1L);
+        index.add(souvenir);
+
+        index.update(souvenir, createSouvenir(1, 1L));
+
+        Assert.assertEquals(index.get(1L), Set.of(1L));
+    }
+
+    @Test
+    public void testGetNonExisting() {
+        Assert.assertTrue(index.get(1L).isEmpty());
+    }
+
+    private Souvenir createSouvenir(long id, long manufacturerId) {
+        Souvenir souvenir = new Souvenir("Souvenir" + id, manufacturerId, LocalDate.now(), 10.0);
+        souvenir.setId(id);
+        return souvenir;
+    }
+}
@@ -0,0 +1,81 @@
+package org.vitaliistf.souvenirs.repository.index;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+public class MaxPriceIndexTest {
+
+    private MaxPriceIndex index;
+
+    @BeforeMethod
+    public void setUp() {
+        index = new MaxPriceIndex();
+    }
+
+    @Test
+    public void testAdd() {
+        index.add(createSouvenir(1, 1L, 10.0));
+        index.add(createSouvenir(2, 1L, 30.0));
+        index.add(createSouvenir(3, 2L, 20.0));
+
+        Assert.assertEquals(index.getAbove(15.0), Set.of(1L, 2L));
+        Assert.assertEquals(index.getAbove(20.0), Set.of(1L));
+        Assert.assertTrue(index.getAbove(30.0).isEmpty());
+    }
+
+    @Test
+    public void testRemoveMaxPrice() {
+        Souvenir souvenir = createSouvenir(2, 1L, 30.0);
+        index.add(createSouvenir(1, 1L, 10.0));
+        index.add(souvenir);
+
+        index.remove(souvenir);
+
+        Assert.assertTrue(index.getAbove(10.0).isEmpty());
+        Assert.assertEquals(index.getAbove(5.0), Set.of(1L));
+    }
+
+    @Test
+    public void testRemoveDuplicatePrice() {
+        Souvenir souvenir = createSouvenir(1, 1L, 30.0);
+        index.add(souvenir);
+        index.add(createSouvenir(2, 1L, 30.0));
+
+        index.remove(souvenir);
+
+        Assert.assertEquals(index.getAbove(20.0), Set.of(1L));
+    }
+
+    @Test
+    public void testRemoveLastSouvenir() {
+        Souvenir souvenir = createSouvenir(1, 1L, 30.0);
+        index.add(souvenir);
+
+        index.remove(souvenir);
+
+        Assert.assertTrue(index.getAbove(0.0).isEmpty());
+    }
+
+    @Test
+    public void testUpdate() {
+        Souvenir souvenir = createSouvenir(1, 1L, 30.0);
+        index.add(souvenir);
+        index.add(createSouvenir(2, 2L, 10.0));
+
+        index.update(souvenir, createSouvenir(1, 2L, 5.0));
+
+        Assert.assertTrue(index.getAbove(10.0).isEmpty());
+        Assert.assertEquals(index.getAbove(5.0), Set.of(2L));
+    }
+
+    private Souvenir createSouvenir(long id, long manufacturerId, double price) {
+        Souvenir souvenir = new Souvenir("Souvenir" + id, manufacturerId, LocalDate.now(), price);
+        souvenir.setId(id);
+        return souvenir;
+    }
+}
@@ -0,0 +1,83 @@
+package org.vitaliistf.souvenirs.repository.index;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class NameIndexTest {
+
+    private NameIndex index;
+
+    @BeforeMethod
+    public void setUp() {
+        index = new NameIndex();
+    }
+
+    @Test
+    public void testGet() {
+        Souvenir souvenir1 = createSouvenir(1, "Mug", 1L);
+        Souvenir souvenir2 = createSouvenir(2, "Mug", 2L);
+        index.add(souvenir2);
+        index.add(souvenir1);
+        index.add(createSouvenir(3, "mug", 1L));
+
+        Assert.assertEquals(index.get("Mug"), List.of(souvenir1, souvenir2));
+        Assert.assertTrue(index.get("Cup").isEmpty());
+    }
+
+    @Test
+    public void testGetByPrefix() {
+        Souvenir mug = createSouvenir(1, "Mug", 1L);
+        Souvenir lowerCaseMug = createSouvenir(2, "mug", 2L);
+        Souvenir musicBox = createSouvenir(3, "Music box", 1L);
+        index.add(musicBox);
+        index.add(mug);
+        index.add(lowerCaseMug);
+        index.add(createSouvenir(4, "Magnet", 1L));
+
+        Assert.assertEquals(index.getByPrefix("MU", 10), List.of(mug, lowerCaseMug, musicBox));
+        Assert.assertEquals(index.getByPrefix("mu", 2), List.of(mug, lowerCaseMug));
+        Assert.assertEquals(index.getByPrefix("", 10).size(), 4);
+        Assert.assertTrue(index.getByPrefix("mux", 10).isEmpty());
+        Assert.assertTrue(index.getByPrefix("mu", 0).isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        Souvenir souvenir = createSouvenir(1, "Mug", 1L);
+        index.add(souvenir);
+
+        index.remove(souvenir);
+
+        Assert.assertTrue(index.get("Mug").isEmpty());
+        Assert.assertTrue(index.getByPrefix("m", 10).isEmpty());
+    }
+
+    @Test
+    public void testUpdate() {
+        Souvenir souvenir = createSouvenir(1, "Mug", 1L);
+        Souvenir recasedSouvenir = createSouvenir(1, "MUG", 1L);
+        Souvenir renamedSouvenir = createSouvenir(1, "Cup", 1L);
+        index.add(souvenir);
+
+        index.update(souvenir, recasedSouvenir);
+
+        Assert.assertTrue(index.get("Mug").isEmpty());
+        Assert.assertEquals(index.getByPrefix("mug", 10), List.of(recasedSouvenir));
+
+        index.update(recasedSouvenir, renamedSouvenir);
+
+        Assert.assertTrue(index.getByPrefix("mug", 10).isEmpty());
+        Assert.assertEquals(index.get("Cup"), List.of(renamedSouvenir));
+    }
+
+    private Souvenir createSouvenir(long id, String name, long manufacturerId) {
+        Souvenir souvenir = new Souvenir(name, manufacturerId, LocalDate.of(2020, 6, 1), 10.0);
+        souvenir.setId(id);
+        return souvenir;
+    }
+}
@@ -0,0 +1,82 @@
+package org.vitaliistf.souvenirs.repository.index;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public class PriceIndexTest {
+
+    private PriceIndex index;
+
+    @BeforeMethod
+    public void setUp() {
+        index = new PriceIndex();
+    }
+
+    @Test
+    public void testGetBetween() {
+        Souvenir souvenir1 = createSouvenir(1, 20.0);
+        Souvenir souvenir2 = createSouvenir(2, 10.0);
+        Souvenir souvenir3 = createSouvenir(3, 10.0);
+        index.add(souvenir3);
+        index.add(souvenir1);
+        index.add(souvenir2);
+        index.add(createSouvenir(4, 30.0));
+
+        Assert.assertEquals(index.getBetween(10.0, 20.0), List.of(souvenir2, souvenir3, souvenir1));
+        Assert.assertTrue(index.getBetween(21.0, 29.0).isEmpty());
+        Assert.assertTrue(index.getBetween(20.0, 10.0).isEmpty());
+    }
+
+    @Test
+    public void testGetCheapestAndMostExpensive() {
+        Souvenir souvenir1 = createSouvenir(1, 20.0);
+        Souvenir souvenir2 = createSouvenir(2, 10.0);
+        Souvenir souvenir3 = createSouvenir(3, 30.0);
+        index.add(souvenir1);
+        index.add(souvenir2);
+        index.add(souvenir3);
+
+        Assert.assertEquals(index.getCheapest(2), List.of(souvenir2, souvenir1));
+        Assert.assertEquals(index.getMostExpensive(2), List.of(souvenir3, souvenir1));
+        Assert.assertEquals(index.getCheapest(5).size(), 3);
+        Assert.assertTrue(index.getMostExpensive(0).isEmpty());
+    }
+
+    @Test
+    public void testRemove() {
+        Souvenir souvenir = createSouvenir(1, 10.0);
+        index.add(souvenir);
+
+        index.remove(souvenir);
+
+        Assert.assertTrue(index.getCheapest(10).isEmpty());
+    }
+
+    @Test
+    public void testUpdate() {
+        Souvenir souvenir = createSouvenir(1, 10.0);
+        Souvenir renamedSouvenir = createSouvenir(1, 10.0);
+        renamedSouvenir.setName("Renamed");
+        Souvenir repricedSouvenir = createSouvenir(1, 25.0);
+        index.add(souvenir);
+
+        index.update(souvenir, renamedSouvenir);
+
+        Assert.assertEquals(index.getBetween(10.0, 10.0), List.of(renamedSouvenir));
+
+        index.update(renamedSouvenir, repricedSouvenir);
+
+        Assert.assertEquals(index.getCheapest(10), List.of(repricedSouvenir));
+    }
+
+    private Souvenir createSouvenir(long id, double price) {
+        Souvenir souvenir = new Souvenir("Souvenir" + id, 1L, LocalDate.of(2020, 6, 1), price);
+        souvenir.setId(id);
+        return souvenir;
+    }
+}
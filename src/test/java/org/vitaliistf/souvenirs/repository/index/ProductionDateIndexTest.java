@@ -0,0 +1,150 @@
+package org.vitaliistf.souvenirs.repository.index;
+
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.vitaliistf.souvenirs.model.Souvenir;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+public class ProductionDateIndexTest {
+
+    private ProductionDateIndex index;
+
+    @BeforeMethod
+    public void setUp() {
+        index = new ProductionDateIndex();
+    }
+
+    @Test
+    public void testAdd() {
+        Souvenir souvenir1 = createSouvenir(1, 2020);
+        Souvenir souvenir2 = createSouvenir(2, 2022);
+        index.add(souvenir1);
+        index.add(souvenir2);
+        index.add(createSouvenir(3, 2024));
+
+        Map<Integer, List<Souvenir>> result = index.get(2019, 2023);
+
+        Assert.assertEquals(result, Map.of(2020, List.of(souvenir1), 2022, List.of(souvenir2)));
+        Assert.assertEquals(List.copyOf(index.get(2000, 2030).keySet()), List.of(2020, 2022, 2024));
+    }
+
+    @Test
+    public void testRemove() {
+        Souvenir souvenir = createSouvenir(1, 2020);
+        index.add(souvenir);
+
+        index.remove(souvenir);
+
+        Assert.assertTrue(index.get(2020, 2020).isEmpty());
+    }
+
+    @Test
+    public void testUpdate() {
+        Souvenir souvenir = createSouvenir(1, 2020);
+        Souvenir sameYearSouvenir = createSouvenir(1, 2020);
+        sameYearSouvenir.setPrice(20.0);
+        Souvenir otherYearSouvenir = createSouvenir(1, 2021);
+        index.add(souvenir);
+
+        index.update(souvenir, sameYearSouvenir);
+        Assert.assertEquals(index.get(2020, 2020).get(2020).get(0).getPrice(), 20.0);
+
+        index.update(sameYearSouvenir, otherYearSouvenir);
+        Assert.assertEquals(index.get(2020, 2021), Map.of(2021, List.of(otherYearSouvenir)));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testGetReturnsReadOnlyMap() {
+        index.add(createSouvenir(1, 2020));
+
+        index.get(2020, 2020).get(2020).clear();
+    }
+
+    @Test
+    public void testGetEmptyRange() {
+        index.add(createSouvenir(1, 2020));
+
+        Assert.assertTrue(index.get(2021, 2019).isEmpty());
+    }
+
+    @Test
+    public void testGetByDates() {
+        Souvenir souvenir1 = createSouvenir(1, LocalDate.of(2020, 3, 15));
+        Souvenir souvenir2 = createSouvenir(2, LocalDate.of(2020, 3, 1));
+        Souvenir souvenir3 = createSouvenir(3, LocalDate.of(2020, 3, 15));
+        index.add(souvenir3);
+        index.add(souvenir1);
+        index.add(souvenir2);
+        index.add(createSouvenir(4, LocalDate.of(2020, 3, 16)));
+        index.add(createSouvenir(5, null));
+
+        Assert.assertEquals(index.get(LocalDate.of(2020, 3, 1), LocalDate.of(2020, 3, 15)),
+                List.of(souvenir2, souvenir1, souvenir3));
+        Assert.assertTrue(index.get(LocalDate.of(2020, 3, 16), LocalDate.of(2020, 3, 15)).isEmpty());
+    }
+
+    @Test
+    public void testCountByMonthAndYear() {
+        index.add(createSouvenir(1, LocalDate.of(2019, 12, 31)));
+        index.add(createSouvenir(2, LocalDate.of(2020, 1, 1)));
+        index.add(createSouvenir(3, LocalDate.of(2020, 1, 1)));
+        index.add(createSouvenir(4, LocalDate.of(2020, 3, 10)));
+        index.add(createSouvenir(5, LocalDate.of(2021, 1, 1)));
+        LocalDate from = LocalDate.of(2019, 12, 31);
+        LocalDate to = LocalDate.of(2020, 12, 31);
+
+        Assert.assertEquals(index.countByMonth(from, to), Map.of(YearMonth.of(2019, 12), 1L,
+                YearMonth.of(2020, 1), 2L, YearMonth.of(2020, 3), 1L));
+        Assert.assertEquals(List.copyOf(index.countByMonth(from, to).keySet()),
+                List.of(YearMonth.of(2019, 12), YearMonth.of(2020, 1), YearMonth.of(2020, 3)));
+        Assert.assertEquals(index.countByYear(from, to), Map.of(2019, 1L, 2020, 3L));
+    }
+
+    @Test
+    public void testUpdateDate() {
+        Souvenir souvenir = createSouvenir(1, LocalDate.of(2020, 3, 1));
+        Souvenir movedSouvenir = createSouvenir(1, LocalDate.of(2020, 3, 2));
+        index.add(souvenir);
+
+        index.update(souvenir, movedSouvenir);
+
+        Assert.assertEquals(index.get(LocalDate.of(2020, 3, 1), LocalDate.of(2020, 3, 31)), List.of(movedSouvenir));
+        Assert.assertEquals(index.countByYear(LocalDate.MIN, LocalDate.MAX), Map.of(2020, 1L));
+    }
+
+    @Test
+    public void testCountAfterReplaceAndRemove() {
+        Souvenir souvenir = createSouvenir(1, LocalDate.of(2020, 3, 1));
+        Souvenir repricedSouvenir = createSouvenir(1, LocalDate.of(2020, 3, 1));
+        repricedSouvenir.setPrice(20.0);
+        index.add(souvenir);
+        index.add(createSouvenir(2, LocalDate.of(2020, 3, 1)));
+
+        index.update(souvenir, repricedSouvenir);
+        Assert.assertEquals(index.countByMonth(LocalDate.MIN, LocalDate.MAX), Map.of(YearMonth.of(2020, 3), 2L));
+
+        index.remove(repricedSouvenir);
+        index.remove(repricedSouvenir);
+        Assert.assertEquals(index.countByMonth(LocalDate.MIN, LocalDate.MAX), Map.of(YearMonth.of(2020, 3), 1L));
+
+        index.remove(createSouvenir(2, LocalDate.of(2020, 3, 1)));
+        Assert.assertTrue(index.countByYear(LocalDate.MIN, LocalDate.MAX).isEmpty());
+    }
+
+    private Souvenir createSouvenir(long id, LocalDate productionDate) {
+        Souvenir souvenir = new Souvenir("Souvenir" + id, 1L, productionDate, 10.0);
+        souvenir.setId(id);
+        return souvenir;
+    }
+
+    private Souvenir createSouvenir(long id, int year) {
+        Souvenir souvenir = new Souvenir("Souvenir" + id, 1L, LocalDate.of(year, 6, 1), 10.0);
+        souvenir.setId(id);
+        return souvenir;
+    }
+}
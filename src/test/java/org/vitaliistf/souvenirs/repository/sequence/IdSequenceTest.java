@@ -0,0 +1,60 @@
+package org.vitaliistf.souvenirs.repository.sequence;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+public class IdSequenceTest {
+
+    @Test
+    public void testSeededFrom() {
+        IdSequence sequence = IdSequence.seededFrom(LongStream.of(3, 10, 7));
+
+        Assert.assertEquals(sequence.next(), 11L);
+        Assert.assertEquals(sequence.next(), 12L);
+    }
+
+    @Test
+    public void testSeededFromEmpty() {
+        IdSequence sequence = IdSequence.seededFrom(LongStream.empty());
+
+        Assert.assertEquals(sequence.next(), 1L);
+    }
+
+    @Test
+    public void testNextBlock() {
+        IdSequence sequence = new IdSequence(5);
+
+        Assert.assertEquals(sequence.nextBlock(10), 6L);
+        Assert.assertEquals(sequence.next(), 16L);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testNextBlockInvalidSize() {
+        new IdSequence(0).nextBlock(0);
+    }
+
+    @Test
+    public void testReset() {
+        IdSequence sequence = new IdSequence(5);
+
+        sequence.reset(0);
+
+        Assert.assertEquals(sequence.next(), 1L);
+    }
+
+    @Test
+    public void testConcurrentNext() {
+        IdSequence sequence = new IdSequence(0);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 10_000).parallel().forEach(i -> ids.add(sequence.next()));
+
+        Assert.assertEquals(ids.size(), 10_000);
+        Assert.assertEquals(sequence.next(), 10_001L);
+    }
+}
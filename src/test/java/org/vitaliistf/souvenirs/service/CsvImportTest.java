@@ -0,0 +1,81 @@
+package org.vitaliistf.souvenirs.service;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.vitaliistf.souvenirs.filemanager.FileManager;
+import org.vitaliistf.souvenirs.filemanager.PersistenceMode;
+import org.vitaliistf.souvenirs.filemanager.codec.ManufacturerCodec;
+import org.vitaliistf.souvenirs.model.Manufacturer;
+import org.vitaliistf.souvenirs.repository.implementation.InMemoryManufacturerRepository;
+import org.vitaliistf.souvenirs.validation.ManufacturerValidator;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class CsvImportTest {
+
+    private Path directory;
+    private InMemoryManufacturerRepository repository;
+
+    @BeforeMethod
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("csv-import");
+        repository = new InMemoryManufacturerRepository(createFileManager());
+    }
+
+    @AfterMethod
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.list(directory)) {
+            for (Path path : paths.toList()) {
+                Files.delete(path);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void testParseLine() {
+        Assert.assertEquals(CsvImport.parseLine("Mug,\"Acme, Inc.\",\"say \"\"hi\"\"\","),
+                new String[]{"Mug", "Acme, Inc.", "say \"hi\"", ""});
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testParseLineUnclosedQuote() {
+        CsvImport.parseLine("Mug,\"Acme");
+    }
+
+    @Test
+    public void testRun() throws IOException {
+        List<String> lines = new ArrayList<>();
+        lines.add("name,country");
+        for (int i = 1; i <= 25_000; i++) {
+            lines.add("Manufacturer" + i + ",Country" + (i % 7));
+        }
+        lines.add("Manufacturer1,Country1");
+        lines.add(",Country1");
+        lines.add("Manufacturer0");
+        Path file = Files.write(directory.resolve("manufacturers.csv"), lines);
+
+        ImportResult result = CsvImport.run(file, 2, fields -> new Manufacturer(fields[0], fields[1]),
+                new ManufacturerValidator(), repository);
+
+        Assert.assertEquals(result.imported(), 25_000);
+        Assert.assertEquals(result.rejected(), 3);
+        Assert.assertTrue(result.errors().contains("Line 25002: This object is already present in the system."));
+        Assert.assertTrue(result.errors().contains("Line 25004: Expected 2 fields."));
+        Assert.assertEquals(repository.getPage(0L, 3).stream().map(Manufacturer::getName).toList(),
+                List.of("Manufacturer1", "Manufacturer2", "Manufacturer3"));
+        Assert.assertEquals(new InMemoryManufacturerRepository(createFileManager()).getAll().size(), 25_000);
+    }
+
+    private FileManager<Manufacturer> createFileManager() {
+        return new FileManager<>(directory.resolve("manufacturers.dat").toString(), new ManufacturerCodec(),
+                Manufacturer::getId, PersistenceMode.JOURNAL, 1000);
+    }
+}
@@ -0,0 +1,61 @@
+package org.vitaliistf.souvenirs.service;
+
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class JoinsTest {
+
+    @DataProvider(name = "hashGroupJoin")
+    public Object[][] hashGroupJoin() {
+        return new Object[][]{
+                // Build side is the left one
+                {List.of("a1", "b1"), List.of("a2", "a3", "c1", "a4"),
+                        Map.of("a1", List.of("a2", "a3", "a4"), "b1", List.of())},
+                // Build side is the right one
+                {List.of("a1", "b1", "c1"), List.of("b2", "b3"),
+                        Map.of("a1", List.of(), "b1", List.of("b2", "b3"), "c1", List.of())}
+        };
+    }
+
+    @Test(dataProvider = "hashGroupJoin")
+    public void testHashGroupJoin(List<String> left, List<String> right, Map<String, List<String>> expected) {
+        Map<String, List<String>> result = Joins.hashGroupJoin(left, JoinsTest::key, right, JoinsTest::key);
+
+        Assert.assertEquals(result, expected);
+        Assert.assertEquals(List.copyOf(result.keySet()), left);
+    }
+
+    @Test
+    public void testIndexGroupJoin() {
+        Map<Character, List<String>> data = Map.of('a', List.of("a2", "a3"), 'c', List.of("c1"));
+        Function<Collection<Character>, Map<Character, List<String>>> index = keys -> keys.stream()
+                .filter(data::containsKey)
+                .collect(Collectors.toMap(key -> key, data::get));
+
+        Map<String, List<String>> result = Joins.indexGroupJoin(List.of("a1", "b1", "c2"), JoinsTest::key, index);
+
+        Assert.assertEquals(result, Map.of("a1", List.of("a2", "a3"), "b1", List.of(), "c2", List.of("c1")));
+    }
+
+    @Test
+    public void testIndexSemiJoin() {
+        Map<Character, String> data = Map.of('a', "A", 'b', "B");
+
+        List<String> result = Joins.indexSemiJoin(List.of("b1", "a1", "b2", "c1"), JoinsTest::key,
+                key -> Optional.ofNullable(data.get(key)));
+
+        Assert.assertEquals(result, List.of("B", "A"));
+    }
+
+    private static Character key(String value) {
+        return value.charAt(0);
+    }
+}
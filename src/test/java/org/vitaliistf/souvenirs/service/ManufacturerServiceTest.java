@@ -65,7 +65,7 @@ public class ManufacturerServiceTest {
     @Test(dataProviderClass = StaticDataProvider.class, dataProvider = "validManufacturers")
     public void testUpdateManufacturer(Manufacturer manufacturer) {
         manufacturerRepository.add(manufacturer);
-        manufacturer.setId(1L);
+        manufacturer.setId(idOf(manufacturer));
         ValidationResult result = service.updateManufacturer(manufacturer);
 
         Assert.assertTrue(result.isSuccessful());
@@ -83,9 +83,9 @@ public class ManufacturerServiceTest {
 
     @Test
     public void testDeleteManufacturer() {
-        long manufacturerId = 1L;
         Manufacturer manufacturer = new Manufacturer("Manufacturer A", "USA");
         manufacturerRepository.add(manufacturer);
+        long manufacturerId = idOf(manufacturer);
         Souvenir souvenir = new Souvenir("Souvenir A", manufacturerId, LocalDate.now(), 10.0);
         souvenirRepository.add(souvenir);
 
@@ -119,10 +119,7 @@ public class ManufacturerServiceTest {
 
     @Test(dataProviderClass = StaticDataProvider.class, dataProvider = "manufacturersWithSouvenirs")
     public void testGetManufacturersWithSouvenirs(Map<Manufacturer, List<Souvenir>> expected) {
-        expected.forEach((key, value) -> {
-            manufacturerRepository.add(key);
-            value.forEach(souvenir -> souvenirRepository.add(souvenir));
-        });
+        add(expected);
 
         Map<Manufacturer, List<Souvenir>> result = service.getManufacturersWithSouvenirs();
 
@@ -137,10 +134,7 @@ public class ManufacturerServiceTest {
     @Test(dataProviderClass = StaticDataProvider.class, dataProvider = "manufacturersByMaxPrice")
     public void testGetManufacturersByMaxPrice(Set<Manufacturer> expectedManufacturers,
                                                double maxPrice, Map<Manufacturer, List<Souvenir>> data) {
-        data.forEach((key, value) -> {
-            manufacturerRepository.add(key);
-            value.forEach(souvenir -> souvenirRepository.add(souvenir));
-        });
+        add(data);
 
         List<Manufacturer> result = service.getManufacturersByMaxPrice(maxPrice);
 
@@ -150,10 +144,7 @@ public class ManufacturerServiceTest {
     @Test(dataProviderClass = StaticDataProvider.class, dataProvider = "manufacturersOfSouvenirByYear")
     public void testGetManufacturersOfSouvenirByYear(List<Manufacturer> expectedManufacturers, String souvenirName,
                                                      int year, Map<Manufacturer, List<Souvenir>> data) {
-        data.forEach((key, value) -> {
-            manufacturerRepository.add(key);
-            value.forEach(souvenir -> souvenirRepository.add(souvenir));
-        });
+        add(data);
 
         List<Manufacturer> result = service.getManufacturersOfSouvenirByYear(souvenirName, year);
 
@@ -175,4 +166,26 @@ public class ManufacturerServiceTest {
         Assert.assertEquals(new HashSet<>(result), Set.of("USA", "Canada", "Germany"));
     }
 
-}
\ No newline at end of file
+    /**
+     * Adds the manufacturers with their souvenirs, pointing the souvenirs to the IDs allocated for them.
+     */
+    private void add(Map<Manufacturer, List<Souvenir>> data) {
+        data.forEach((manufacturer, souvenirs) -> {
+            manufacturerRepository.add(manufacturer);
+            long manufacturerId = idOf(manufacturer);
+            souvenirs.forEach(souvenir -> {
+                souvenir.setManufacturerId(manufacturerId);
+                souvenirRepository.add(souvenir);
+            });
+        });
+    }
+
+    private long idOf(Manufacturer manufacturer) {
+        return manufacturerRepository.getAll().stream()
+                .filter(manufacturer::equals)
+                .findFirst()
+                .orElseThrow()
+                .getId();
+    }
+
+}
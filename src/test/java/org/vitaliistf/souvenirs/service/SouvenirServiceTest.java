@@ -13,6 +13,9 @@ import org.vitaliistf.souvenirs.repository.implementation.InMemorySouvenirReposi
 import org.vitaliistf.souvenirs.validation.SouvenirValidator;
 import org.vitaliistf.souvenirs.validation.ValidationResult;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.HashSet;
 import java.util.List;
@@ -47,6 +50,7 @@ public class SouvenirServiceTest {
     @Test(dataProviderClass = StaticDataProvider.class, dataProvider = "validSouvenirs")
     public void testAddSouvenir(Souvenir souvenir) {
         manufacturerRepository.add(new Manufacturer("Manufacturer", "Ukraine"));
+        souvenir.setManufacturerId(manufacturerIdOf("Manufacturer"));
         ValidationResult result = service.addSouvenir(souvenir);
 
         Assert.assertTrue(result.isSuccessful());
@@ -65,8 +69,9 @@ public class SouvenirServiceTest {
     @Test(dataProviderClass = StaticDataProvider.class, dataProvider = "validSouvenirs")
     public void testUpdateSouvenir(Souvenir souvenir) {
         manufacturerRepository.add(new Manufacturer("Manufacturer", "Ukraine"));
+        souvenir.setManufacturerId(manufacturerIdOf("Manufacturer"));
         souvenirRepository.add(souvenir);
-        souvenir.setId(1);
+        souvenir.setId(souvenirIdOf(souvenir.getName()));
         souvenir.setPrice(25.0);
         ValidationResult result = service.updateSouvenir(souvenir);
 
@@ -85,9 +90,9 @@ public class SouvenirServiceTest {
 
     @Test
     public void testDeleteSouvenir() {
-        long souvenirId = 1L;
         Souvenir souvenir = new Souvenir("Souvenir A", 1L, LocalDate.now(), 10.0);
         souvenirRepository.add(souvenir);
+        long souvenirId = souvenirIdOf("Souvenir A");
 
         boolean result = service.deleteSouvenir(souvenirId);
 
@@ -116,6 +121,42 @@ public class SouvenirServiceTest {
         Assert.assertEquals(new HashSet<>(result), Set.of(souvenir1, souvenir2));
     }
 
+    @Test
+    public void testImportSouvenirs() throws IOException {
+        manufacturerRepository.add(new Manufacturer("Manufacturer A", "Ukraine"));
+        Path file = Files.createTempFile("souvenirs", ".csv");
+        Files.write(file, List.of(
+                "name,manufacturer,productionDate,price",
+                "Souvenir A,Manufacturer A,2020-01-01,10.5",
+                "Souvenir B,Manufacturer B,2020-01-01,10.5",
+                "Souvenir C,Manufacturer A,01-01-2020,10.5"));
+
+        ImportResult result;
+        try {
+            result = service.importSouvenirs(file);
+        } finally {
+            Files.delete(file);
+        }
+
+        Assert.assertEquals(result.imported(), 1);
+        Assert.assertEquals(result.errors(), List.of(
+                "Line 3: There is no such manufacturer in the system.",
+                "Line 4: Production date must be written as yyyy-MM-dd."));
+        Assert.assertEquals(souvenirRepository.getAll().get(0).getPrice(), 10.5);
+    }
+
+    @Test
+    public void testStreamAllSouvenirs() {
+        for (int i = 1; i <= 5; i++) {
+            souvenirRepository.add(new Souvenir("Souvenir " + i, 1L, LocalDate.now(), i));
+        }
+        List<Long> expected = souvenirRepository.getAll().stream().map(Souvenir::getId).sorted().toList();
+
+        List<Long> result = service.streamAllSouvenirs(2).map(Souvenir::getId).toList();
+
+        Assert.assertEquals(result, expected);
+    }
+
     @Test
     public void testGetSouvenirsByManufacturer() {
         long manufacturerId = 1L;
@@ -136,8 +177,8 @@ public class SouvenirServiceTest {
         manufacturerRepository.add(manufacturer1);
         manufacturerRepository.add(manufacturer2);
 
-        Souvenir souvenir1 = new Souvenir("Souvenir A", 1L, LocalDate.now(), 10.0);
-        Souvenir souvenir2 = new Souvenir("Souvenir B", 2L, LocalDate.now(), 15.0);
+        Souvenir souvenir1 = new Souvenir("Souvenir A", manufacturerIdOf("Manufacturer A"), LocalDate.now(), 10.0);
+        Souvenir souvenir2 = new Souvenir("Souvenir B", manufacturerIdOf("Manufacturer B"), LocalDate.now(), 15.0);
         souvenirRepository.add(souvenir1);
         souvenirRepository.add(souvenir2);
 
@@ -157,4 +198,30 @@ public class SouvenirServiceTest {
 
         Assert.assertEquals(result.size(), 2);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetSouvenirsByYears() {
+        Souvenir souvenir1 = new Souvenir("Souvenir A", 1L, LocalDate.of(2021, 1, 1), 10.0);
+        Souvenir souvenir2 = new Souvenir("Souvenir B", 1L, LocalDate.of(2022, 1, 1), 15.0);
+        Souvenir souvenir3 = new Souvenir("Souvenir C", 1L, LocalDate.of(2023, 1, 1), 20.0);
+        souvenirRepository.add(souvenir1);
+        souvenirRepository.add(souvenir2);
+        souvenirRepository.add(souvenir3);
+
+        Map<Integer, List<Souvenir>> result = service.getSouvenirsByYears(2022, 2023);
+
+        Assert.assertEquals(result, Map.of(2022, List.of(souvenir2), 2023, List.of(souvenir3)));
+    }
+
+    private long manufacturerIdOf(String name) {
+        return manufacturerRepository.getAll().stream()
+                .filter(manufacturer -> manufacturer.getName().equals(name))
+                .findFirst()
+                .orElseThrow()
+                .getId();
+    }
+
+    private long souvenirIdOf(String name) {
+        return souvenirRepository.getByName(name).get(0).getId();
+    }
+}